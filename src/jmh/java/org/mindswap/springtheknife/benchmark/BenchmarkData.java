@@ -0,0 +1,109 @@
+package org.mindswap.springtheknife.benchmark;
+
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantType;
+import org.mindswap.springtheknife.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the object graphs the benchmarks convert or persist: restaurants spread over a few cities with two
+ * types each, users with a number of favorites, and bookings pointing at both.
+ */
+final class BenchmarkData {
+
+    static final int CITIES = 20;
+    static final int RESTAURANT_TYPES = 8;
+    static final int TYPES_PER_RESTAURANT = 2;
+
+    private BenchmarkData() {
+    }
+
+    static List<City> cities() {
+        List<City> cities = new ArrayList<>();
+        for (int i = 0; i < CITIES; i++) {
+            cities.add(City.builder().name("City " + i).restaurants(new HashSet<>()).build());
+        }
+        return cities;
+    }
+
+    static List<RestaurantType> restaurantTypes() {
+        List<RestaurantType> restaurantTypes = new ArrayList<>();
+        for (int i = 0; i < RESTAURANT_TYPES; i++) {
+            restaurantTypes.add(RestaurantType.builder().type("Type " + i).restaurants(new HashSet<>()).build());
+        }
+        return restaurantTypes;
+    }
+
+    static List<Restaurant> restaurants(int count, List<City> cities, List<RestaurantType> restaurantTypes) {
+        List<Restaurant> restaurants = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<RestaurantType> types = new ArrayList<>();
+            for (int t = 0; t < TYPES_PER_RESTAURANT; t++) {
+                types.add(restaurantTypes.get((i + t) % restaurantTypes.size()));
+            }
+            restaurants.add(Restaurant.builder()
+                    .name("Restaurant " + i)
+                    .email("restaurant" + i + "@theknife.com")
+                    .phoneNumber(String.format("+3512%08d", i))
+                    .address(new Address("Rua de Santa Catarina", String.valueOf(i), "4000-447"))
+                    .latitude(41.15 + i % 100 / 1000.0)
+                    .longitude(-8.61 - i % 100 / 1000.0)
+                    .rating(3.0 + i % 20 / 10.0)
+                    .ratingSum(0.0)
+                    .ratingCount(0L)
+                    .city(cities.get(i % cities.size()))
+                    .restaurantTypes(types)
+                    .bookingList(new ArrayList<>())
+                    .userExperienceList(new ArrayList<>())
+                    .usersWhoFavorited(new HashSet<>())
+                    .build());
+        }
+        return restaurants;
+    }
+
+    static List<User> users(int count, int favorites, List<Restaurant> restaurants) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Set<Restaurant> favoriteRestaurants = new HashSet<>();
+            for (int f = 0; f < favorites; f++) {
+                favoriteRestaurants.add(restaurants.get((i * favorites + f) % restaurants.size()));
+            }
+            users.add(User.builder()
+                    .userName("user" + i)
+                    .password("secret")
+                    .email("user" + i + "@theknife.com")
+                    .firstName("Ana")
+                    .lastName("Silva")
+                    .dateOfBirth(LocalDate.of(1990, 1, 1))
+                    .favoriteRestaurants(favoriteRestaurants)
+                    .bookings(new ArrayList<>())
+                    .userExperiences(new ArrayList<>())
+                    .build());
+        }
+        return users;
+    }
+
+    static List<Booking> bookings(int count, List<User> users, List<Restaurant> restaurants) {
+        List<Booking> bookings = new ArrayList<>();
+        LocalDateTime first = LocalDate.of(2026, 1, 1).atTime(12, 0);
+        for (int i = 0; i < count; i++) {
+            bookings.add(Booking.builder()
+                    .user(users.get(i % users.size()))
+                    .restaurant(restaurants.get(i % restaurants.size()))
+                    .bookingTime(first.plusMinutes(30L * i))
+                    .status(BookingStatus.values()[i % BookingStatus.values().length])
+                    .build());
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,78 @@
+package org.mindswap.springtheknife.benchmark;
+
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.service.cache.VersionedCacheSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes and decodes a cached restaurant page with JDK serialization and with the versioned serializer the
+ * Redis caches use. The encode benchmarks also report the size of the value they wrote as the bytes counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializerBenchmark {
+
+    @Param({"jdk", "versioned"})
+    public String format;
+
+    @Param({"1", "50"})
+    public int pageSize;
+
+    private RedisSerializer<Object> serializer;
+    private List<RestaurantGetDto> page;
+    private byte[] encoded;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() {
+        serializer = format.equals("jdk") ? RedisSerializer.java() : VersionedCacheSerializer.listOf(RestaurantGetDto.class);
+        page = IntStream.range(0, pageSize).mapToObj(CacheSerializerBenchmark::restaurant).toList();
+        encoded = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize size) {
+        byte[] bytes = serializer.serialize(page);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static RestaurantGetDto restaurant(int i) {
+        return new RestaurantGetDto("Porto", "Pizza " + i, "pizza" + i + "@ge.com",
+                new Address("Rua de Santa Catarina", String.valueOf(i), "4000-447"), "+35122000000" + i % 10, 4.5,
+                Set.of(new RestaurantTypeDto(1L, "Italian"), new RestaurantTypeDto(2L, "Pizzeria")));
+    }
+}
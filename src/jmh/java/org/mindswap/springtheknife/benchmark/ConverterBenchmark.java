@@ -0,0 +1,80 @@
+package org.mindswap.springtheknife.benchmark;
+
+import org.mindswap.springtheknife.converter.BookingConverter;
+import org.mindswap.springtheknife.converter.RestaurantConverter;
+import org.mindswap.springtheknife.converter.UserConverter;
+import org.mindswap.springtheknife.dto.booking.BookingGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.user.UserGetDto;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantType;
+import org.mindswap.springtheknife.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion as done on every read: a restaurant with its city and types, a user with all of
+ * its favorite restaurants, and a booking nesting both. Each invocation converts the next entity of a pool,
+ * so the graphs are not all hot in cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int POOL = 1024;
+
+    @Param({"1", "10", "50"})
+    public int favorites;
+
+    private List<Restaurant> restaurants;
+    private List<User> users;
+    private List<Booking> bookings;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<City> cities = BenchmarkData.cities();
+        List<RestaurantType> restaurantTypes = BenchmarkData.restaurantTypes();
+        restaurants = BenchmarkData.restaurants(POOL, cities, restaurantTypes);
+        users = BenchmarkData.users(POOL, favorites, restaurants);
+        bookings = BenchmarkData.bookings(POOL, users, restaurants);
+    }
+
+    @Benchmark
+    public RestaurantGetDto restaurantToDto() {
+        return RestaurantConverter.fromModelToRestaurantDto(restaurants.get(nextIndex()));
+    }
+
+    @Benchmark
+    public UserGetDto userToDto() {
+        return UserConverter.fromEntityToGetDto(users.get(nextIndex()));
+    }
+
+    @Benchmark
+    public BookingGetDto bookingToDto() {
+        return BookingConverter.fromModelToBookingDto(bookings.get(nextIndex()));
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (POOL - 1);
+        return next;
+    }
+}
@@ -0,0 +1,66 @@
+package org.mindswap.springtheknife.benchmark;
+
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService.GeoHit;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-restaurant queries on the in-memory geo index, filled with restaurants spread over mainland
+ * Portugal. Each invocation queries the next point of a pool, alternating small and large radii and
+ * adding city and type filters on some of them, so no single cell stays hot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    private static final int POOL = 1024;
+
+    @Param({"10000", "100000"})
+    public int restaurants;
+
+    private RestaurantGeoServiceImpl restaurantGeoService;
+    private double[][] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        // The repository is only read by rebuild(), which is not called here
+        restaurantGeoService = new RestaurantGeoServiceImpl(null, 0.05, 50, 100);
+        for (int i = 0; i < restaurants; i++) {
+            restaurantGeoService.index((long) i, 37 + random.nextDouble() * 5, -9.5 + random.nextDouble() * 3,
+                    (long) (i % 20), Set.of((long) (i % 7)));
+        }
+        queries = new double[POOL][];
+        for (int i = 0; i < POOL; i++) {
+            queries[i] = new double[]{37 + random.nextDouble() * 5, -9.5 + random.nextDouble() * 3};
+        }
+    }
+
+    @Benchmark
+    public List<GeoHit> findNearest() throws InvalidGeoQueryException {
+        int q = next = (next + 1) & (POOL - 1);
+        return restaurantGeoService.findNearest(queries[q][0], queries[q][1],
+                q % 2 == 0 ? 5 : 25, 20, q % 3 == 0 ? 4L : null, q % 5 == 0 ? 3L : null);
+    }
+}
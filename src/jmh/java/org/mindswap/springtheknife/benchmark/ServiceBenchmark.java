@@ -0,0 +1,136 @@
+package org.mindswap.springtheknife.benchmark;
+
+import org.mindswap.springtheknife.SpringTheKnifeApplication;
+import org.mindswap.springtheknife.dto.booking.BookingGetDto;
+import org.mindswap.springtheknife.dto.city.CityGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserGetDto;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantType;
+import org.mindswap.springtheknife.model.User;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.booking.BookingService;
+import org.mindswap.springtheknife.service.city.CityService;
+import org.mindswap.springtheknife.service.restaurant.RestaurantService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeService;
+import org.mindswap.springtheknife.service.user.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The getAll* service methods end to end, query and conversion, against an in-memory H2 database seeded
+ * with a few hundred restaurants, users and bookings. Caching is off so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int RESTAURANTS = 500;
+    private static final int USERS = 200;
+    private static final int FAVORITES_PER_USER = 5;
+    private static final int BOOKINGS = 1000;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private RestaurantService restaurantService;
+    private UserService userService;
+    private BookingService bookingService;
+    private CityService cityService;
+    private RestaurantTypeService restaurantTypeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringTheKnifeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.cache.type=none",
+                        "--theknife.image.generator=stub",
+                        "--theknife.rating.reconciliation-cron=-",
+                        "--logging.level.root=WARN");
+        seed();
+        restaurantService = context.getBean(RestaurantService.class);
+        userService = context.getBean(UserService.class);
+        bookingService = context.getBean(BookingService.class);
+        cityService = context.getBean(CityService.class);
+        restaurantTypeService = context.getBean(RestaurantTypeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RestaurantGetDto> getAllRestaurants() {
+        return restaurantService.getAllRestaurants(0, pageSize, "id");
+    }
+
+    @Benchmark
+    public List<UserGetDto> getAllUsers() {
+        return userService.getAllUsers(0, pageSize, "id");
+    }
+
+    @Benchmark
+    public List<BookingGetDto> getAllBookings() {
+        return bookingService.getAllBookings(0, pageSize, "id");
+    }
+
+    @Benchmark
+    public List<CityGetDto> getAllCities() throws Exception {
+        return cityService.getAllCities(0, pageSize, "id");
+    }
+
+    @Benchmark
+    public List<RestaurantTypeDto> getAllRestaurantTypes() {
+        return restaurantTypeService.getAllRestaurantType(0, pageSize, "id");
+    }
+
+    private void seed() {
+        context.getBean(TransactionTemplate.class).executeWithoutResult(tx -> {
+            List<City> cities = context.getBean(CityRepository.class).saveAll(BenchmarkData.cities());
+            List<RestaurantType> restaurantTypes = context.getBean(RestaurantTypeRepository.class)
+                    .saveAll(BenchmarkData.restaurantTypes());
+            List<Restaurant> restaurants = context.getBean(RestaurantRepository.class)
+                    .saveAll(BenchmarkData.restaurants(RESTAURANTS, cities, restaurantTypes));
+            List<User> users = context.getBean(UserRepository.class)
+                    .saveAll(BenchmarkData.users(USERS, FAVORITES_PER_USER, restaurants));
+            context.getBean(BookingRepository.class).saveAll(BenchmarkData.bookings(BOOKINGS, users, restaurants));
+        });
+        context.getBean(RestaurantSummaryService.class).backfill();
+    }
+}
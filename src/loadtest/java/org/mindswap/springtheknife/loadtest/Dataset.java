@@ -0,0 +1,66 @@
+package org.mindswap.springtheknife.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ids the scenarios pick from, read from the database once it is seeded. Reviews need a completed
+ * booking that has none yet, so each one is handed out once.
+ */
+final class Dataset {
+
+    private final long[] restaurantIds;
+    private final long[] userIds;
+    private final long[] openBookingIds;
+    private final List<CompletedBooking> reviewableBookings;
+    private final AtomicInteger nextReviewable = new AtomicInteger();
+    private final AtomicLong userSequence = new AtomicLong(System.currentTimeMillis() * 1_000);
+
+    Dataset(long[] restaurantIds, long[] userIds, long[] openBookingIds, List<CompletedBooking> reviewableBookings) {
+        this.restaurantIds = restaurantIds;
+        this.userIds = userIds;
+        this.openBookingIds = openBookingIds;
+        this.reviewableBookings = reviewableBookings;
+    }
+
+    int restaurantCount() {
+        return restaurantIds.length;
+    }
+
+    int userCount() {
+        return userIds.length;
+    }
+
+    long randomRestaurant() {
+        return pick(restaurantIds);
+    }
+
+    long randomUser() {
+        return pick(userIds);
+    }
+
+    long randomOpenBooking() {
+        return pick(openBookingIds);
+    }
+
+    /**
+     * The next completed booking without a review, or null once they are all used.
+     */
+    CompletedBooking nextReviewableBooking() {
+        int next = nextReviewable.getAndIncrement();
+        return next < reviewableBookings.size() ? reviewableBookings.get(next) : null;
+    }
+
+    long nextUserSequence() {
+        return userSequence.incrementAndGet();
+    }
+
+    private static long pick(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    record CompletedBooking(long bookingId, long userId, long restaurantId) {
+    }
+}
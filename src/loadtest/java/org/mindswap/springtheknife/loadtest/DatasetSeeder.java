@@ -0,0 +1,127 @@
+package org.mindswap.springtheknife.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Fills an empty database with a TheKnife-shaped dataset through plain JDBC batches, since going through
+ * the entities would take hours at a million restaurants:
+ * <ul>
+ *     <li>the given number of restaurants over 100 cities, each with two of 20 restaurant types;</li>
+ *     <li>one user per ten restaurants, each with five favorite restaurants;</li>
+ *     <li>one booking per restaurant: half confirmed in the next two weeks, half completed last week
+ *     and not reviewed yet.</li>
+ * </ul>
+ * The database is kept between runs, so a size is only seeded once.
+ */
+final class DatasetSeeder {
+
+    static final int CITIES = 100;
+    static final int RESTAURANT_TYPES = 20;
+    static final int TYPES_PER_RESTAURANT = 2;
+    static final int RESTAURANTS_PER_USER = 10;
+    static final int FAVORITES_PER_USER = 5;
+    private static final int BATCH = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DatasetSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Seeds the given number of restaurants unless the database already holds them, and reads the ids back.
+     */
+    Dataset seed(int restaurants) {
+        long existing = count("restaurants");
+        if (existing == 0) {
+            insert(restaurants);
+        } else if (existing != restaurants) {
+            throw new IllegalStateException("The database holds " + existing + " restaurants, not " + restaurants
+                    + "; point loadtest.data-dir elsewhere or delete it");
+        }
+        return load();
+    }
+
+    private void insert(int restaurants) {
+        long started = System.nanoTime();
+        int users = Math.max(1, restaurants / RESTAURANTS_PER_USER);
+
+        batch("INSERT INTO city (name) VALUES (?)", CITIES, i -> new Object[]{"City " + i});
+        batch("INSERT INTO restaurant_type (type) VALUES (?)", RESTAURANT_TYPES, i -> new Object[]{"Type " + i});
+        long[] cityIds = ids("city");
+        long[] typeIds = ids("restaurant_type");
+
+        batch("INSERT INTO restaurants (name, street, door_number, zip_code, email, phone_number, latitude, longitude, "
+                        + "rating, rating_sum, rating_count, city_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                restaurants, i -> new Object[]{"Restaurant " + i, "Rua de Santa Catarina", String.valueOf(i), "4000-447",
+                        "restaurant" + i + "@theknife.com", String.format("+351%09d", i),
+                        37.0 + (i % 4_000) / 1_000.0, -9.0 + (i / 4_000 % 2_000) / 1_000.0,
+                        null, 0.0, 0L, cityIds[i % cityIds.length]});
+        long[] restaurantIds = ids("restaurants");
+        batch("INSERT INTO restaurants_by_type (restaurant_id, restaurant_type_id) VALUES (?, ?)",
+                restaurants * TYPES_PER_RESTAURANT, i -> new Object[]{restaurantIds[i / TYPES_PER_RESTAURANT],
+                        typeIds[(i / TYPES_PER_RESTAURANT + i % TYPES_PER_RESTAURANT) % typeIds.length]});
+
+        batch("INSERT INTO users (user_name, password, email, first_name, last_name, date_of_birth) VALUES (?, ?, ?, ?, ?, ?)",
+                users, i -> new Object[]{"user" + i, "secret", "user" + i + "@theknife.com", "Ana", "Silva",
+                        Date.valueOf(LocalDate.of(1990, 1, 1))});
+        long[] userIds = ids("users");
+        batch("INSERT INTO user_favourite_restaurants (user_id, restaurant_id) VALUES (?, ?)",
+                users * FAVORITES_PER_USER, i -> new Object[]{userIds[i / FAVORITES_PER_USER],
+                        restaurantIds[(int) ((i * 7_919L) % restaurantIds.length)]});
+
+        LocalDateTime tomorrow = LocalDate.now().plusDays(1).atTime(12, 0);
+        LocalDateTime lastWeek = LocalDate.now().minusDays(7).atTime(12, 0);
+        batch("INSERT INTO booking (booking_time, status, user_id, restaurant_id) VALUES (?, ?, ?, ?)",
+                restaurants, i -> {
+                    boolean open = i % 2 == 0;
+                    LocalDateTime time = (open ? tomorrow.plusDays(i % 13) : lastWeek).plusMinutes(30L * (i % 22));
+                    return new Object[]{Timestamp.valueOf(time), open ? "CONFIRMED" : "COMPLETE",
+                            userIds[i % userIds.length], restaurantIds[i]};
+                });
+        System.out.printf("Seeded %d restaurants, %d users and %d bookings in %ds%n", restaurants, users, restaurants,
+                (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private Dataset load() {
+        List<Dataset.CompletedBooking> reviewable = jdbcTemplate.query(
+                "SELECT b.id, b.user_id, b.restaurant_id FROM booking b WHERE b.status = 'COMPLETE' "
+                        + "AND NOT EXISTS (SELECT 1 FROM user_experience e WHERE e.booking_id = b.id) ORDER BY b.id",
+                (rs, row) -> new Dataset.CompletedBooking(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+        long[] openBookings = jdbcTemplate.queryForList("SELECT id FROM booking WHERE status <> 'COMPLETE' ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        return new Dataset(ids("restaurants"), ids("users"), openBookings, reviewable);
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private long[] ids(String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void batch(String sql, int rows, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < rows; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
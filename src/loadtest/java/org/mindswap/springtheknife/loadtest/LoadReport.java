@@ -0,0 +1,95 @@
+package org.mindswap.springtheknife.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and status counts per endpoint, in microseconds up to a minute at three significant
+ * digits. Requests that got no response are counted under status 0.
+ */
+final class LoadReport {
+
+    private static final long HIGHEST_MICROS = Duration.ofMinutes(1).toNanos() / 1_000;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, int status, long latencyNanos) {
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).record(status, latencyNanos);
+    }
+
+    List<EndpointResult> results(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<EndpointResult> results = new ArrayList<>();
+        endpoints.forEach((name, endpoint) -> results.add(endpoint.result(name, seconds)));
+        return results;
+    }
+
+    void print(Duration elapsed) {
+        System.out.printf("%n%-24s %9s %8s %9s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointResult result : results(elapsed)) {
+            System.out.printf("%-24s %9d %8d %9.1f %10.2f %10.2f %10.2f %10.2f   %s%n", result.endpoint(), result.requests(),
+                    result.errors(), result.throughput(), result.p50Millis(), result.p99Millis(), result.p999Millis(),
+                    result.maxMillis(), result.statuses());
+        }
+    }
+
+    void write(Path file, LoadTestConfig config, Duration elapsed) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Map<String, Object> report = Map.of(
+                "restaurants", config.restaurants(),
+                "virtualUsers", config.virtualUsers(),
+                "rate", config.rate(),
+                "durationSeconds", elapsed.toNanos() / 1e9,
+                "mix", config.mix(),
+                "endpoints", results(elapsed));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    record EndpointResult(String endpoint, long requests, long errors, double throughput, double p50Millis,
+                          double p99Millis, double p999Millis, double maxMillis, Map<Integer, Long> statuses) {
+    }
+
+    private static final class Endpoint {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(int status, long latencyNanos) {
+            latencies.recordValue(Math.min(Math.max(1, latencyNanos / 1_000), HIGHEST_MICROS));
+            statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+        }
+
+        EndpointResult result(String name, double seconds) {
+            Histogram snapshot = latencies.copy();
+            Map<Integer, Long> counts = new ConcurrentSkipListMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            long errors = counts.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            return new EndpointResult(name, snapshot.getTotalCount(), errors, snapshot.getTotalCount() / seconds,
+                    millis(snapshot.getValueAtPercentile(50)), millis(snapshot.getValueAtPercentile(99)),
+                    millis(snapshot.getValueAtPercentile(99.9)), millis(snapshot.getMaxValue()), counts);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+}
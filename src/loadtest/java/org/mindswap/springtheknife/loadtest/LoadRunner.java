@@ -0,0 +1,113 @@
+package org.mindswap.springtheknife.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the traffic mix from a fixed number of virtual users, each on its own virtual thread.
+ * <p>
+ * With no rate every user sends its next request as soon as the previous one answers (closed loop). With a
+ * rate the users share it and send on a fixed schedule; a request that starts late because the previous one
+ * was slow is timed from when it should have started, so a stall shows in the percentiles instead of just
+ * lowering the request count.
+ */
+final class LoadRunner {
+
+    private final HttpClient client;
+    private final URI base;
+    private final Dataset dataset;
+    private final LoadTestConfig config;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+
+    LoadRunner(URI base, Dataset dataset, LoadTestConfig config) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.base = base;
+        this.dataset = dataset;
+        this.config = config;
+        this.scenarios = config.mix().keySet().toArray(Scenario[]::new);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Scenario, Integer> entry : config.mix().entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[i++] = total;
+        }
+    }
+
+    /**
+     * Sends the mix for the given duration and returns what was measured.
+     */
+    LoadReport run(Duration duration) throws InterruptedException {
+        LoadReport report = new LoadReport();
+        long deadline = System.nanoTime() + duration.toNanos();
+        long intervalNanos = config.rate() > 0 ? (long) (config.virtualUsers() * 1e9 / config.rate()) : 0;
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < config.virtualUsers(); user++) {
+                long firstStart = System.nanoTime() + (intervalNanos * user) / config.virtualUsers();
+                users.submit(() -> virtualUser(report, deadline, firstStart, intervalNanos));
+            }
+            users.shutdown();
+            if (!users.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS)) {
+                users.shutdownNow();
+            }
+        }
+        return report;
+    }
+
+    private void virtualUser(LoadReport report, long deadline, long firstStart, long intervalNanos) {
+        long intendedStart = firstStart;
+        while (intendedStart < deadline) {
+            if (intervalNanos > 0) {
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                intendedStart = System.nanoTime();
+            }
+            Scenario scenario = pick();
+            HttpRequest request = scenario.request(base, dataset, config.pageSize());
+            if (request != null) {
+                int status = send(request);
+                report.record(scenario.endpoint(), status, System.nanoTime() - intendedStart);
+            }
+            intendedStart += intervalNanos;
+        }
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+}
@@ -0,0 +1,74 @@
+package org.mindswap.springtheknife.loadtest;
+
+import org.mindswap.springtheknife.SpringTheKnifeApplication;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application on a random port against a file-backed H2 database holding the chosen dataset,
+ * replays the traffic mix (see {@link Scenario}) and reports throughput and p50/p99/p999 latency per
+ * endpoint, on the console and as JSON. Run with: mvn -P loadtest -DskipTests verify [-Dloadtest.*=...]
+ * <p>
+ * Redis is replaced by the in-process cache unless loadtest.redis=host:port points at a real one.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Files.createDirectories(config.dataDir());
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringTheKnifeApplication.class)
+                .run(applicationArguments(config))) {
+            Dataset dataset = new DatasetSeeder(context.getBean(JdbcTemplate.class)).seed(config.restaurants());
+            context.getBean(BookingAvailabilityService.class).rebuild();
+            context.getBean(RestaurantSummaryService.class).backfill();
+            URI base = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            System.out.printf("%d restaurants, %d users; %d virtual users, %s, mix %s%n", dataset.restaurantCount(),
+                    dataset.userCount(), config.virtualUsers(),
+                    config.rate() > 0 ? config.rate() + " req/s" : "closed loop", config.mix());
+
+            LoadRunner runner = new LoadRunner(base, dataset, config);
+            System.out.printf("Warming up for %ss%n", config.warmup().toSeconds());
+            runner.run(config.warmup());
+            System.out.printf("Measuring for %ss%n", config.duration().toSeconds());
+            LoadReport report = runner.run(config.duration());
+
+            report.print(config.duration());
+            report.write(config.result(), config, config.duration());
+            System.out.println("Results written to " + config.result().toAbsolutePath());
+        }
+    }
+
+    private static String[] applicationArguments(LoadTestConfig config) {
+        Path database = config.dataDir().toAbsolutePath().resolve("theknife-" + config.restaurants());
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:file:" + database,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--theknife.image.generator=stub",
+                "--logging.level.root=WARN"));
+        if (config.redis().isBlank()) {
+            arguments.add("--spring.cache.type=simple");
+        } else {
+            String[] hostAndPort = config.redis().split(":");
+            arguments.add("--spring.cache.type=redis");
+            arguments.add("--spring.data.redis.host=" + hostAndPort[0]);
+            arguments.add("--spring.data.redis.port=" + (hostAndPort.length > 1 ? hostAndPort[1] : "6379"));
+        }
+        config.appProperties().forEach((name, value) -> arguments.add("--" + name + "=" + value));
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,57 @@
+package org.mindswap.springtheknife.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from loadtest.* system properties. Every loadtest.app.&lt;name&gt; property is
+ * handed to the application as &lt;name&gt;, e.g. -Dloadtest.app.theknife.rating.reconciliation-cron="*&#47;5 * * * * *".
+ */
+record LoadTestConfig(int restaurants, int virtualUsers, double rate, Duration warmup, Duration duration,
+                      Map<Scenario, Integer> mix, int pageSize, String redis, Path dataDir,
+                      Path result, Map<String, String> appProperties) {
+
+    private static final String PREFIX = "loadtest.";
+    private static final String APP_PREFIX = PREFIX + "app.";
+
+    static LoadTestConfig fromSystemProperties() {
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PREFIX))
+                .sorted()
+                .forEach(name -> appProperties.put(name.substring(APP_PREFIX.length()), System.getProperty(name)));
+        return new LoadTestConfig(
+                parseSize(property("dataset", "10k")),
+                Integer.parseInt(property("users", "32")),
+                Double.parseDouble(property("rate", "0")),
+                Duration.parse(property("warmup", "PT15S")),
+                Duration.parse(property("duration", "PT60S")),
+                Scenario.parseMix(property("mix", Scenario.DEFAULT_MIX)),
+                Integer.parseInt(property("page-size", "20")),
+                property("redis", ""),
+                Path.of(property("data-dir", "target/loadtest")),
+                Path.of(property("result", "target/loadtest-result.json")),
+                appProperties);
+    }
+
+    /**
+     * A restaurant count, optionally with a k or m suffix: 10k, 100k, 1m.
+     */
+    static int parseSize(String size) {
+        String value = size.trim().toLowerCase(Locale.ROOT);
+        if (value.endsWith("k")) {
+            return Integer.parseInt(value.substring(0, value.length() - 1)) * 1_000;
+        }
+        if (value.endsWith("m")) {
+            return Integer.parseInt(value.substring(0, value.length() - 1)) * 1_000_000;
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
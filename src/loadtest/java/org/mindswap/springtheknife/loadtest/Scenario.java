@@ -0,0 +1,137 @@
+package org.mindswap.springtheknife.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One kind of request in the traffic mix. Each builds its request from ids in the seeded {@link Dataset};
+ * the name is the endpoint the latencies are reported under. A scenario with nothing left to do (reviews,
+ * once every completed booking has one) builds no request.
+ */
+enum Scenario {
+
+    BROWSE("GET /restaurants") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            int pages = Math.max(1, dataset.restaurantCount() / pageSize);
+            return get(base, "/api/v1/restaurants/?pageNumber=" + random().nextInt(Math.min(pages, 50))
+                    + "&pageSize=" + pageSize + "&sortBy=id");
+        }
+    },
+    DETAIL("GET /restaurants/{id}") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            return get(base, "/api/v1/restaurants/" + dataset.randomRestaurant());
+        }
+    },
+    BOOK("POST /bookings") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            return post(base, "/api/v1/bookings/", """
+                    {"userId":%d,"restaurantId":%d,"bookingTime":"%s","status":"CONFIRMED"}"""
+                    .formatted(dataset.randomUser(), dataset.randomRestaurant(), randomSlot()));
+        }
+    },
+    PATCH_BOOKING("PATCH /bookings/{id}") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            String status = random().nextBoolean() ? "CANCELED" : "CONFIRMED";
+            return HttpRequest.newBuilder(base.resolve("/api/v1/bookings/" + dataset.randomOpenBooking()))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"))
+                    .build();
+        }
+    },
+    REVIEW("POST /userexperiences") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            Dataset.CompletedBooking booking = dataset.nextReviewableBooking();
+            if (booking == null) {
+                return null;
+            }
+            return post(base, "/api/v1/userexperiences/", """
+                    {"bookingId":%d,"userId":%d,"restaurantId":%d,"rating":%d,"comment":"Load test review"}"""
+                    .formatted(booking.bookingId(), booking.userId(), booking.restaurantId(), random().nextInt(11)));
+        }
+    },
+    FAVORITE("POST /users") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            long n = dataset.nextUserSequence();
+            return post(base, "/api/v1/users/", """
+                    {"userName":"lt%d","password":"secret","email":"lt%d@theknife.com","firstName":"Ana",\
+                    "lastName":"Silva","dateOfBirth":"1990-01-01","favoriteRestaurants":[%d,%d,%d,%d,%d]}"""
+                    .formatted(n, n, dataset.randomRestaurant(), dataset.randomRestaurant(), dataset.randomRestaurant(),
+                            dataset.randomRestaurant(), dataset.randomRestaurant()));
+        }
+    },
+    USER_FAVORITES("GET /users/{id}") {
+        @Override
+        HttpRequest request(URI base, Dataset dataset, int pageSize) {
+            return get(base, "/api/v1/users/" + dataset.randomUser());
+        }
+    };
+
+    static final String DEFAULT_MIX = "browse:40,detail:30,book:8,patch_booking:5,review:5,favorite:4,user_favorites:8";
+
+    private final String endpoint;
+
+    Scenario(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    abstract HttpRequest request(URI base, Dataset dataset, int pageSize);
+
+    /**
+     * Parses "browse:40,detail:30,..." into weights; scenarios left out are not run.
+     */
+    static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries are scenario:weight, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Scenario.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no scenario with a positive weight");
+        }
+        return weights;
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).GET().build();
+    }
+
+    private static HttpRequest post(URI base, String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /**
+     * A slot start within the next two weeks, on the half hour between 12:00 and 22:30.
+     */
+    private static LocalDateTime randomSlot() {
+        return LocalDate.now().plusDays(1 + random().nextInt(13)).atTime(12, 0).plusMinutes(30L * random().nextInt(22));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
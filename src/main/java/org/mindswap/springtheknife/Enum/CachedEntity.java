@@ -0,0 +1,59 @@
+package org.mindswap.springtheknife.Enum;
+
+import org.mindswap.springtheknife.dto.booking.BookingGetDto;
+import org.mindswap.springtheknife.dto.city.CityGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserGetDto;
+import org.mindswap.springtheknife.dto.userexperience.UserExperienceGetDto;
+import org.mindswap.springtheknife.utils.CacheNames;
+
+import java.util.List;
+
+/**
+ * Every cached entity with its by-id and page caches. {@link #embeddedIn()} lists the entities whose
+ * cached DTOs carry a copy of this one (a booking embeds its user and restaurant, a city its
+ * restaurants...), so a write can also drop the copies that would otherwise go stale.
+ */
+public enum CachedEntity {
+    RESTAURANT(CacheNames.RESTAURANT_BY_ID, CacheNames.RESTAURANT_PAGES, RestaurantGetDto.class),
+    CITY(CacheNames.CITY_BY_ID, CacheNames.CITY_PAGES, CityGetDto.class),
+    RESTAURANT_TYPE(CacheNames.RESTAURANT_TYPE_BY_ID, CacheNames.RESTAURANT_TYPE_PAGES, RestaurantTypeDto.class),
+    USER(CacheNames.USER_BY_ID, CacheNames.USER_PAGES, UserGetDto.class),
+    BOOKING(CacheNames.BOOKING_BY_ID, CacheNames.BOOKING_PAGES, BookingGetDto.class),
+    USER_EXPERIENCE(CacheNames.USER_EXPERIENCE_BY_ID, CacheNames.USER_EXPERIENCE_PAGES, UserExperienceGetDto.class);
+
+    private final String byIdCache;
+    private final String pagesCache;
+    private final Class<?> dtoType;
+
+    CachedEntity(String byIdCache, String pagesCache, Class<?> dtoType) {
+        this.byIdCache = byIdCache;
+        this.pagesCache = pagesCache;
+        this.dtoType = dtoType;
+    }
+
+    public String getByIdCache() {
+        return byIdCache;
+    }
+
+    public String getPagesCache() {
+        return pagesCache;
+    }
+
+    /**
+     * The DTO held by the by-id cache; the pages cache holds a {@code List} of it.
+     */
+    public Class<?> getDtoType() {
+        return dtoType;
+    }
+
+    public List<CachedEntity> embeddedIn() {
+        return switch (this) {
+            case RESTAURANT -> List.of(CITY, USER, BOOKING, USER_EXPERIENCE);
+            case CITY, RESTAURANT_TYPE -> List.of(RESTAURANT);
+            case USER -> List.of(BOOKING, USER_EXPERIENCE);
+            case BOOKING, USER_EXPERIENCE -> List.of();
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.mindswap.springtheknife.Enum;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Image formats accepted on upload, recognized by their leading bytes rather than the declared content type.
+ */
+public enum ImageFormat {
+    JPEG("jpg", new int[]{0xFF, 0xD8, 0xFF}),
+    PNG("png", new int[]{0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A}),
+    GIF("gif", new int[]{'G', 'I', 'F', '8'}),
+    // RIFF, four bytes of length, then WEBP
+    WEBP("webp", new int[]{'R', 'I', 'F', 'F', -1, -1, -1, -1, 'W', 'E', 'B', 'P'});
+
+    public static final int HEADER_LENGTH = 12;
+
+    private final String extension;
+    private final int[] signature;
+
+    ImageFormat(String extension, int[] signature) {
+        this.extension = extension;
+        this.signature = signature;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static Optional<ImageFormat> detect(byte[] header) {
+        return Arrays.stream(values()).filter(format -> format.matches(header)).findFirst();
+    }
+
+    private boolean matches(byte[] header) {
+        if (header.length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (signature[i] != -1 && (header[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,8 @@
+package org.mindswap.springtheknife.Enum;
+
+public enum ImageJobStatus {
+        PENDING,
+        RUNNING,
+        DONE,
+        FAILED
+}
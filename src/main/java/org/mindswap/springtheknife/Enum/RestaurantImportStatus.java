@@ -0,0 +1,9 @@
+package org.mindswap.springtheknife.Enum;
+
+public enum RestaurantImportStatus {
+        IMPORTED,
+        INVALID,
+        DUPLICATE,
+        CITY_NOT_FOUND,
+        FAILED
+}
@@ -2,17 +2,28 @@ package org.mindswap.springtheknife.aspects;
 
 import org.mindswap.springtheknife.exceptions.booking.BookingAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.exceptions.city.CityAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFoundException;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
 import org.mindswap.springtheknife.exceptions.user.UserAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserEmailAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 import org.mindswap.springtheknife.exceptions.userexperience.UserExperienceNotFoundException;
+import org.mindswap.springtheknife.exceptions.weather.InvalidLocationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -25,7 +36,8 @@ public class ExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(ExceptionHandler.class);
 
     @org.springframework.web.bind.annotation.ExceptionHandler(value = {BookingNotFoundException.class, CityNotFoundException.class,
-            RestaurantNotFoundException.class, RestaurantTypeNotFoundException.class,UserNotFoundException.class, UserExperienceNotFoundException.class})
+            RestaurantNotFoundException.class, RestaurantTypeNotFoundException.class,UserNotFoundException.class, UserExperienceNotFoundException.class,
+            ImageJobNotFoundException.class, ImageNotFoundException.class})
     public ResponseEntity<String> NotFoundHandler(Exception ex) {
         logger.error("Known Exception: " + ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -44,4 +56,29 @@ public class ExceptionHandler {
         logger.error("Known Exception: " + ex);
         return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).body(ex.getMessage());
     }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(value = {InvalidCursorException.class, InvalidBookingRangeException.class,
+            InvalidGeoQueryException.class, InvalidLocationException.class, InvalidSearchQueryException.class, InvalidImageException.class})
+    public ResponseEntity<String> BadRequestHandler(Exception ex) {
+        logger.error("Known Exception: " + ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(value = {ImageTooLargeException.class})
+    public ResponseEntity<String> PayloadTooLargeHandler(Exception ex) {
+        logger.error("Known Exception: " + ex);
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ex.getMessage());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(value = {BookingSlotFullException.class})
+    public ResponseEntity<String> ConflictHandler(Exception ex) {
+        logger.error("Known Exception: " + ex);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @org.springframework.web.bind.annotation.ExceptionHandler(value = {UpstreamUnavailableException.class})
+    public ResponseEntity<String> ServiceUnavailableHandler(Exception ex) {
+        logger.error("Known Exception: " + ex);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
 }
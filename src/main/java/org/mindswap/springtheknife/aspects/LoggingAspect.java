@@ -1,44 +1,44 @@
 package org.mindswap.springtheknife.aspects;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Call logging for the services. Latency lives in {@link MetricsAspect}; responses are only logged at DEBUG,
+ * for one call in result-sample-rate, and are not formatted unless they are.
+ */
 @Component
 @Aspect
 public class LoggingAspect {
     private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
 
-    @Before("execution( * org.mindswap.springtheknife.service.user.UserService.createUser*.*(..))")
-    public void logBeforeServiceToCreate(JoinPoint joinPoint) {
-        logger.info("Before " + joinPoint.getSignature().getName() + " method call");
-    }
+    private final int resultSampleRate;
 
-    @AfterReturning(pointcut = "execution(* org.mindswap.springtheknife.service.*.*(..))", returning = "result")
-    public void logAfterService(JoinPoint joinPoint, Object result) {
-        logger.info("After " + joinPoint.getSignature().getName() + " method call");
-        logger.info("Response " + result);
+    public LoggingAspect(@Value("${theknife.logging.result-sample-rate:100}") int resultSampleRate) {
+        this.resultSampleRate = Math.max(1, resultSampleRate);
     }
 
-    @AfterThrowing(pointcut = "execution(* org.mindswap.springtheknife.service.*.*(..))", throwing = "exception")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable exception){
-        logger.error("Exception in " + joinPoint.getSignature().getName() + " method call");
-        logger.error("Response: " + exception);
+    @Before("execution( * org.mindswap.springtheknife.service.user.UserService.createUser*.*(..))")
+    public void logBeforeServiceToCreate(JoinPoint joinPoint) {
+        logger.info("Before {} method call", joinPoint.getSignature().getName());
     }
 
-    @Around("execution(* org.mindswap.springtheknife.service.user.UserService.getUser(..))")
-        public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-            long startTime = System.currentTimeMillis();
-            logger.info("Before " + joinPoint.getSignature().getName() + " method call");
-            Object result = joinPoint.proceed();
-            logger.info("After " + joinPoint.getSignature(). getName() + " method call");
-            long endTime = System.currentTimeMillis();
-            logger.info("Execution time of " + joinPoint.getSignature().getName() + "method call " + (endTime - startTime) + " milliseconds");
-            return result;
+    @AfterReturning(pointcut = "execution(* org.mindswap.springtheknife.service..*Service.*(..))", returning = "result")
+    public void logAfterService(JoinPoint joinPoint, Object result) {
+        if (logger.isDebugEnabled() && ThreadLocalRandom.current().nextInt(resultSampleRate) == 0) {
+            logger.debug("Response of {}.{}: {}", joinPoint.getSignature().getDeclaringTypeName(),
+                    joinPoint.getSignature().getName(), result);
         }
     }
 
-
+    @AfterThrowing(pointcut = "execution(* org.mindswap.springtheknife.service..*Service.*(..))", throwing = "exception")
+    public void logAfterThrowing(JoinPoint joinPoint, Throwable exception) {
+        logger.error("Exception in {} method call: {}", joinPoint.getSignature().getName(), exception.toString());
+    }
+}
@@ -0,0 +1,38 @@
+package org.mindswap.springtheknife.aspects;
+
+import org.mindswap.springtheknife.utils.QueryCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Tells the client how many SQL statements produced a response in the {@value #HEADER} header, for
+ * development. It is set just before the body is written, when the services are done with the database.
+ */
+@RestControllerAdvice
+@ConditionalOnProperty(name = "theknife.query-count.header", havingValue = "true")
+public class QueryCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-Query-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        long statements = QueryCounter.current();
+        if (statements >= 0) {
+            response.getHeaders().set(HEADER, String.valueOf(statements));
+        }
+        return body;
+    }
+}
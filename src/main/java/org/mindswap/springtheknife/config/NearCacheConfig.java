@@ -0,0 +1,72 @@
+package org.mindswap.springtheknife.config;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.service.cache.NearCacheInvalidationListener;
+import org.mindswap.springtheknife.service.cache.TwoTierCache;
+import org.mindswap.springtheknife.service.cache.TwoTierCacheManager;
+import org.mindswap.springtheknife.service.cache.TwoTierCacheMeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Replaces the plain Redis cache manager with a {@link TwoTierCacheManager} so hot lookups are answered
+ * without leaving the JVM. Nodes tell each other about evictions on a Redis pub/sub channel.
+ */
+@Configuration
+@ConditionalOnExpression("'${spring.cache.type:}' == 'redis' and ${theknife.cache.near.enabled:true}")
+@EnableConfigurationProperties(CacheProperties.class)
+public class NearCacheConfig {
+
+    public static final String INVALIDATION_CHANNEL = "theknife:near-cache:invalidations";
+
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, RedisTemplate<Object, Object> redisTemplate,
+                                            CacheProperties cacheProperties,
+                                            ObjectProvider<RedisCacheManagerBuilderCustomizer> redisCacheManagerBuilderCustomizers,
+                                            @Value("${theknife.cache.near.maximum-size:10000}") long maximumSize,
+                                            @Value("${theknife.cache.near.time-to-live:PT30S}") Duration timeToLive) {
+        RedisCacheConfiguration redisCacheConfiguration = RedisCacheConfiguration.defaultCacheConfig();
+        Duration redisTimeToLive = cacheProperties.getRedis().getTimeToLive();
+        if (redisTimeToLive != null) {
+            redisCacheConfiguration = redisCacheConfiguration.entryTtl(redisTimeToLive);
+        }
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(redisCacheConfiguration);
+        redisCacheManagerBuilderCustomizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+
+        List<String> cacheNames = Arrays.stream(CachedEntity.values())
+                .flatMap(entity -> Stream.of(entity.getByIdCache(), entity.getPagesCache()))
+                .toList();
+        return new TwoTierCacheManager(redisCacheManager, maximumSize, timeToLive,
+                invalidation -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, invalidation), cacheNames);
+    }
+
+    @Bean
+    public NearCacheInvalidationListener nearCacheInvalidationListener(RedisConnectionFactory redisConnectionFactory,
+                                                                       TwoTierCacheManager cacheManager) {
+        return new NearCacheInvalidationListener(redisConnectionFactory, cacheManager, INVALIDATION_CHANNEL);
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoTierCache> twoTierCacheMeterBinderProvider() {
+        return TwoTierCacheMeterBinder::new;
+    }
+}
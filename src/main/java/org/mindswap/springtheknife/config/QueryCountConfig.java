@@ -0,0 +1,28 @@
+package org.mindswap.springtheknife.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.mindswap.springtheknife.utils.QueryCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Counts SQL statements per HTTP request: {@link QueryCounter} sees every statement Hibernate prepares and
+ * {@link QueryCountFilter} scopes the count to a request.
+ */
+@Configuration
+public class QueryCountConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCounter());
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(MeterRegistry meterRegistry,
+                                             @Value("${theknife.query-count.enforce:false}") boolean enforce) {
+        return new QueryCountFilter(meterRegistry, enforce);
+    }
+}
@@ -0,0 +1,70 @@
+package org.mindswap.springtheknife.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.mindswap.springtheknife.exceptions.querycount.QueryBudgetExceededException;
+import org.mindswap.springtheknife.utils.QueryBudget;
+import org.mindswap.springtheknife.utils.QueryCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of every HTTP request into the {@value #METRIC} summary, tagged with the method
+ * and the endpoint pattern, and checks the count against the endpoint's {@link QueryBudget}. Over budget the
+ * request is logged, or fails with {@link QueryBudgetExceededException} when enforcing, as the tests do.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "theknife.http.queries";
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enforce;
+
+    public QueryCountFilter(MeterRegistry meterRegistry, boolean enforce) {
+        this.meterRegistry = meterRegistry;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        long statements;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            statements = QueryCounter.stop();
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC)
+                .description("SQL statements per HTTP request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(statements);
+
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod) {
+            QueryBudget budget = handlerMethod.getMethodAnnotation(QueryBudget.class);
+            if (budget != null && statements > budget.value()) {
+                String message = "%s %s ran %d SQL statements, over its budget of %d"
+                        .formatted(request.getMethod(), uri, statements, budget.value());
+                if (enforce) {
+                    throw new QueryBudgetExceededException(message);
+                }
+                logger.warn(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.mindswap.springtheknife.config;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.service.cache.VersionedCacheSerializer;
+import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+/**
+ * Gives every entity cache a serializer bound to the DTO it holds instead of JDK serialization. Set
+ * theknife.cache.redis.format=jdk to go back to the Spring default.
+ */
+@Configuration
+public class RedisCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "theknife.cache.redis.format", havingValue = "smile", matchIfMissing = true)
+    public RedisCacheManagerBuilderCustomizer versionedCacheSerializers() {
+        return builder -> {
+            RedisCacheConfiguration defaults = builder.cacheDefaults();
+            for (CachedEntity entity : CachedEntity.values()) {
+                builder.withCacheConfiguration(entity.getByIdCache(), defaults.serializeValuesWith(
+                        SerializationPair.fromSerializer(VersionedCacheSerializer.of(entity.getDtoType()))));
+                builder.withCacheConfiguration(entity.getPagesCache(), defaults.serializeValuesWith(
+                        SerializationPair.fromSerializer(VersionedCacheSerializer.listOf(entity.getDtoType()))));
+            }
+        };
+    }
+}
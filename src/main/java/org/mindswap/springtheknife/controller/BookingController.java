@@ -1,28 +1,37 @@
 package org.mindswap.springtheknife.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
 import org.mindswap.springtheknife.dto.booking.BookingGetDto;
 import org.mindswap.springtheknife.dto.booking.BookingPatchDto;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.model.Booking;
 import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
 import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.utils.QueryBudget;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -41,6 +50,7 @@ public class BookingController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Booking.class))),})
     @GetMapping("/")
+    @QueryBudget(3)
     public ResponseEntity<List<BookingGetDto>> getAllBookings(
             @RequestParam(value = "pageNumber", defaultValue = "0", required = false) int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
@@ -49,6 +59,24 @@ public class BookingController {
         return new ResponseEntity<>(bookingServiceImpl.getAllBookings(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll bookings", description = "Returns a page of bookings after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    @QueryBudget(3)
+    public ResponseEntity<CursorPageDto<BookingGetDto>> scrollBookings(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(bookingServiceImpl.scrollBookings(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
     @Operation(summary = "Get a Booking by ID", description = "This method retrieves a booking by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the Booking",
@@ -58,10 +86,30 @@ public class BookingController {
                     content = @Content),
     })
     @GetMapping("/{id}")
+    @QueryBudget(2)
     public ResponseEntity<BookingGetDto> getBookingById(@PathVariable("id") Long id) throws BookingNotFoundException {
         return new ResponseEntity<>(bookingServiceImpl.getBookingById(id), HttpStatus.OK);
     }
 
+    @Operation(summary = "Get slot availability", description = "Returns booked and free tables per time slot of a restaurant for a date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the availability",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = SlotAvailabilityDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid date range",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Restaurant not found",
+                    content = @Content)
+    })
+    @GetMapping("/availability/{restaurantId}")
+    public ResponseEntity<List<SlotAvailabilityDto>> getAvailability(
+            @PathVariable("restaurantId") Long restaurantId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) throws RestaurantNotFoundException, InvalidBookingRangeException {
+        return new ResponseEntity<>(bookingServiceImpl.getAvailability(restaurantId, from, to), HttpStatus.OK);
+    }
+
     @Operation(summary = "Create a new Booking", description = "New Booking created")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "New Booking created",
@@ -69,9 +117,11 @@ public class BookingController {
                             schema = @Schema(implementation = Booking.class))),
             @ApiResponse(responseCode = "400", description = "Invalid Booking details provided",
                     content = @Content),
+            @ApiResponse(responseCode = "409", description = "The time slot is fully booked",
+                    content = @Content),
     })
     @PostMapping("/")
-    public ResponseEntity<BookingGetDto> addBooking(@Valid @RequestBody BookingCreateDto booking) throws BookingAlreadyExistsException, UserNotFoundException, RestaurantNotFoundException {
+    public ResponseEntity<BookingGetDto> addBooking(@Valid @RequestBody BookingCreateDto booking) throws BookingAlreadyExistsException, UserNotFoundException, RestaurantNotFoundException, BookingSlotFullException {
 
         return new ResponseEntity<>(bookingServiceImpl.addBooking(booking), HttpStatus.CREATED);
     }
@@ -85,10 +135,12 @@ public class BookingController {
             @ApiResponse(responseCode = "400", description = "Invalid Booking details provided",
                     content = @Content),
             @ApiResponse(responseCode = "404", description = "Booking not found by the provided ID",
+                    content = @Content),
+            @ApiResponse(responseCode = "409", description = "The new time slot is fully booked",
                     content = @Content)
     })
     @PatchMapping("/{id}")
-    public ResponseEntity<BookingGetDto> patchBooking(@PathVariable("id") Long id, @Valid @RequestBody BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException {
+    public ResponseEntity<BookingGetDto> patchBooking(@PathVariable("id") Long id, @Valid @RequestBody BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException, BookingSlotFullException {
         return new ResponseEntity<>(bookingServiceImpl.patchBooking(id, booking), HttpStatus.OK);
     }
 
@@ -7,12 +7,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.city.CityDto;
 import org.mindswap.springtheknife.dto.city.CityGetDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
 import org.mindswap.springtheknife.exceptions.city.CityAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.utils.QueryBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +44,7 @@ public class CityController {
                             schema = @Schema(implementation = CityGetDto.class))})
     })
     @GetMapping("/")
+    @QueryBudget(3)
     public ResponseEntity<List<CityGetDto>> getAllCities(
             @RequestParam(value = "pageNumber", defaultValue = "0", required = false) int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
@@ -49,6 +53,24 @@ public class CityController {
         return new ResponseEntity<>(cityServiceImpl.getAllCities(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll cities", description = "Returns a page of cities after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    @QueryBudget(3)
+    public ResponseEntity<CursorPageDto<CityGetDto>> scrollCities(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(cityServiceImpl.scrollCities(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
     @Operation(summary = "Get a city by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the city",
@@ -60,6 +82,7 @@ public class CityController {
                     content = @Content)
     })
     @GetMapping("/{cityId}")
+    @QueryBudget(1)
     public ResponseEntity<CityGetDto> getCityById(@PathVariable("cityId") Long cityId) throws CityNotFoundException {
         return new ResponseEntity<>(cityServiceImpl.getCity(cityId), HttpStatus.OK);
     }
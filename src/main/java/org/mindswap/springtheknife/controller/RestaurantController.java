@@ -7,13 +7,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
+import org.mindswap.springtheknife.dto.restaurant.NearbyRestaurantDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantImportReportDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantSearchResultDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantWithImageDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportService;
+import org.mindswap.springtheknife.utils.QueryBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,10 +37,12 @@ import java.util.List;
 public class RestaurantController {
 
     private final RestaurantServiceImpl restaurantServiceImpl;
+    private final RestaurantImportService restaurantImportService;
 
     @Autowired
-    public RestaurantController(RestaurantServiceImpl restaurantServiceImpl) {
+    public RestaurantController(RestaurantServiceImpl restaurantServiceImpl, RestaurantImportService restaurantImportService) {
         this.restaurantServiceImpl = restaurantServiceImpl;
+        this.restaurantImportService = restaurantImportService;
 
     }
 
@@ -41,6 +53,7 @@ public class RestaurantController {
                             array = @ArraySchema(schema = @Schema(implementation = RestaurantGetDto.class))))
     })
     @GetMapping("/")
+    @QueryBudget(1)
     public ResponseEntity<List<RestaurantGetDto>> getAllRestaurants(
             @RequestParam(value = "pageNumber", required = false, defaultValue = "0") int pageNumber,
             @RequestParam(value = "pageSize", required = false, defaultValue = "10") int pageSize,
@@ -49,6 +62,61 @@ public class RestaurantController {
         return new ResponseEntity<>(restaurantServiceImpl.getAllRestaurants(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll restaurants", description = "Returns a page of restaurants after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    @QueryBudget(1)
+    public ResponseEntity<CursorPageDto<RestaurantGetDto>> scrollRestaurants(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(restaurantServiceImpl.scrollRestaurants(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Find restaurants near a point", description = "Returns the restaurants closest to the given coordinates within the radius, nearest first, optionally filtered by city and restaurant type")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the nearby restaurants",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearbyRestaurantDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates, radius or limit",
+                    content = @Content)
+    })
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyRestaurantDto>> findNearbyRestaurants(
+            @RequestParam("lat") double latitude,
+            @RequestParam("lon") double longitude,
+            @RequestParam(value = "radiusKm", defaultValue = "5", required = false) double radiusKm,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit,
+            @RequestParam(value = "cityId", required = false) Long cityId,
+            @RequestParam(value = "typeId", required = false) Long restaurantTypeId
+    ) throws InvalidGeoQueryException {
+        return new ResponseEntity<>(restaurantServiceImpl.findNearbyRestaurants(latitude, longitude, radiusKm, limit, cityId, restaurantTypeId), HttpStatus.OK);
+    }
+
+    @Operation(summary = "Search restaurants", description = "Returns the restaurants whose name, street, city or type match every word of the query, tolerating prefixes and one typo per word, best match first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the matching restaurants",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = RestaurantSearchResultDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Empty or too long query, or invalid limit",
+                    content = @Content)
+    })
+    @GetMapping("/search")
+    @QueryBudget(1)
+    public ResponseEntity<List<RestaurantSearchResultDto>> searchRestaurants(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10", required = false) int limit
+    ) throws InvalidSearchQueryException {
+        return new ResponseEntity<>(restaurantServiceImpl.searchRestaurants(query, limit), HttpStatus.OK);
+    }
+
     @Operation(summary = "Get a restaurant by ID", description = "Returns a restaurant by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the restaurant",
@@ -58,6 +126,7 @@ public class RestaurantController {
                     content = @Content)
     })
     @GetMapping("/{id}")
+    @QueryBudget(1)
     public ResponseEntity<RestaurantGetDto> getRestaurantById(@PathVariable("id") Long id) throws RestaurantNotFoundException {
         return new ResponseEntity<>(restaurantServiceImpl.getRestaurant(id), HttpStatus.OK);
     }
@@ -92,6 +161,20 @@ public class RestaurantController {
         return new ResponseEntity<>(restaurantServiceImpl.addListOfRestaurants(restaurantList), HttpStatus.CREATED);
     }
 
+    @Operation(summary = "Bulk import restaurants", description = "Imports a list of restaurants in batched transactions and reports the outcome of every row")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; rejected rows are listed in the report",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RestaurantImportReportDto.class)))
+    })
+    @PostMapping("/import")
+    public ResponseEntity<RestaurantImportReportDto> importRestaurants(
+            @RequestBody List<RestaurantPostDto> restaurantList,
+            @RequestParam(value = "chunkSize", required = false) Integer chunkSize
+    ) {
+        return new ResponseEntity<>(restaurantImportService.importRestaurants(restaurantList, chunkSize), HttpStatus.OK);
+    }
+
     @Operation(summary = "Update a restaurant", description = "Updates a restaurant by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Restaurant successfully updated",
@@ -134,13 +217,29 @@ public class RestaurantController {
         return ResponseEntity.ok(averageRating);
     }
 
+    @Operation(summary = "Add a restaurant with a generated image", description = "Creates a new restaurant and queues the generation of its image")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Restaurant added; the image is generated in the background",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RestaurantWithImageDto.class))),
+            @ApiResponse(responseCode = "404", description = "City not found",
+                    content = @Content)
+    })
     @PostMapping("/generate")
-    public ResponseEntity<RestaurantGetDto> addRestaurantWithImage(@Valid @RequestBody RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
-        return new ResponseEntity<>(restaurantServiceImpl.addRestaurantWithImage(restaurant), HttpStatus.OK);
+    public ResponseEntity<RestaurantWithImageDto> addRestaurantWithImage(@Valid @RequestBody RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
+        return new ResponseEntity<>(restaurantServiceImpl.addRestaurantWithImage(restaurant), HttpStatus.ACCEPTED);
     }
 
+    @Operation(summary = "Add a list of restaurants with generated images", description = "Creates new restaurants and queues the generation of their images")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Restaurants added; the images are generated in the background",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = RestaurantWithImageDto.class)))),
+            @ApiResponse(responseCode = "404", description = "City not found",
+                    content = @Content)
+    })
     @PostMapping("/list/generate")
-    public ResponseEntity<List<RestaurantGetDto>> addRestaurantListWithImage(@Valid @RequestBody List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
-        return new ResponseEntity<>(restaurantServiceImpl.addListOfRestaurantsWithImage(restaurantList), HttpStatus.OK);
+    public ResponseEntity<List<RestaurantWithImageDto>> addRestaurantListWithImage(@Valid @RequestBody List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
+        return new ResponseEntity<>(restaurantServiceImpl.addListOfRestaurantsWithImage(restaurantList), HttpStatus.ACCEPTED);
     }
 }
@@ -6,25 +6,56 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageDto;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageJobService;
 import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService.ImageFile;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 
 @Controller
 @RequestMapping(path = "api/v1/restaurants/img")
 public class RestaurantImageController {
 
+    // Tomcat writes a file named by these request attributes with FileChannel.transferTo once the handler returns
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final RestaurantImageService restaurantImageService;
+    private final RestaurantImageJobService restaurantImageJobService;
+    private final CacheControl imageCacheControl;
 
     @Autowired
-    public RestaurantImageController(RestaurantImageService restaurantImageService) {
+    public RestaurantImageController(RestaurantImageService restaurantImageService, RestaurantImageJobService restaurantImageJobService,
+                                     @Value("${theknife.image.cache-max-age:P30D}") Duration cacheMaxAge) {
         this.restaurantImageService = restaurantImageService;
+        this.restaurantImageJobService = restaurantImageJobService;
+        this.imageCacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic();
     }
 
     @PostMapping("/upload")
@@ -53,4 +84,80 @@ public class RestaurantImageController {
         }
     }
 
+    /**
+     * Takes the image as the raw request body rather than a multipart form, so it is streamed straight to its
+     * file: no multipart temp file and no copy in memory, up to theknife.image.max-upload-size.
+     */
+    @Operation(summary = "Stream restaurant image", description = "Stores the request body as a new image of the restaurant; the format is detected from its content")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Successfully stored the image",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RestaurantImageDto.class))),
+            @ApiResponse(responseCode = "400", description = "The body is not a JPEG, PNG, GIF or WebP image",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "Restaurant not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "413", description = "The image is larger than allowed",
+                    content = @Content)
+    })
+    @PutMapping(value = "/{id}", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<RestaurantImageDto> streamUpload(@PathVariable("id") Long id, HttpServletRequest request)
+            throws RestaurantNotFoundException, InvalidImageException, ImageTooLargeException, IOException {
+        try (InputStream content = request.getInputStream()) {
+            return new ResponseEntity<>(restaurantImageService.uploadImage(id, content), HttpStatus.CREATED);
+        }
+    }
+
+    /**
+     * Serves the file without reading it onto the heap: conditional requests are answered with 304, Range
+     * requests with the requested regions of the file, and full responses are handed to the container's
+     * sendfile when it has one.
+     */
+    @Operation(summary = "Get restaurant image", description = "Returns the primary image of a restaurant, or its smallest resized copy at least width pixels wide; supports conditional and range requests")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the image",
+                    content = @Content(mediaType = "image/*")),
+            @ApiResponse(responseCode = "206", description = "Successfully retrieved the requested range of the image",
+                    content = @Content(mediaType = "image/*")),
+            @ApiResponse(responseCode = "304", description = "The cached image is still current",
+                    content = @Content),
+            @ApiResponse(responseCode = "404", description = "The restaurant has no image",
+                    content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getImage(@PathVariable("id") Long id,
+                                             @RequestParam(value = "width", required = false) Integer width,
+                                             WebRequest webRequest, HttpServletRequest request) throws ImageNotFoundException {
+        ImageFile image = restaurantImageService.getImageFile(id, width);
+        if (webRequest.checkNotModified(image.eTag(), image.lastModified())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(image.eTag())
+                .lastModified(image.lastModified())
+                .cacheControl(imageCacheControl)
+                .contentType(image.mediaType())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && request.getHeader(HttpHeaders.RANGE) == null) {
+            request.setAttribute(SENDFILE_FILENAME, image.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.contentLength());
+            return response.contentLength(image.contentLength()).build();
+        }
+        return response.body(new FileSystemResource(image.path()));
+    }
+
+    @Operation(summary = "Get image generation status", description = "Returns the state of the image generation job of a restaurant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the job status",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = RestaurantImageJobDto.class))),
+            @ApiResponse(responseCode = "404", description = "No image job for this restaurant",
+                    content = @Content)
+    })
+    @GetMapping("/{id}/status")
+    public ResponseEntity<RestaurantImageJobDto> getImageJobStatus(@PathVariable("id") Long id) throws ImageJobNotFoundException {
+        return new ResponseEntity<>(restaurantImageJobService.getJob(id), HttpStatus.OK);
+    }
 }
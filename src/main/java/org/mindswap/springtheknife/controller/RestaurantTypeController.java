@@ -7,9 +7,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeService;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +47,23 @@ public class RestaurantTypeController {
         return new ResponseEntity<>(restaurantTypeService.getAllRestaurantType(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll restaurant types", description = "Returns a page of restaurant types after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<RestaurantTypeDto>> scrollRestaurantTypes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(restaurantTypeService.scrollRestaurantTypes(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
     @Operation(summary = "Get a Restaurant Type by ID", description = "Returns a restaurant type by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the restaurant type",
@@ -7,14 +7,17 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.user.UserCreateDto;
 import org.mindswap.springtheknife.dto.user.UserGetDto;
 import org.mindswap.springtheknife.dto.user.UserPatchDto;
 import org.mindswap.springtheknife.exceptions.user.UserAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserEmailAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.model.User;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.utils.QueryBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -42,6 +45,7 @@ public class UserController {
                             array = @ArraySchema(schema = @Schema(implementation = UserGetDto.class)))})
     })
     @GetMapping("/")
+    @QueryBudget(4)
     public ResponseEntity<List<UserGetDto>> getAllUsers(
             @RequestParam(value = "pageNumber", defaultValue = "0", required = false) int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
@@ -51,6 +55,24 @@ public class UserController {
         return new ResponseEntity<>(userServiceImpl.getAllUsers(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll users", description = "Returns a page of users after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    @QueryBudget(4)
+    public ResponseEntity<CursorPageDto<UserGetDto>> scrollUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(userServiceImpl.scrollUsers(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
 
     @Operation(summary = "Get a user by ID", description = "Returns a user by its ID")
     @ApiResponses(value = {
@@ -63,6 +85,7 @@ public class UserController {
                     content = @Content)
     })
     @GetMapping("/{userId}")
+    @QueryBudget(1)
     public ResponseEntity<UserGetDto> getUserById(@PathVariable("userId") Long userId) throws UserNotFoundException {
         return new ResponseEntity<>(userServiceImpl.getUser(userId), HttpStatus.OK);
 
@@ -7,6 +7,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceCreateDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceGetDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperiencePatchDto;
@@ -14,8 +15,10 @@ import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.exceptions.userexperience.UserExperienceNotFoundException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.service.userexperience.UserExperienceServiceImpl;
 import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.utils.QueryBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -41,6 +44,7 @@ public class UserExperienceController {
                             array = @ArraySchema(schema = @Schema(implementation = UserExperienceGetDto.class)))})
     })
     @GetMapping("/")
+    @QueryBudget(3)
     public ResponseEntity<List<UserExperienceGetDto>> getAllUsersExperiences(
             @RequestParam(value = "pageNumber", defaultValue = "0", required = false) int pageNumber,
             @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
@@ -49,6 +53,24 @@ public class UserExperienceController {
         return new ResponseEntity<>(userExperienceService.getAllUsersExperiences(pageNumber, pageSize, sortBy), HttpStatus.OK);
     }
 
+    @Operation(summary = "Scroll user experiences", description = "Returns a page of user experiences after the given cursor, using keyset pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the page; nextCursor is null on the last page",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content)
+    })
+    @GetMapping("/scroll")
+    @QueryBudget(3)
+    public ResponseEntity<CursorPageDto<UserExperienceGetDto>> scrollUsersExperiences(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "5", required = false) int pageSize,
+            @RequestParam(value = "sortBy", defaultValue = "id", required = false) String sortBy
+    ) throws InvalidCursorException {
+        return new ResponseEntity<>(userExperienceService.scrollUsersExperiences(cursor, pageSize, sortBy), HttpStatus.OK);
+    }
+
     @Operation(summary = "Get user experience by ID", description = "Returns a user experience by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved the user experience",
@@ -58,6 +80,7 @@ public class UserExperienceController {
                     content = @Content)
     })
     @GetMapping("/{userExperienceId}")
+    @QueryBudget(2)
     public ResponseEntity<UserExperienceGetDto> getUserExperienceById(@PathVariable("userExperienceId") Long id) throws UserExperienceNotFoundException {
         UserExperienceGetDto userExperience = userExperienceService.getUserExperienceById(id);
         return new ResponseEntity<>(userExperience, HttpStatus.OK);
@@ -5,22 +5,23 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.springframework.http.HttpStatusCode;
+import org.mindswap.springtheknife.service.weather.WeatherService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/v1/weather")
 public class WeatherController {
 
-    private final WebClient webClient;
+    private final WeatherService weatherService;
 
-    public WeatherController() {
-        this.webClient = WebClient.create();
+    @Autowired
+    public WeatherController(WeatherService weatherService) {
+        this.weatherService = weatherService;
     }
 
     @Operation(
@@ -33,18 +34,13 @@ public class WeatherController {
                             schema = @Schema(implementation = String.class))}),
             @ApiResponse(responseCode = "400", description = "Invalid location supplied",
                     content = @Content),
+            @ApiResponse(responseCode = "503", description = "Weather service unavailable and nothing cached",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
     @GetMapping("/currentWeather/")
     public Mono<String> getCurrentWeatherData(@RequestParam("location") String location) {
-        String url = "http://localhost:8081/currentWeather/currentWeatherResource?location=" + location;
-
-
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .onStatus(HttpStatusCode::isError, response -> Mono.error(new RuntimeException("Failed : HTTP error code : " + response.statusCode())))
-                .bodyToMono(String.class);
+        return weatherService.getCurrentWeather(location);
     }
 }
@@ -2,13 +2,13 @@ package org.mindswap.springtheknife.converter;
 
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
-import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantSummary;
 import org.mindswap.springtheknife.model.RestaurantType;
 
+import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public class RestaurantConverter {
@@ -26,7 +26,20 @@ public class RestaurantConverter {
         );
     }
 
-
+    public static RestaurantGetDto fromSummaryToRestaurantDto(RestaurantSummary summary) {
+        return new RestaurantGetDto(
+                summary.getCityName(),
+                summary.getName(),
+                summary.getEmail(),
+                summary.getAddress(),
+                summary.getPhoneNumber(),
+                summary.getRating(),
+                new HashSet<>(summary.getRestaurantTypes()),
+                summary.getReviewCount(),
+                summary.getBookingCount(),
+                summary.getPrimaryImagePath()
+        );
+    }
 
     public static Restaurant fromRestaurantDtoToModel(RestaurantPostDto restaurantDto, City city) {
         return Restaurant.builder()
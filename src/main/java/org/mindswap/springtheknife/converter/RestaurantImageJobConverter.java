@@ -0,0 +1,18 @@
+package org.mindswap.springtheknife.converter;
+
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.model.RestaurantImageJob;
+
+public class RestaurantImageJobConverter {
+
+    public static RestaurantImageJobDto fromModelToRestaurantImageJobDto(RestaurantImageJob job) {
+        return new RestaurantImageJobDto(
+                job.getRestaurantId(),
+                job.getStatus(),
+                job.getAttempts(),
+                job.getLastError(),
+                job.getNextAttemptAt(),
+                job.getUpdatedAt()
+        );
+    }
+}
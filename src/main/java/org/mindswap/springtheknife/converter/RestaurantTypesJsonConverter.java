@@ -0,0 +1,44 @@
+package org.mindswap.springtheknife.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Stores a restaurant's types in one JSON column of the summary read model, e.g. [{"id":1,"type":"Italian"}].
+ */
+@Converter
+public class RestaurantTypesJsonConverter implements AttributeConverter<Set<RestaurantTypeDto>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<LinkedHashSet<RestaurantTypeDto>> TYPES = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(Set<RestaurantTypeDto> restaurantTypes) {
+        try {
+            return MAPPER.writeValueAsString(restaurantTypes == null ? Set.of() : restaurantTypes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Set<RestaurantTypeDto> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return new HashSet<>();
+        }
+        try {
+            return MAPPER.readValue(json, TYPES);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
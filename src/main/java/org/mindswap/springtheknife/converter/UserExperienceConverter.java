@@ -38,7 +38,7 @@ public class UserExperienceConverter {
     public static UserExperienceGetDto fromEntityToGetDto(UserExperience userExperience) {
         return new UserExperienceGetDto(
                 userExperience.getId(),
-                BookingConverter.fromModelToBookingDto(userExperience.getBooking()).id(),
+                userExperience.getBooking().getId(),
                 UserConverter.fromEntityToGetDto(userExperience.getUser()),
                 RestaurantConverter.fromModelToRestaurantDto(userExperience.getRestaurant()),
                 userExperience.getRating(),
@@ -0,0 +1,13 @@
+package org.mindswap.springtheknife.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record CursorPageDto<T>(
+
+        List<T> content,
+
+        String nextCursor
+
+) implements Serializable {
+}
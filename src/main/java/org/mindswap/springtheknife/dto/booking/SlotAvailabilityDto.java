@@ -0,0 +1,12 @@
+package org.mindswap.springtheknife.dto.booking;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record SlotAvailabilityDto(
+        LocalDateTime slotStart,
+        int capacity,
+        int booked,
+        int available
+) implements Serializable {
+}
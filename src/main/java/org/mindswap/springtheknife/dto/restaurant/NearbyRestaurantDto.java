@@ -0,0 +1,10 @@
+package org.mindswap.springtheknife.dto.restaurant;
+
+import java.io.Serializable;
+
+public record NearbyRestaurantDto(
+        Long restaurantId,
+        double distanceKm,
+        RestaurantGetDto restaurant
+) implements Serializable {
+}
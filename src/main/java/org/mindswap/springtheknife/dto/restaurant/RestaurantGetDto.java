@@ -20,8 +20,15 @@ public record RestaurantGetDto(
         Address address,
         String phoneNumber,
         Double rating,
-        Set<RestaurantTypeDto> restaurantTypes
-    
+        Set<RestaurantTypeDto> restaurantTypes,
+        Long reviewCount,
+        Long bookingCount,
+        String primaryImagePath
+
 ) implements Serializable {
 
+    public RestaurantGetDto(String cityName, String name, String email, Address address, String phoneNumber, Double rating,
+                            Set<RestaurantTypeDto> restaurantTypes) {
+        this(cityName, name, email, address, phoneNumber, rating, restaurantTypes, null, null, null);
+    }
 }
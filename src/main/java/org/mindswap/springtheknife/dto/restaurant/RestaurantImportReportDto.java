@@ -0,0 +1,13 @@
+package org.mindswap.springtheknife.dto.restaurant;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record RestaurantImportReportDto(
+
+        int imported,
+        int rejected,
+        List<RestaurantImportRowDto> rows
+
+) implements Serializable {
+}
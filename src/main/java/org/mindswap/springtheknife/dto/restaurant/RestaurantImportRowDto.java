@@ -0,0 +1,16 @@
+package org.mindswap.springtheknife.dto.restaurant;
+
+import org.mindswap.springtheknife.Enum.RestaurantImportStatus;
+
+import java.io.Serializable;
+
+public record RestaurantImportRowDto(
+
+        int index,
+        String email,
+        RestaurantImportStatus status,
+        Long restaurantId,
+        String message
+
+) implements Serializable {
+}
@@ -1,6 +1,7 @@
 package org.mindswap.springtheknife.dto.restaurant;
 
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import org.mindswap.springtheknife.model.Address;
@@ -17,7 +18,10 @@ public record RestaurantPatchDto(
 
         @Email(message = EMAIL_MANDATORY)
         @Pattern(regexp = EMAIL_VALIDATOR, message =VALID_EMAIL)
-        String email
+        String email,
+
+        @Min(value = 1, message = INVALID_SLOT_CAPACITY)
+        Integer slotCapacity
 
 ) implements Serializable {
 }
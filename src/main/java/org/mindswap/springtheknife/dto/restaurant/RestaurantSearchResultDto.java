@@ -0,0 +1,10 @@
+package org.mindswap.springtheknife.dto.restaurant;
+
+import java.io.Serializable;
+
+public record RestaurantSearchResultDto(
+        Long restaurantId,
+        int score,
+        RestaurantGetDto restaurant
+) implements Serializable {
+}
@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.dto.restaurant;
+
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+
+import java.io.Serializable;
+
+public record RestaurantWithImageDto(
+        RestaurantGetDto restaurant,
+        RestaurantImageJobDto image
+) implements Serializable {
+}
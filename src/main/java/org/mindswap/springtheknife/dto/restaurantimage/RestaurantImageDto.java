@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.dto.restaurantimage;
+
+import java.io.Serializable;
+
+public record RestaurantImageDto(
+        Long id,
+        Long restaurantId,
+        String contentHash,
+        long size
+) implements Serializable {
+}
@@ -0,0 +1,16 @@
+package org.mindswap.springtheknife.dto.restaurantimage;
+
+import org.mindswap.springtheknife.Enum.ImageJobStatus;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+public record RestaurantImageJobDto(
+        Long restaurantId,
+        ImageJobStatus status,
+        int attempts,
+        String lastError,
+        LocalDateTime nextAttemptAt,
+        LocalDateTime updatedAt
+) implements Serializable {
+}
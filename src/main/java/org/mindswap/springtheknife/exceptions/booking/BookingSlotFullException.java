@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.booking;
+
+public class BookingSlotFullException extends Exception {
+    public BookingSlotFullException(String message) {
+        super(message);
+    }
+}
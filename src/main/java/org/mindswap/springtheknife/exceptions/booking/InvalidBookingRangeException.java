@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.booking;
+
+public class InvalidBookingRangeException extends Exception {
+    public InvalidBookingRangeException(String message) {
+        super(message);
+    }
+}
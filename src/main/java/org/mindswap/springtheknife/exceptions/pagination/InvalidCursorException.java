@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.pagination;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.querycount;
+
+public class QueryBudgetExceededException extends IllegalStateException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurant;
+
+public class InvalidGeoQueryException extends Exception {
+    public InvalidGeoQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurant;
+
+public class InvalidSearchQueryException extends Exception {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurantimage;
+
+public class ImageJobNotFoundException extends Exception {
+    public ImageJobNotFoundException(String message) {
+        super(message);
+    }
+}
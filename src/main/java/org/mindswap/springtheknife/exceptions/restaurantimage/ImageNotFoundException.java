@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurantimage;
+
+public class ImageNotFoundException extends Exception {
+    public ImageNotFoundException(String message) {
+        super(message);
+    }
+}
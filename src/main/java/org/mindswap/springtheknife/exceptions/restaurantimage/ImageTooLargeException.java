@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurantimage;
+
+public class ImageTooLargeException extends Exception {
+    public ImageTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.restaurantimage;
+
+public class InvalidImageException extends Exception {
+    public InvalidImageException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.exceptions.upstream;
+
+public class UpstreamUnavailableException extends Exception {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
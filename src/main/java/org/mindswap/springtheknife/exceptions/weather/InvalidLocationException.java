@@ -0,0 +1,7 @@
+package org.mindswap.springtheknife.exceptions.weather;
+
+public class InvalidLocationException extends Exception {
+    public InvalidLocationException(String message) {
+        super(message);
+    }
+}
@@ -11,6 +11,16 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "booking")
+@NamedEntityGraph(name = Booking.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "user", subgraph = "user"),
+        @NamedAttributeNode(value = "restaurant", subgraph = "restaurant")
+}, subgraphs = {
+        @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("favoriteRestaurants")),
+        @NamedSubgraph(name = "restaurant", attributeNodes = {
+                @NamedAttributeNode("city"),
+                @NamedAttributeNode("restaurantTypes")
+        })
+})
 @Builder
 @Getter
 @Setter
@@ -18,6 +28,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Booking implements Serializable {
 
+    /**
+     * What a booking DTO shows: the booking, its restaurant card and its user's profile. The favorites' own
+     * cities and types are left to batch loading, as fetching restaurantTypes along two paths is not allowed.
+     */
+    public static final String DETAIL_GRAPH = "Booking.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -29,14 +45,11 @@ public class Booking implements Serializable {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
-    @ManyToOne(cascade =CascadeType.ALL,fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne(cascade =CascadeType.ALL,fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id")
     private Restaurant restaurant;
-
-    @OneToOne(mappedBy = "booking")
-    private UserExperience userExperience;
 }
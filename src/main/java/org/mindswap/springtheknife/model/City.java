@@ -3,6 +3,7 @@ package org.mindswap.springtheknife.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.mindswap.springtheknife.utils.Message;
 import java.io.Serializable;
 import java.util.HashSet;
@@ -10,6 +11,9 @@ import java.util.Set;
 
 @Entity
 @Table
+@NamedEntityGraph(name = City.DETAIL_GRAPH, attributeNodes = @NamedAttributeNode(value = "restaurants", subgraph = "restaurant"),
+        subgraphs = @NamedSubgraph(name = "restaurant", attributeNodes = @NamedAttributeNode("restaurantTypes")))
+@BatchSize(size = Restaurant.BATCH_SIZE)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -17,6 +21,11 @@ import java.util.Set;
 @Builder
 public class City implements Serializable {
 
+    /**
+     * What a city DTO shows: the city and the cards of its restaurants.
+     */
+    public static final String DETAIL_GRAPH = "City.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -25,7 +34,8 @@ public class City implements Serializable {
     @Column(unique = true)
     private String name;
 
-    @OneToMany(mappedBy = "city",cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "city",cascade = CascadeType.ALL)
+    @BatchSize(size = Restaurant.BATCH_SIZE)
     private Set<Restaurant> restaurants = new HashSet<>();
 }
 
@@ -0,0 +1,49 @@
+package org.mindswap.springtheknife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One image file of the content-addressed store, shared by every restaurant_image row with its hash.
+ */
+@Entity
+@Table(name = "image_blobs", indexes = @Index(name = "idx_image_blobs_prompt", columnList = "prompt, created_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class ImageBlob {
+
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private String path;
+
+    private long size;
+
+    /**
+     * The restaurant_image rows with this hash; kept incrementally and recounted before every collection.
+     */
+    private long referenceCount;
+
+    /**
+     * The txt2img prompt the image was generated from, or null for uploads.
+     */
+    @Column(length = 500)
+    private String prompt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * Last time the blob was written or referenced: unreferenced blobs are only collected once this is older
+     * than the grace period, so a file written for a row that is not committed yet is left alone.
+     */
+    @Column(name = "touched_at")
+    private LocalDateTime touchedAt;
+}
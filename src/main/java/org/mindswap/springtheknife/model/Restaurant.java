@@ -4,6 +4,7 @@ package org.mindswap.springtheknife.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -12,8 +13,17 @@ import java.util.List;
 import java.util.Set;
 
 
+/**
+ * Every association is lazy; the reads that need more than the restaurant's own columns say so with an
+ * entity graph, and whatever they still touch is loaded in batches instead of one query per restaurant.
+ */
 @Entity
 @Table(name = "restaurants")
+@NamedEntityGraph(name = Restaurant.CARD_GRAPH, attributeNodes = {
+        @NamedAttributeNode("city"),
+        @NamedAttributeNode("restaurantTypes")
+})
+@BatchSize(size = Restaurant.BATCH_SIZE)
 @Builder
 @Getter
 @Setter
@@ -21,6 +31,12 @@ import java.util.Set;
 @NoArgsConstructor
 public class Restaurant implements Serializable {
 
+    /**
+     * What a restaurant DTO shows: the restaurant, its city and its types.
+     */
+    public static final String CARD_GRAPH = "Restaurant.card";
+    public static final int BATCH_SIZE = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -44,21 +60,29 @@ public class Restaurant implements Serializable {
     private Double longitude;
     @Setter
     private Double rating;
+    @Column(name = "rating_sum")
+    private Double ratingSum;
+    @Column(name = "rating_count")
+    private Long ratingCount;
+    @Setter
+    @Column(name = "slot_capacity")
+    private Integer slotCapacity;
 
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
     private List<UserExperience> userExperienceList = new ArrayList<>();
 
-    @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "city_id")
     private City city;
 
-    @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
     private List<Booking> bookingList;
 
-    @ManyToMany(mappedBy = "favoriteRestaurants", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToMany(mappedBy = "favoriteRestaurants")
     private Set<User> usersWhoFavorited = new HashSet<>();
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany
+    @BatchSize(size = BATCH_SIZE)
     @JoinTable(name = "restaurants_by_type",
                joinColumns = @JoinColumn(name = "restaurant_id"),
                inverseJoinColumns = @JoinColumn(name = "restaurant_type_id"))
@@ -1,17 +1,12 @@
 package org.mindswap.springtheknife.model;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.mindswap.springtheknife.utils.ImageApiHandler;
 
-import javax.imageio.ImageIO;
-import java.io.ByteArrayInputStream;
-import java.io.File;
-import java.io.IOException;
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
@@ -24,32 +19,19 @@ public class RestaurantImage {
     private Long id;
 
     @Setter
-    private byte[] images;
+    private String imagePath;
 
+    // SHA-256 of the file, the key of its image_blobs row
     @Setter
-    private String imagePath;
+    private String contentHash;
 
+    // When its derivatives were written; null until then, so the startup backfill derives it again
     @Setter
-    @ManyToOne
+    @Column(name = "derived_at")
+    private LocalDateTime derivedAt;
+
+    @Setter
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id")
     private Restaurant restaurant;
-
-
-    public byte[] convertToByteArray(String prompt) {
-        ObjectMapper mapper = new ObjectMapper();
-        return mapper.convertValue(ImageApiHandler.getImageDataFromAPI(prompt), byte[].class);
-    }
-
-    public String createImageFile(Long id) throws IOException {
-        ByteArrayInputStream stream = new ByteArrayInputStream(images);
-        String filePath = String.format("src/main/imagefiles/%s/", id);
-
-        File file = new File(filePath);
-        file.mkdirs();
-        filePath = filePath + "/rest_default.png";
-
-        ImageIO.write(ImageIO.read(stream), "png", new File(filePath));
-        return filePath;
-    }
-
 }
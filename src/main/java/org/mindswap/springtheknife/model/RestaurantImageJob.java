@@ -0,0 +1,48 @@
+package org.mindswap.springtheknife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.mindswap.springtheknife.Enum.ImageJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queue entry for a generated restaurant image. The table is the queue: workers claim due rows, so jobs that
+ * do not fit in the worker pool, are waiting for a retry or were interrupted by a restart are picked up by
+ * the next sweep.
+ */
+@Entity
+@Table(name = "restaurant_image_jobs")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class RestaurantImageJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "restaurant_id", unique = true, nullable = false)
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ImageJobStatus status;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * When a PENDING job may next run, or when the lease of a RUNNING job expires.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
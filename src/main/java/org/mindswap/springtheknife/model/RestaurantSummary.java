@@ -0,0 +1,74 @@
+package org.mindswap.springtheknife.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.mindswap.springtheknife.converter.RestaurantTypesJsonConverter;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.springframework.data.domain.Persistable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Read model of a restaurant: one row holding everything a restaurant DTO shows, so listing and detail
+ * reads are a single-table query. It shares the restaurant's id and is written by
+ * {@link org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService} in the same
+ * transaction as the restaurant, review, booking or image change it reflects.
+ */
+@Entity
+@Table(name = "restaurant_summary", indexes = @Index(name = "idx_restaurant_summary_city", columnList = "city_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class RestaurantSummary implements Persistable<Long> {
+
+    @Id
+    private Long id;
+    private String name;
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "street", column = @Column(name = "street")),
+            @AttributeOverride(name = "number", column = @Column(name = "door_number")),
+            @AttributeOverride(name = "zipCode", column = @Column(name = "zip_code"))
+    })
+    private Address address;
+    private String email;
+    private String phoneNumber;
+    @Column(name = "city_id")
+    private Long cityId;
+    @Column(name = "city_name")
+    private String cityName;
+    @Convert(converter = RestaurantTypesJsonConverter.class)
+    @Column(name = "restaurant_types", length = 4000)
+    private Set<RestaurantTypeDto> restaurantTypes = new HashSet<>();
+    private Double rating;
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+    @Column(name = "booking_count", nullable = false)
+    private long bookingCount;
+    @Column(name = "primary_image_path")
+    private String primaryImagePath;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean isNew = true;
+
+    public RestaurantSummary(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
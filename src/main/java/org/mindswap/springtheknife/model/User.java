@@ -2,6 +2,7 @@ package org.mindswap.springtheknife.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -16,19 +17,37 @@ import java.util.Set;
 @Getter
 @Entity
 @Table(name = "users")
+@NamedEntityGraph(name = User.PROFILE_GRAPH, attributeNodes = @NamedAttributeNode(value = "favoriteRestaurants", subgraph = "restaurant"),
+        subgraphs = @NamedSubgraph(name = "restaurant", attributeNodes = {
+                @NamedAttributeNode("city"),
+                @NamedAttributeNode("restaurantTypes")
+        }))
+@BatchSize(size = Restaurant.BATCH_SIZE)
 public class User implements Serializable {
 
+    /**
+     * What a user DTO shows: the user and its favorite restaurants as cards.
+     */
+    public static final String PROFILE_GRAPH = "User.profile";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToMany(mappedBy = "user", fetch = FetchType.EAGER,cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
     private List<Booking> bookings = new ArrayList<>();
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "user", fetch = FetchType.LAZY)
     private List<UserExperience> userExperiences = new ArrayList<>();
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToMany
+    @BatchSize(size = Restaurant.BATCH_SIZE)
     @JoinTable(
             name = "user_favourite_restaurants",
             joinColumns = @JoinColumn(name = "user_id"),
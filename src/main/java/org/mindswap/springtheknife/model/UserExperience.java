@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.Cascade;
 
 
@@ -20,17 +22,37 @@ import java.util.ArrayList;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "userExperience")
+@NamedEntityGraph(name = UserExperience.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode(value = "user", subgraph = "user"),
+        @NamedAttributeNode(value = "restaurant", subgraph = "restaurant")
+}, subgraphs = {
+        @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("favoriteRestaurants")),
+        @NamedSubgraph(name = "restaurant", attributeNodes = {
+                @NamedAttributeNode("city"),
+                @NamedAttributeNode("restaurantTypes")
+        })
+})
 public class UserExperience implements Serializable {
 
+    /**
+     * What a review DTO shows: the review, its restaurant card and its user's profile; the booking is only
+     * referenced by id.
+     */
+    public static final String DETAIL_GRAPH = "UserExperience.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(cascade =CascadeType.ALL,fetch = FetchType.EAGER)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne(cascade =CascadeType.ALL,fetch = FetchType.EAGER)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id")
     private Restaurant restaurant;
 
@@ -43,7 +65,9 @@ public class UserExperience implements Serializable {
 
     private LocalDateTime timestamp;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", referencedColumnName = "id")
     private Booking booking;
 
@@ -2,6 +2,11 @@ package org.mindswap.springtheknife.repository;
 import jakarta.transaction.Transactional;
 import org.mindswap.springtheknife.model.Booking;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
@@ -9,6 +14,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -17,11 +23,30 @@ import java.util.Optional;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(attributePaths = {"user", "restaurant", "restaurant.city"})
     Page<Booking> findAll(Pageable pageable);
+
+    @EntityGraph(Booking.DETAIL_GRAPH)
+    Optional<Booking> findDetailById(Long id);
+
     Optional<Booking> findByBookingTime(LocalDateTime localDateTime);
+
+    @EntityGraph(attributePaths = {"user", "restaurant", "restaurant.city"})
+    Window<Booking> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT b.restaurant.id AS restaurantId, b.bookingTime AS bookingTime FROM Booking b " +
+            "WHERE b.bookingTime >= :from AND (b.status IS NULL OR b.status <> org.mindswap.springtheknife.Enum.BookingStatus.CANCELED)")
+    List<BookedSlot> findBookedSlotsFrom(LocalDateTime from);
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE booking AUTO_INCREMENT = 1", nativeQuery = true)
     default void resetId() {
     }
+
+    interface BookedSlot {
+        Long getRestaurantId();
+
+        LocalDateTime getBookingTime();
+    }
 }
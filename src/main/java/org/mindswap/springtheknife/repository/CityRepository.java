@@ -4,20 +4,35 @@ import jakarta.transaction.Transactional;
 import org.mindswap.springtheknife.model.City;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface CityRepository extends JpaRepository<City, Long> {
 
     Page<City> findAll(Pageable pageable);
 
+    @EntityGraph(City.DETAIL_GRAPH)
+    Optional<City> findDetailById(Long id);
+
     Optional<City> findByName(String cityName);
 
+    @Query("SELECT c.id FROM City c WHERE c.id IN :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
+    Window<City> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE city AUTO_INCREMENT = 1", nativeQuery = true)
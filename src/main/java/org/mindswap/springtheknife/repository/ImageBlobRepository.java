@@ -0,0 +1,43 @@
+package org.mindswap.springtheknife.repository;
+
+import org.mindswap.springtheknife.model.ImageBlob;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    Optional<ImageBlob> findFirstByPromptAndCreatedAtAfterOrderByCreatedAtDesc(String prompt, LocalDateTime createdAfter);
+
+    @Query("SELECT b FROM ImageBlob b WHERE b.referenceCount = 0 AND b.touchedAt < :cutoff ORDER BY b.touchedAt")
+    List<ImageBlob> findUnreferencedBefore(LocalDateTime cutoff, Limit limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageBlob b SET b.touchedAt = :now WHERE b.contentHash = :contentHash")
+    int touch(String contentHash, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageBlob b SET b.referenceCount = b.referenceCount + 1, b.touchedAt = :now WHERE b.contentHash = :contentHash")
+    int addReference(String contentHash, LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageBlob b SET b.referenceCount = " +
+            "(SELECT COUNT(i) FROM RestaurantImage i WHERE i.contentHash = b.contentHash) WHERE b.contentHash IN :contentHashes")
+    int recountReferences(Collection<String> contentHashes);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageBlob b SET b.referenceCount = (SELECT COUNT(i) FROM RestaurantImage i WHERE i.contentHash = b.contentHash)")
+    int recountAllReferences();
+
+    @Modifying
+    @Query("DELETE FROM ImageBlob b WHERE b.contentHash = :contentHash AND b.referenceCount = 0 AND b.touchedAt < :cutoff")
+    int deleteIfUnreferenced(String contentHash, LocalDateTime cutoff);
+}
@@ -0,0 +1,78 @@
+package org.mindswap.springtheknife.repository;
+
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.model.Address;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writer for bulk restaurant imports. Restaurant ids are IDENTITY generated, which disables
+ * Hibernate insert batching, so imports go straight through JdbcTemplate with generated keys.
+ */
+@Repository
+public class RestaurantBatchRepository {
+
+    private static final String INSERT_RESTAURANT = "INSERT INTO restaurants " +
+            "(name, street, door_number, zip_code, email, phone_number, latitude, longitude, city_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_RESTAURANT_TYPE = "INSERT INTO restaurants_by_type (restaurant_id, restaurant_type_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RestaurantBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> insertRestaurants(List<RestaurantPostDto> restaurants) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_RESTAURANT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        RestaurantPostDto restaurant = restaurants.get(i);
+                        Address address = restaurant.address() == null ? new Address() : restaurant.address();
+                        ps.setString(1, restaurant.name());
+                        ps.setString(2, address.getStreet());
+                        ps.setString(3, address.getNumber());
+                        ps.setString(4, address.getZipCode());
+                        ps.setString(5, restaurant.email());
+                        ps.setString(6, restaurant.phoneNumber());
+                        ps.setDouble(7, restaurant.latitude());
+                        ps.setDouble(8, restaurant.longitude());
+                        ps.setLong(9, restaurant.cityId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return restaurants.size();
+                    }
+                }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(restaurants.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    public void insertRestaurantTypes(List<Long[]> restaurantTypePairs) {
+        if (restaurantTypePairs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESTAURANT_TYPE, restaurantTypePairs, restaurantTypePairs.size(), (ps, pair) -> {
+            ps.setLong(1, pair[0]);
+            ps.setLong(2, pair[1]);
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package org.mindswap.springtheknife.repository;
+
+import org.mindswap.springtheknife.model.RestaurantImageJob;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RestaurantImageJobRepository extends JpaRepository<RestaurantImageJob, Long> {
+
+    Optional<RestaurantImageJob> findByRestaurantId(Long restaurantId);
+
+    /**
+     * Jobs waiting for a first run or a retry, plus RUNNING jobs whose lease ran out.
+     */
+    @Query("SELECT j.id FROM RestaurantImageJob j " +
+            "WHERE j.status IN (org.mindswap.springtheknife.Enum.ImageJobStatus.PENDING, org.mindswap.springtheknife.Enum.ImageJobStatus.RUNNING) " +
+            "AND j.nextAttemptAt <= :now ORDER BY j.nextAttemptAt")
+    List<Long> findDueJobIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Moves a due job to RUNNING and counts the attempt. Returns 0 when another worker got there first.
+     */
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RestaurantImageJob j SET j.status = org.mindswap.springtheknife.Enum.ImageJobStatus.RUNNING, " +
+            "j.attempts = j.attempts + 1, j.nextAttemptAt = :leaseUntil, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.status IN (org.mindswap.springtheknife.Enum.ImageJobStatus.PENDING, org.mindswap.springtheknife.Enum.ImageJobStatus.RUNNING) " +
+            "AND j.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -1,9 +1,38 @@
 package org.mindswap.springtheknife.repository;
 
 import org.mindswap.springtheknife.model.RestaurantImage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface RestaurantImageRepository extends JpaRepository<RestaurantImage, Long> {
+
+    @Query("SELECT i.id AS id, i.imagePath AS imagePath, i.contentHash AS contentHash FROM RestaurantImage i " +
+            "WHERE i.restaurant.id = :restaurantId ORDER BY i.id")
+    List<ImageLocation> findImageLocationsByRestaurantId(Long restaurantId, Limit limit);
+
+    @Query("SELECT i.id AS id, i.imagePath AS imagePath, i.contentHash AS contentHash FROM RestaurantImage i " +
+            "WHERE i.derivedAt IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<ImageLocation> findUnderivedImagesAfter(Long afterId, Limit limit);
+
+    @Query("SELECT DISTINCT i.contentHash FROM RestaurantImage i WHERE i.restaurant.id = :restaurantId AND i.contentHash IS NOT NULL")
+    List<String> findContentHashesByRestaurantId(Long restaurantId);
+
+    @Modifying
+    @Query("UPDATE RestaurantImage i SET i.contentHash = :contentHash, i.derivedAt = :derivedAt WHERE i.id = :id")
+    int markDerived(Long id, String contentHash, LocalDateTime derivedAt);
+
+    interface ImageLocation {
+        Long getId();
+
+        String getImagePath();
+
+        String getContentHash();
+    }
 }
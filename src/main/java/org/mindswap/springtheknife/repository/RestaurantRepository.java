@@ -1,28 +1,130 @@
 package org.mindswap.springtheknife.repository;
 
 import jakarta.transaction.Transactional;
+import org.mindswap.springtheknife.model.Address;
 import org.mindswap.springtheknife.model.Restaurant;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
+    @EntityGraph(Restaurant.CARD_GRAPH)
+    Optional<Restaurant> findCardById(Long id);
+
     Optional<Restaurant> findByEmail(String email);
 
     Optional<Restaurant> findByPhoneNumber(String phoneNumber);
 
-    @Query("SELECT AVG(ue.rating) FROM UserExperience ue WHERE ue.restaurant.id = :restaurantId")
-    Double findAverageRating(Long restaurantId);
+    @Query("SELECT r.email FROM Restaurant r WHERE r.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT r.phoneNumber FROM Restaurant r WHERE r.phoneNumber IN :phoneNumbers")
+    Set<String> findExistingPhoneNumbers(Collection<String> phoneNumbers);
 
     Page<Restaurant> findAll(Pageable pageable);
 
+    @Query("SELECT r.id AS id, c.id AS cityId, c.name AS cityName, r.name AS name, r.email AS email, r.address AS address, " +
+            "r.phoneNumber AS phoneNumber, r.rating AS rating, r.ratingCount AS ratingCount " +
+            "FROM Restaurant r LEFT JOIN r.city c WHERE r.id IN :restaurantIds")
+    List<RestaurantCard> findRestaurantCardsByIds(Collection<Long> restaurantIds);
+
+    @Query("SELECT r.id AS restaurantId, t.id AS typeId, t.type AS type " +
+            "FROM Restaurant r JOIN r.restaurantTypes t WHERE r.id IN :restaurantIds")
+    List<RestaurantTypeRow> findTypesByRestaurantIds(Collection<Long> restaurantIds);
+
+    @Query("SELECT r.id AS id, r.latitude AS latitude, r.longitude AS longitude, c.id AS cityId " +
+            "FROM Restaurant r LEFT JOIN r.city c WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<RestaurantLocation> findRestaurantLocations();
+
+    @Query("SELECT r.id AS restaurantId, t.id AS typeId, t.type AS type FROM Restaurant r JOIN r.restaurantTypes t")
+    List<RestaurantTypeRow> findAllTypeRows();
+
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.ratingSum = COALESCE(r.ratingSum, 0) + :sumDelta, " +
+            "r.ratingCount = COALESCE(r.ratingCount, 0) + :countDelta, " +
+            "r.rating = CASE WHEN COALESCE(r.ratingCount, 0) + :countDelta > 0 " +
+            "THEN (COALESCE(r.ratingSum, 0) + :sumDelta) / (COALESCE(r.ratingCount, 0) + :countDelta) ELSE 0.0 END " +
+            "WHERE r.id = :restaurantId")
+    int applyRatingDelta(Long restaurantId, double sumDelta, long countDelta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.ratingSum = :ratingSum, r.ratingCount = :ratingCount, " +
+            "r.rating = CASE WHEN :ratingCount > 0 THEN :ratingSum / :ratingCount ELSE 0.0 END " +
+            "WHERE r.id = :restaurantId AND (r.ratingSum IS NULL OR r.ratingCount IS NULL " +
+            "OR r.ratingSum <> :ratingSum OR r.ratingCount <> :ratingCount)")
+    int reconcileRating(Long restaurantId, double ratingSum, long ratingCount);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.ratingSum IS NULL OR r.ratingCount IS NULL ORDER BY r.id")
+    List<Long> findIdsWithoutRatingSums(Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Restaurant r SET r.ratingSum = 0, r.ratingCount = 0, r.rating = 0.0 " +
+            "WHERE (r.ratingCount IS NULL OR r.ratingCount <> 0) " +
+            "AND NOT EXISTS (SELECT ue.id FROM UserExperience ue WHERE ue.restaurant = r)")
+    int resetUnratedRestaurants();
+
+    @Query("SELECT r.id AS id, r.slotCapacity AS slotCapacity FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantCapacity> findCapacityById(Long id);
+
+    interface RestaurantCapacity {
+        Long getId();
+
+        Integer getSlotCapacity();
+    }
+
+    interface RestaurantCard {
+        Long getId();
+
+        Long getCityId();
+
+        String getCityName();
+
+        String getName();
+
+        String getEmail();
+
+        Address getAddress();
+
+        String getPhoneNumber();
+
+        Double getRating();
+
+        Long getRatingCount();
+    }
+
+    interface RestaurantLocation {
+        Long getId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+
+        Long getCityId();
+    }
+
+    interface RestaurantTypeRow {
+        Long getRestaurantId();
+
+        Long getTypeId();
+
+        String getType();
+    }
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE restaurants AUTO_INCREMENT = 1", nativeQuery = true)
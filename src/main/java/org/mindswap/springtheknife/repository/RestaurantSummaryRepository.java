@@ -0,0 +1,96 @@
+package org.mindswap.springtheknife.repository;
+
+import org.mindswap.springtheknife.model.RestaurantSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RestaurantSummaryRepository extends JpaRepository<RestaurantSummary, Long> {
+
+    List<RestaurantSummary> findAllBy(Pageable pageable);
+
+    Window<RestaurantSummary> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE NOT EXISTS (SELECT s.id FROM RestaurantSummary s WHERE s.id = r.id) ORDER BY r.id")
+    List<Long> findRestaurantIdsWithoutSummary(Limit limit);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<Long> findRestaurantIdsAfter(Long afterId, Limit limit);
+
+    @Query("SELECT r.id FROM Restaurant r JOIN r.restaurantTypes t WHERE t.id = :restaurantTypeId")
+    List<Long> findRestaurantIdsByRestaurantTypeId(Long restaurantTypeId);
+
+    @Query("SELECT s.id FROM RestaurantSummary s")
+    List<Long> findAllIds();
+
+    @Query("SELECT s.id FROM RestaurantSummary s WHERE s.cityId = :cityId")
+    List<Long> findIdsByCityId(Long cityId);
+
+    @Query("SELECT DISTINCT b.restaurant.id FROM Booking b WHERE b.user.id = :userId")
+    List<Long> findRestaurantIdsBookedByUserId(Long userId);
+
+    @Query("SELECT b.restaurant.id AS restaurantId, COUNT(b) AS count FROM Booking b " +
+            "WHERE b.restaurant.id IN :restaurantIds GROUP BY b.restaurant.id")
+    List<RestaurantCount> countBookingsByRestaurantIds(Collection<Long> restaurantIds);
+
+    @Query("SELECT i.restaurant.id AS restaurantId, i.imagePath AS imagePath FROM RestaurantImage i WHERE i.id IN " +
+            "(SELECT MIN(j.id) FROM RestaurantImage j WHERE j.restaurant.id IN :restaurantIds GROUP BY j.restaurant.id)")
+    List<RestaurantImagePath> findPrimaryImagesByRestaurantIds(Collection<Long> restaurantIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET s.bookingCount = s.bookingCount + :delta WHERE s.id = :restaurantId")
+    int applyBookingDelta(Long restaurantId, long delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET s.bookingCount = " +
+            "(SELECT COUNT(b) FROM Booking b WHERE b.restaurant.id = s.id) WHERE s.id IN :restaurantIds")
+    int recountBookings(Collection<Long> restaurantIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET " +
+            "s.rating = (SELECT r.rating FROM Restaurant r WHERE r.id = s.id), " +
+            "s.reviewCount = (SELECT COALESCE(r.ratingCount, 0) FROM Restaurant r WHERE r.id = s.id) " +
+            "WHERE s.id = :restaurantId")
+    int copyRating(Long restaurantId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET " +
+            "s.rating = (SELECT r.rating FROM Restaurant r WHERE r.id = s.id), " +
+            "s.reviewCount = (SELECT COALESCE(r.ratingCount, 0) FROM Restaurant r WHERE r.id = s.id)")
+    int copyAllRatings();
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET s.primaryImagePath = :imagePath " +
+            "WHERE s.id = :restaurantId AND s.primaryImagePath IS NULL")
+    int setPrimaryImageIfMissing(Long restaurantId, String imagePath);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RestaurantSummary s SET s.cityName = :cityName WHERE s.cityId = :cityId")
+    int renameCity(Long cityId, String cityName);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RestaurantSummary s WHERE s.cityId = :cityId")
+    int deleteByCityId(Long cityId);
+
+    interface RestaurantCount {
+        Long getRestaurantId();
+
+        Long getCount();
+    }
+
+    interface RestaurantImagePath {
+        Long getRestaurantId();
+
+        String getImagePath();
+    }
+}
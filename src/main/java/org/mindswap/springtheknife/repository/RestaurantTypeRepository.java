@@ -4,6 +4,10 @@ import jakarta.transaction.Transactional;
 import org.mindswap.springtheknife.model.RestaurantType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,14 +15,21 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface RestaurantTypeRepository extends JpaRepository<RestaurantType, Long> {
     Optional<RestaurantType> findByType(String type);
 
+    @Query("SELECT t.id FROM RestaurantType t WHERE t.id IN :ids")
+    Set<Long> findExistingIds(Collection<Long> ids);
+
     Page<RestaurantType> findAll(Pageable pageable);
 
+    Window<RestaurantType> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE restaurant_type AUTO_INCREMENT = 1", nativeQuery = true)
@@ -2,11 +2,19 @@ package org.mindswap.springtheknife.repository;
 
 import jakarta.transaction.Transactional;
 import org.mindswap.springtheknife.model.UserExperience;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +26,31 @@ public interface UserExperienceRepository extends JpaRepository<UserExperience,
 
     Optional<UserExperience> findById(Long id);
 
+    @EntityGraph(UserExperience.DETAIL_GRAPH)
+    Optional<UserExperience> findDetailById(Long id);
+
+    @EntityGraph(attributePaths = {"user", "restaurant", "restaurant.city"})
+    Page<UserExperience> findAll(Pageable pageable);
+
+    @Query("SELECT ue.restaurant.id AS restaurantId, SUM(ue.rating) AS ratingSum, COUNT(ue) AS ratingCount " +
+            "FROM UserExperience ue WHERE ue.rating IS NOT NULL GROUP BY ue.restaurant.id")
+    List<RatingAggregate> findRatingAggregates();
+
+    @Query("SELECT ue.restaurant.id AS restaurantId, SUM(ue.rating) AS ratingSum, COUNT(ue) AS ratingCount " +
+            "FROM UserExperience ue WHERE ue.rating IS NOT NULL AND ue.restaurant.id IN :restaurantIds GROUP BY ue.restaurant.id")
+    List<RatingAggregate> findRatingAggregatesByRestaurantIds(Collection<Long> restaurantIds);
+
+    interface RatingAggregate {
+        Long getRestaurantId();
+
+        Double getRatingSum();
+
+        Long getRatingCount();
+    }
+
+    @EntityGraph(attributePaths = {"user", "restaurant", "restaurant.city"})
+    Window<UserExperience> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE userExperience AUTO_INCREMENT = 1", nativeQuery = true)
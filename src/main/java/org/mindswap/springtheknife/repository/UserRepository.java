@@ -5,6 +5,11 @@ import jakarta.transaction.Transactional;
 import org.mindswap.springtheknife.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -17,6 +22,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findById(Long id);
 
+    @EntityGraph(User.PROFILE_GRAPH)
+    Optional<User> findProfileById(Long id);
+
     //  @Query("SELECT s FROM User s WHERE s.userName = ?1")
     Optional<User> findByUserName(String username);
 
@@ -24,6 +32,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Page<User> findAll(Pageable pageable);
 
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
     @Modifying
     @Transactional
     @Query(value = "ALTER TABLE users AUTO_INCREMENT = 1", nativeQuery = true)
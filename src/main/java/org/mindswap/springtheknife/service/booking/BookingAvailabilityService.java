@@ -0,0 +1,27 @@
+package org.mindswap.springtheknife.service.booking;
+
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
+import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.Restaurant;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingAvailabilityService {
+
+    List<SlotAvailabilityDto> getAvailability(Long restaurantId, LocalDateTime from, LocalDateTime to) throws RestaurantNotFoundException, InvalidBookingRangeException;
+
+    void admit(Restaurant restaurant, LocalDateTime previousTime, BookingStatus previousStatus,
+               LocalDateTime bookingTime, BookingStatus status) throws BookingSlotFullException;
+
+    void revert(Restaurant restaurant, LocalDateTime previousTime, BookingStatus previousStatus,
+                LocalDateTime bookingTime, BookingStatus status);
+
+    void onBookingRemoved(Booking booking);
+
+    void rebuild();
+}
@@ -0,0 +1,254 @@
+package org.mindswap.springtheknife.service.booking;
+
+import jakarta.annotation.PostConstruct;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
+import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.BookingRepository.BookedSlot;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantCapacity;
+import org.mindswap.springtheknife.utils.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers "which slots are free" from memory. Every restaurant has a sorted map of slot start to the number
+ * of bookings in that slot, loaded from the booking table on startup and kept current by the booking
+ * service, so an availability lookup is a sub-map view instead of a scan of Restaurant.bookingList.
+ * Slots are a fixed grid of theknife.booking.slot-minutes from midnight; a booking occupies the slot its
+ * time falls in until it is cancelled. Past days are dropped from the index nightly.
+ * <p>
+ * Admission checks and takes a seat in one step under a lock striped by restaurant, so concurrent requests
+ * for the same slot cannot overbook it while different restaurants rarely wait on each other. The lock only
+ * covers the in-memory update; callers write the booking afterwards in the same transaction, and the update
+ * is undone if that transaction rolls back.
+ */
+@Service
+public class BookingAvailabilityServiceImpl implements BookingAvailabilityService {
+
+    private final BookingRepository bookingRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final int slotMinutes;
+    private final int defaultCapacity;
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final int maxRangeDays;
+    private final Lock[] stripes;
+    private volatile Map<Long, NavigableMap<LocalDateTime, Integer>> occupancy = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingAvailabilityServiceImpl(BookingRepository bookingRepository, RestaurantRepository restaurantRepository,
+                                          @Value("${theknife.booking.slot-minutes:30}") int slotMinutes,
+                                          @Value("${theknife.booking.default-capacity:10}") int defaultCapacity,
+                                          @Value("${theknife.booking.opening-time:12:00}") String openingTime,
+                                          @Value("${theknife.booking.closing-time:23:00}") String closingTime,
+                                          @Value("${theknife.booking.max-availability-days:14}") int maxRangeDays,
+                                          @Value("${theknife.booking.lock-stripes:64}") int lockStripes) {
+        this.bookingRepository = bookingRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.slotMinutes = slotMinutes;
+        this.defaultCapacity = defaultCapacity;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.closingTime = LocalTime.parse(closingTime);
+        this.maxRangeDays = maxRangeDays;
+        this.stripes = new Lock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, NavigableMap<LocalDateTime, Integer>> rebuilt = new ConcurrentHashMap<>();
+        for (BookedSlot booked : bookingRepository.findBookedSlotsFrom(LocalDate.now().atStartOfDay())) {
+            rebuilt.computeIfAbsent(booked.getRestaurantId(), id -> new ConcurrentSkipListMap<>())
+                    .merge(slotOf(booked.getBookingTime()), 1, Integer::sum);
+        }
+        occupancy = rebuilt;
+    }
+
+    @Scheduled(cron = "${theknife.booking.prune-cron:0 15 3 * * *}")
+    public void prunePastSlots() {
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        occupancy.values().forEach(slots -> slots.headMap(today).clear());
+    }
+
+    @Override
+    public List<SlotAvailabilityDto> getAvailability(Long restaurantId, LocalDateTime from, LocalDateTime to) throws RestaurantNotFoundException, InvalidBookingRangeException {
+        if (from == null || to == null || !to.isAfter(from) || Duration.between(from, to).toDays() >= maxRangeDays) {
+            throw new InvalidBookingRangeException(Message.INVALID_AVAILABILITY_RANGE + maxRangeDays + " days");
+        }
+        RestaurantCapacity restaurant = restaurantRepository.findCapacityById(restaurantId)
+                .orElseThrow(() -> new RestaurantNotFoundException(restaurantId + Message.NOT_EXIST));
+        int capacity = capacityOf(restaurant.getSlotCapacity());
+        NavigableMap<LocalDateTime, Integer> booked = occupancy.getOrDefault(restaurantId, new ConcurrentSkipListMap<>())
+                .subMap(slotOf(from), true, to, false);
+
+        List<SlotAvailabilityDto> slots = new ArrayList<>();
+        for (LocalDateTime slot = slotOf(from); slot.isBefore(to); slot = slot.plusMinutes(slotMinutes)) {
+            if (slot.toLocalTime().isBefore(openingTime) || !slot.toLocalTime().isBefore(closingTime)) {
+                continue;
+            }
+            int taken = booked.getOrDefault(slot, 0);
+            slots.add(new SlotAvailabilityDto(slot, capacity, taken, Math.max(capacity - taken, 0)));
+        }
+        return slots;
+    }
+
+    /**
+     * Moves a booking from its previous slot and status to the new ones, failing if that needs a seat in a
+     * full slot. A new booking is admitted with a null previous time and CANCELED previous status. Inside a
+     * transaction the move is undone if the transaction rolls back, whatever made it fail.
+     */
+    @Override
+    public void admit(Restaurant restaurant, LocalDateTime previousTime, BookingStatus previousStatus,
+                      LocalDateTime bookingTime, BookingStatus status) throws BookingSlotFullException {
+        Long restaurantId = restaurant.getId();
+        boolean releases = occupies(previousStatus) && previousTime != null;
+        boolean takes = occupies(status) && bookingTime != null;
+        Lock lock = stripeOf(restaurantId);
+        lock.lock();
+        try {
+            boolean sameSeat = releases && takes && slotOf(previousTime).equals(slotOf(bookingTime));
+            if (takes && !sameSeat && booked(restaurantId, bookingTime) >= capacityOf(restaurant.getSlotCapacity())) {
+                throw new BookingSlotFullException(Message.BOOKING_SLOT_FULL);
+            }
+            if (releases) {
+                adjust(restaurantId, previousTime, -1);
+            }
+            if (takes) {
+                adjust(restaurantId, bookingTime, 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int completionStatus) {
+                    if (completionStatus == STATUS_ROLLED_BACK) {
+                        revert(restaurant, previousTime, previousStatus, bookingTime, status);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Undoes an {@link #admit} with the same arguments. Admissions inside a transaction are undone on rollback
+     * already; this is for callers that write the booking without one.
+     */
+    @Override
+    public void revert(Restaurant restaurant, LocalDateTime previousTime, BookingStatus previousStatus,
+                       LocalDateTime bookingTime, BookingStatus status) {
+        Lock lock = stripeOf(restaurant.getId());
+        lock.lock();
+        try {
+            if (occupies(status) && bookingTime != null) {
+                adjust(restaurant.getId(), bookingTime, -1);
+            }
+            if (occupies(previousStatus) && previousTime != null) {
+                adjust(restaurant.getId(), previousTime, 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the booking's seat once the delete commits: freed earlier, a rollback would leave the slot open
+     * while the booking is still in the table.
+     */
+    @Override
+    public void onBookingRemoved(Booking booking) {
+        Long restaurantId = restaurantIdOf(booking);
+        if (!occupies(booking.getStatus()) || restaurantId == null) {
+            return;
+        }
+        LocalDateTime bookingTime = booking.getBookingTime();
+        afterCommit(() -> {
+            Lock lock = stripeOf(restaurantId);
+            lock.lock();
+            try {
+                adjust(restaurantId, bookingTime, -1);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private Lock stripeOf(Long restaurantId) {
+        return stripes[Math.floorMod(Objects.hashCode(restaurantId), stripes.length)];
+    }
+
+    private int booked(Long restaurantId, LocalDateTime bookingTime) {
+        NavigableMap<LocalDateTime, Integer> slots = occupancy.get(restaurantId);
+        return slots == null ? 0 : slots.getOrDefault(slotOf(bookingTime), 0);
+    }
+
+    private void adjust(Long restaurantId, LocalDateTime bookingTime, int delta) {
+        if (restaurantId == null || bookingTime == null) {
+            return;
+        }
+        NavigableMap<LocalDateTime, Integer> slots = occupancy.computeIfAbsent(restaurantId, id -> new ConcurrentSkipListMap<>());
+        if (delta > 0) {
+            slots.merge(slotOf(bookingTime), delta, Integer::sum);
+        } else {
+            slots.computeIfPresent(slotOf(bookingTime), (slot, current) -> current + delta <= 0 ? null : current + delta);
+        }
+    }
+
+    private LocalDateTime slotOf(LocalDateTime time) {
+        int minuteOfDay = time.getHour() * 60 + time.getMinute();
+        return time.toLocalDate().atStartOfDay().plusMinutes(minuteOfDay - minuteOfDay % slotMinutes);
+    }
+
+    private int capacityOf(Integer slotCapacity) {
+        return slotCapacity == null ? defaultCapacity : slotCapacity;
+    }
+
+    private static boolean occupies(BookingStatus status) {
+        return status != BookingStatus.CANCELED;
+    }
+
+    private static Long restaurantIdOf(Booking booking) {
+        return booking.getRestaurant() == null ? null : booking.getRestaurant().getId();
+    }
+}
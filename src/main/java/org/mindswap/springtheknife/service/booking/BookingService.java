@@ -1,14 +1,20 @@
 package org.mindswap.springtheknife.service.booking;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
 import org.mindswap.springtheknife.dto.booking.BookingGetDto;
 import org.mindswap.springtheknife.dto.booking.BookingPatchDto;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
@@ -16,11 +22,15 @@ public interface BookingService {
 
     List<BookingGetDto> getAllBookings(int pageNumber, int pageSize, String sortBy);
 
+    CursorPageDto<BookingGetDto> scrollBookings(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
     BookingGetDto getBookingById(Long id) throws BookingNotFoundException;
 
-    BookingGetDto addBooking(BookingCreateDto booking) throws BookingAlreadyExistsException, UserNotFoundException, RestaurantNotFoundException;
+    BookingGetDto addBooking(BookingCreateDto booking) throws BookingAlreadyExistsException, UserNotFoundException, RestaurantNotFoundException, BookingSlotFullException;
+
+    List<SlotAvailabilityDto> getAvailability(Long restaurantId, LocalDateTime from, LocalDateTime to) throws RestaurantNotFoundException, InvalidBookingRangeException;
 
-    BookingGetDto patchBooking(Long id, BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException;
+    BookingGetDto patchBooking(Long id, BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException, BookingSlotFullException;
 
     void deleteBooking(Long id) throws BookingNotFoundException;
 }
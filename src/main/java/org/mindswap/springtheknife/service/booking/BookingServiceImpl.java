@@ -2,31 +2,44 @@ package org.mindswap.springtheknife.service.booking;
 
 import lombok.SneakyThrows;
 import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.BookingConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
 import org.mindswap.springtheknife.dto.booking.BookingGetDto;
 import org.mindswap.springtheknife.dto.booking.BookingPatchDto;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.Restaurant;
 import org.mindswap.springtheknife.model.User;
 import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,16 +51,26 @@ public class BookingServiceImpl implements BookingService {
 
     private final RestaurantServiceImpl restaurantServiceImpl;
 
+    private final BookingAvailabilityService bookingAvailabilityService;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final RestaurantSummaryService restaurantSummaryService;
+
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, UserServiceImpl userServiceImpl, RestaurantServiceImpl restaurantServiceImpl) {
+    public BookingServiceImpl(BookingRepository bookingRepository, UserServiceImpl userServiceImpl, RestaurantServiceImpl restaurantServiceImpl, BookingAvailabilityService bookingAvailabilityService, CacheInvalidationService cacheInvalidationService, RestaurantSummaryService restaurantSummaryService) {
         this.bookingRepository = bookingRepository;
         this.userServiceImpl = userServiceImpl;
         this.restaurantServiceImpl = restaurantServiceImpl;
+        this.bookingAvailabilityService = bookingAvailabilityService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
     }
 
 
     @Override
-    @Cacheable(cacheNames = "BookingById", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.BOOKING_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
+    @Transactional(readOnly = true)
     public List<BookingGetDto> getAllBookings(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
         Page<Booking> pageBookings = bookingRepository.findAll(pageRequest);
@@ -57,9 +80,20 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    @Cacheable(cacheNames = "BookingById", key = "#id")
+    @Transactional(readOnly = true)
+    public CursorPageDto<BookingGetDto> scrollBookings(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<Booking> window = bookingRepository.findAllBy(KeysetCursor.decode(cursor, sortBy, Booking.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(window.stream()
+                .map(BookingConverter::fromModelToBookingDto)
+                .toList(), KeysetCursor.encode(window));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.BOOKING_BY_ID, key = "#id")
+    @Transactional(readOnly = true)
     public BookingGetDto getBookingById(Long id) throws BookingNotFoundException {
-        Optional<Booking> bookingOptional = bookingRepository.findById(id);
+        Optional<Booking> bookingOptional = bookingRepository.findDetailById(id);
         if (bookingOptional.isEmpty()) {
             throw new BookingNotFoundException(Message.BOOKING_ID + id + Message.NOT_FOUND);
         }
@@ -76,25 +110,39 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public BookingGetDto addBooking(BookingCreateDto booking) throws UserNotFoundException, RestaurantNotFoundException {
+    @Transactional
+    public BookingGetDto addBooking(BookingCreateDto booking) throws UserNotFoundException, RestaurantNotFoundException, BookingSlotFullException {
+        Restaurant restaurant = restaurantServiceImpl.getById(booking.restaurantId());
         Booking bookingToSave = BookingConverter.fromBookingDtoToModel
-                (booking, userServiceImpl.getUserById(booking.userId()),
-                        restaurantServiceImpl.getById(booking.restaurantId()));
+                (booking, userServiceImpl.getUserById(booking.userId()), restaurant);
+        bookingAvailabilityService.admit(restaurant, null, BookingStatus.CANCELED, booking.bookingTime(), booking.status());
         bookingRepository.save(bookingToSave);
+        restaurantSummaryService.onBookingAdded(restaurant.getId());
+        cacheInvalidationService.evict(CachedEntity.BOOKING, null);
         return BookingConverter.fromModelToBookingDto(bookingToSave);
     }
 
     @Override
-    @CacheEvict(cacheNames = "BookingDelete", allEntries = true)
+    public List<SlotAvailabilityDto> getAvailability(Long restaurantId, LocalDateTime from, LocalDateTime to) throws RestaurantNotFoundException, InvalidBookingRangeException {
+        return bookingAvailabilityService.getAvailability(restaurantId, from, to);
+    }
+
+    @Override
+    @Transactional
     public void deleteBooking (Long bookingId) throws BookingNotFoundException {
 
-        bookingRepository.findById(bookingId).orElseThrow(() -> new BookingNotFoundException(Message.BOOKING_ID + bookingId + Message.NOT_FOUND));
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() -> new BookingNotFoundException(Message.BOOKING_ID + bookingId + Message.NOT_FOUND));
         bookingRepository.deleteById(bookingId);
+        if (booking.getRestaurant() != null) {
+            restaurantSummaryService.onBookingRemoved(booking.getRestaurant().getId());
+        }
+        bookingAvailabilityService.onBookingRemoved(booking);
+        cacheInvalidationService.evict(CachedEntity.BOOKING, bookingId);
     }
 
     @Override
-    @CachePut(cacheNames = "BookingPatch", key="#id")
-    public BookingGetDto patchBooking(Long id, BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException {
+    @Transactional
+    public BookingGetDto patchBooking(Long id, BookingPatchDto booking) throws BookingNotFoundException, OperationNotAllowedException, BookingSlotFullException {
 
         Optional<Booking> bookingOptional = bookingRepository.findById(id);
         if (bookingOptional.isEmpty()) {
@@ -105,14 +153,20 @@ public class BookingServiceImpl implements BookingService {
         if(dbBooking.getStatus() == BookingStatus.COMPLETE) {
             throw new OperationNotAllowedException(Message.BOOKING_CLOSED);
         }
-        if (booking.bookingTime() != null) {
-            dbBooking.setBookingTime(booking.bookingTime());
-        }
-        if (booking.status() != null) {
-            dbBooking.setStatus(booking.status());
+        LocalDateTime previousTime = dbBooking.getBookingTime();
+        BookingStatus previousStatus = dbBooking.getStatus();
+        LocalDateTime newTime = booking.bookingTime() != null ? booking.bookingTime() : previousTime;
+        BookingStatus newStatus = booking.status() != null ? booking.status() : previousStatus;
+        Restaurant restaurant = dbBooking.getRestaurant();
+        if (restaurant != null) {
+            bookingAvailabilityService.admit(restaurant, previousTime, previousStatus, newTime, newStatus);
         }
+        dbBooking.setBookingTime(newTime);
+        dbBooking.setStatus(newStatus);
 
-        return BookingConverter.fromModelToBookingDto(bookingRepository.save(dbBooking));
+        Booking saved = bookingRepository.save(dbBooking);
+        cacheInvalidationService.evict(CachedEntity.BOOKING, id);
+        return BookingConverter.fromModelToBookingDto(saved);
     }
 }
 
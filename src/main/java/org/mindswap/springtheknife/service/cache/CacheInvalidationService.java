@@ -0,0 +1,10 @@
+package org.mindswap.springtheknife.service.cache;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+
+public interface CacheInvalidationService {
+
+    void evict(CachedEntity entity, Object id);
+
+    void evictAll(CachedEntity entity);
+}
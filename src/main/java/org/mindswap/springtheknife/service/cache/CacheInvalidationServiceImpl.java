@@ -0,0 +1,94 @@
+package org.mindswap.springtheknife.service.cache;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Single place where writes invalidate the read caches. A write drops the by-id entry of the row it
+ * touched, every page of that entity and, because DTOs embed each other, every cache of the entities
+ * that carry a copy of it. Inside a transaction the eviction waits for the commit so a concurrent
+ * read cannot put the old row back into the cache.
+ */
+@Service
+public class CacheInvalidationServiceImpl implements CacheInvalidationService {
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public CacheInvalidationServiceImpl(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param id the written row, or null for an insert, which only changes pages and embedding entities
+     */
+    @Override
+    public void evict(CachedEntity entity, Object id) {
+        afterCommit(() -> {
+            if (id != null) {
+                evict(entity.getByIdCache(), id);
+            }
+            clear(entity.getPagesCache());
+            clearEmbedding(entity);
+        });
+    }
+
+    @Override
+    public void evictAll(CachedEntity entity) {
+        afterCommit(() -> {
+            clear(entity.getByIdCache());
+            clear(entity.getPagesCache());
+            clearEmbedding(entity);
+        });
+    }
+
+    private void clearEmbedding(CachedEntity entity) {
+        Set<CachedEntity> visited = EnumSet.of(entity);
+        Deque<CachedEntity> pending = new ArrayDeque<>(entity.embeddedIn());
+        while (!pending.isEmpty()) {
+            CachedEntity embedding = pending.poll();
+            if (visited.add(embedding)) {
+                clear(embedding.getByIdCache());
+                clear(embedding.getPagesCache());
+                pending.addAll(embedding.embeddedIn());
+            }
+        }
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
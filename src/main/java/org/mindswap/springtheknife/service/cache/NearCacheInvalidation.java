@@ -0,0 +1,9 @@
+package org.mindswap.springtheknife.service.cache;
+
+import java.io.Serializable;
+
+/**
+ * Message sent between nodes when a two-tier cache entry is evicted; a null key clears the cache.
+ */
+public record NearCacheInvalidation(String origin, String cacheName, Object key) implements Serializable {
+}
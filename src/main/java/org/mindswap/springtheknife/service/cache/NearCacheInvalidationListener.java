@@ -0,0 +1,62 @@
+package org.mindswap.springtheknife.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscribes a {@link TwoTierCacheManager} to the invalidations published by the other nodes. The plain
+ * container fails the application start when Redis is down; this one keeps retrying in the background, and
+ * until it is subscribed the local time to live is what bounds a stale copy.
+ */
+public class NearCacheInvalidationListener extends RedisMessageListenerContainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCacheInvalidationListener.class);
+    private static final long RETRY_SECONDS = 5;
+
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "near-cache-subscribe");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NearCacheInvalidationListener(RedisConnectionFactory redisConnectionFactory, TwoTierCacheManager cacheManager,
+                                         String channel) {
+        RedisSerializer<Object> serializer = RedisSerializer.java();
+        setConnectionFactory(redisConnectionFactory);
+        addMessageListener((message, pattern) -> {
+            if (serializer.deserialize(message.getBody()) instanceof NearCacheInvalidation invalidation) {
+                cacheManager.onInvalidation(invalidation);
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    private volatile boolean warned;
+
+    @Override
+    public void start() {
+        try {
+            super.start();
+        } catch (RuntimeException e) {
+            if (!warned) {
+                warned = true;
+                logger.warn("Could not subscribe to near cache invalidations, retrying every {}s: {}", RETRY_SECONDS, e.getMessage());
+            }
+            super.stop();
+            retries.schedule(this::start, RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        retries.shutdownNow();
+        super.destroy();
+    }
+}
@@ -0,0 +1,10 @@
+package org.mindswap.springtheknife.service.cache;
+
+/**
+ * Tells the other nodes to drop their in-process copy of a key, or of the whole cache when the key is null.
+ */
+@FunctionalInterface
+public interface NearCacheInvalidationPublisher {
+
+    void publish(String cacheName, Object key);
+}
@@ -0,0 +1,157 @@
+package org.mindswap.springtheknife.service.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache that answers from a bounded in-process map (L1) and falls back to a shared cache, Redis in
+ * production (L2). Reads that miss L1 copy the L2 value into it; evictions go to both tiers and are announced
+ * to the other nodes, which drop their own L1 copy.
+ * <p>
+ * An invalidation that lands while a value is being read from L2 may concern that very value, so the read
+ * only fills L1 when no invalidation happened in between.
+ */
+public class TwoTierCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local;
+    private final Cache shared;
+    private final NearCacheInvalidationPublisher publisher;
+
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> local, Cache shared,
+                        NearCacheInvalidationPublisher publisher) {
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return shared.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper cached = local.getIfPresent(key);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+        long seen = invalidations.get();
+        ValueWrapper stored = shared.get(key);
+        if (stored == null) {
+            misses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        ValueWrapper copy = new SimpleValueWrapper(stored.get());
+        if (invalidations.get() == seen) {
+            local.put(key, copy);
+        }
+        return copy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        long seen = invalidations.get();
+        T value = shared.get(key, valueLoader);
+        if (invalidations.get() == seen) {
+            local.put(key, new SimpleValueWrapper(value));
+        }
+        return value;
+    }
+
+    /**
+     * Puts only come from {@code @Cacheable} filling a miss (writes evict instead), so no other node can
+     * hold a different copy and nothing is announced.
+     */
+    @Override
+    public void put(Object key, Object value) {
+        shared.put(key, value);
+        local.put(key, new SimpleValueWrapper(value));
+        puts.increment();
+    }
+
+    @Override
+    public void evict(Object key) {
+        shared.evict(key);
+        evictLocal(key);
+        publisher.publish(name, key);
+    }
+
+    @Override
+    public void clear() {
+        shared.clear();
+        clearLocal();
+        publisher.publish(name, null);
+    }
+
+    /**
+     * Drops the L1 copy of a key another node wrote or evicted.
+     */
+    public void evictLocal(Object key) {
+        invalidations.incrementAndGet();
+        local.invalidate(key);
+    }
+
+    public void clearLocal() {
+        invalidations.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getSharedHits() {
+        return sharedHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getLocalEvictions() {
+        return local.stats().evictionCount();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+}
@@ -0,0 +1,88 @@
+package org.mindswap.springtheknife.service.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * Puts a {@link TwoTierCache} in front of every cache of the shared manager. Evictions are sent through the
+ * transport (Redis pub/sub in production) tagged with this node's id; messages from other nodes come back
+ * through {@link #onInvalidation} and only touch the local tier.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final CacheManager shared;
+    private final long maximumSize;
+    private final Duration timeToLive;
+    private final Consumer<NearCacheInvalidation> transport;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager shared, long maximumSize, Duration timeToLive,
+                               Consumer<NearCacheInvalidation> transport, Collection<String> cacheNames) {
+        this.shared = shared;
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        this.transport = transport;
+        cacheNames.forEach(this::getCache);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache sharedCache = shared.getCache(name);
+        if (sharedCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, cacheName -> new TwoTierCache(cacheName,
+                Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(timeToLive).recordStats().build(),
+                sharedCache, this::publish));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public void onInvalidation(NearCacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        TwoTierCache cache = caches.get(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    /**
+     * A lost message leaves the other nodes with a stale copy for at most the local time to live, so a
+     * failing transport is logged rather than failing the write that triggered it.
+     */
+    private void publish(String cacheName, Object key) {
+        try {
+            transport.accept(new NearCacheInvalidation(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            logger.warn("Could not announce eviction of {} in cache {}: {}", key, cacheName, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.mindswap.springtheknife.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the standard {@code cache.gets}/{@code cache.puts}/{@code cache.evictions} meters of a two-tier
+ * cache, where a hit is a hit on either tier, plus {@code cache.tier.hits} to tell how many reads never
+ * left the JVM.
+ */
+public class TwoTierCacheMeterBinder extends CacheMeterBinder<TwoTierCache> {
+
+    public TwoTierCacheMeterBinder(TwoTierCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? 0 : cache.getLocalHits() + cache.getSharedHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? null : cache.getLocalEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        TwoTierCache cache = getCache();
+        return cache == null ? 0 : cache.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoTierCache cache = getCache();
+        FunctionCounter.builder("cache.tier.hits", cache, TwoTierCache::getLocalHits)
+                .tags(getTagsWithCacheName()).tag("tier", "local")
+                .description("Hits served from the in-process tier")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.hits", cache, TwoTierCache::getSharedHits)
+                .tags(getTagsWithCacheName()).tag("tier", "shared")
+                .description("Hits that missed the in-process tier and were served from Redis")
+                .register(registry);
+        Gauge.builder("cache.tier.size", cache, TwoTierCache::getLocalSize)
+                .tags(getTagsWithCacheName()).tag("tier", "local")
+                .description("Entries held in the in-process tier")
+                .register(registry);
+    }
+}
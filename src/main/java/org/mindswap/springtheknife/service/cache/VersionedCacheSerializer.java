@@ -0,0 +1,132 @@
+package org.mindswap.springtheknife.service.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the values of one cache as Smile (binary JSON) bound to the DTO type the cache holds, so no class
+ * names go into the payload. Every value starts with a format version and a fingerprint of the DTO shape
+ * (property names and types, nested DTOs included): a value written by another version of the code, or by
+ * the previous JDK serialization, reads as a miss and is simply loaded again.
+ */
+public class VersionedCacheSerializer implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionedCacheSerializer.class);
+    static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 1 + Integer.BYTES;
+
+    private static final ObjectMapper MAPPER = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            // Absent optional properties read back as null, so they need not be written
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .build();
+
+    private final JavaType type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int fingerprint;
+    private final byte[] header;
+
+    public VersionedCacheSerializer(JavaType type) {
+        this.type = type;
+        this.reader = MAPPER.readerFor(type);
+        this.writer = MAPPER.writerFor(type);
+        this.fingerprint = fingerprint(type);
+        this.header = ByteBuffer.allocate(HEADER_BYTES).put(FORMAT_VERSION).putInt(fingerprint).array();
+    }
+
+    public static VersionedCacheSerializer of(Class<?> dtoType) {
+        return new VersionedCacheSerializer(MAPPER.constructType(dtoType));
+    }
+
+    public static VersionedCacheSerializer listOf(Class<?> dtoType) {
+        return new VersionedCacheSerializer(MAPPER.getTypeFactory().constructCollectionType(List.class, dtoType));
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        bytes.writeBytes(header);
+        try {
+            writer.writeValue(bytes, value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + type + " to the cache", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.wrap(bytes, 0, HEADER_BYTES);
+        if (header.get() != FORMAT_VERSION || header.getInt() != fingerprint) {
+            return null;
+        }
+        try {
+            return reader.readValue(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+        } catch (IOException e) {
+            logger.warn("Dropping unreadable cached {}: {}", type, e.getMessage());
+            return null;
+        }
+    }
+
+    private static int fingerprint(JavaType type) {
+        StringBuilder shape = new StringBuilder();
+        describe(type, shape, new HashSet<>());
+        return shape.toString().hashCode();
+    }
+
+    private static void describe(JavaType type, StringBuilder shape, Set<Class<?>> seen) {
+        shape.append(type.getRawClass().getName());
+        if (type.isContainerType()) {
+            shape.append('<');
+            if (type.getKeyType() != null) {
+                describe(type.getKeyType(), shape, seen);
+                shape.append(',');
+            }
+            describe(type.getContentType(), shape, seen);
+            shape.append('>');
+            return;
+        }
+        if (type.isEnumType()) {
+            Arrays.stream(type.getRawClass().getEnumConstants()).forEach(constant -> shape.append(':').append(((Enum<?>) constant).name()));
+            return;
+        }
+        if (type.isPrimitive() || type.getRawClass().getName().startsWith("java.")
+                || !seen.add(type.getRawClass())) {
+            return;
+        }
+        shape.append('{');
+        for (BeanPropertyDefinition property : MAPPER.getSerializationConfig().introspect(type).findProperties()) {
+            shape.append(property.getName()).append(':');
+            describe(property.getPrimaryType(), shape, seen);
+            shape.append(';');
+        }
+        shape.append('}');
+    }
+}
@@ -1,8 +1,10 @@
 package org.mindswap.springtheknife.service.city;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.city.CityDto;
 import org.mindswap.springtheknife.dto.city.CityGetDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.city.CityAlreadyExistsException;
 import org.mindswap.springtheknife.model.City;
 
@@ -11,6 +13,8 @@ import java.util.List;
 public interface CityService {
     List<CityGetDto> getAllCities(int pageNumber, int pageSize, String sortBy) throws Exception;
 
+    CursorPageDto<CityGetDto> scrollCities(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
     City getCityById(Long cityId) throws CityNotFoundException;
 
     CityDto createCity(CityDto city) throws CityAlreadyExistsException;
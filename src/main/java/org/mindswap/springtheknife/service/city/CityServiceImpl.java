@@ -1,21 +1,29 @@
 package org.mindswap.springtheknife.service.city;
 
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.CityConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.city.CityDto;
 import org.mindswap.springtheknife.dto.city.CityGetDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.city.CityAlreadyExistsException;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,14 +32,19 @@ import java.util.Optional;
 public class CityServiceImpl implements CityService {
 
     private final CityRepository cityRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryService restaurantSummaryService;
 
     @Autowired
-    public CityServiceImpl(CityRepository cityRepository) {
+    public CityServiceImpl(CityRepository cityRepository, CacheInvalidationService cacheInvalidationService, RestaurantSummaryService restaurantSummaryService) {
         this.cityRepository = cityRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
     }
 
     @Override
-    @Cacheable(cacheNames = "City", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.CITY_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
+    @Transactional(readOnly = true)
     public List<CityGetDto> getAllCities(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
         Page<City> pageCities = this.cityRepository.findAll(pageRequest);
@@ -41,9 +54,19 @@ public class CityServiceImpl implements CityService {
     }
 
     @Override
-    @Cacheable(cacheNames = "getCity", key = "#id")
+    @Transactional(readOnly = true)
+    public CursorPageDto<CityGetDto> scrollCities(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<City> window = cityRepository.findAllBy(KeysetCursor.decode(cursor, sortBy, City.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(window.stream()
+                .map(CityConverter::fromModelToCityGetDto)
+                .toList(), KeysetCursor.encode(window));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.CITY_BY_ID, key = "#id")
     public CityGetDto getCity(Long id) throws CityNotFoundException {
-        Optional<City> cityOptional = cityRepository.findById(id);
+        Optional<City> cityOptional = cityRepository.findDetailById(id);
         if (cityOptional.isEmpty()) {
             throw new CityNotFoundException(id + Message.CITY_NOT_FOUND);
         }
@@ -65,12 +88,13 @@ public class CityServiceImpl implements CityService {
             throw new CityAlreadyExistsException(Message.DUPLICATE_NAME + " " + city.name() + " " + Message.EXIST);
         }
         cityRepository.save(CityConverter.fromCreateDtoToModel(city));
+        cacheInvalidationService.evict(CachedEntity.CITY, null);
         return CityConverter.fromCreateDtoToDto(city);
 
     }
 
     @Override
-    @CachePut(cacheNames = "CityPatch", key = "#cityId")
+    @Transactional
     public void updateCity(long cityId, City city) throws CityNotFoundException {
         Optional<City> cityOptional = cityRepository.findById(cityId);
         if (cityOptional.isEmpty()) {
@@ -81,15 +105,19 @@ public class CityServiceImpl implements CityService {
             cityToUpdate.setName(city.getName());
         }
         cityRepository.save(cityToUpdate);
+        restaurantSummaryService.onCityRenamed(cityId, cityToUpdate.getName());
+        cacheInvalidationService.evict(CachedEntity.CITY, cityId);
     }
 
     @Override
-    @CacheEvict(cacheNames = "CityDelete", allEntries = true)
+    @Transactional
     public void deleteCity(long cityId) throws CityNotFoundException {
         boolean exists = cityRepository.existsById(cityId);
         if (!exists) {
             throw new CityNotFoundException(Message.CITY_WITH_ID + " " + cityId + " " + Message.NOT_EXIST);
         }
         cityRepository.deleteById(cityId);
+        restaurantSummaryService.onCityDeleted(cityId);
+        cacheInvalidationService.evict(CachedEntity.CITY, cityId);
     }
 }
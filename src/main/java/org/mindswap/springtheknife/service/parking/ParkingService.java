@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.service.parking;
+
+import org.mindswap.springtheknife.model.Parking;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ParkingService {
+
+    Mono<List<Parking.Record>> getParkingRecords(int limit);
+}
@@ -0,0 +1,60 @@
+package org.mindswap.springtheknife.service.parking;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
+import org.mindswap.springtheknife.model.Parking;
+import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.utils.StaleWhileRevalidateCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Proxies the parking upstream through a short-lived cache, so a burst of map views for the same limit
+ * costs one upstream call and a slow or failing upstream is answered with the last records it sent.
+ */
+@Service
+public class ParkingServiceImpl implements ParkingService {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final StaleWhileRevalidateCache<Integer, List<Parking.Record>> cache;
+
+    @Autowired
+    public ParkingServiceImpl(WebClient.Builder webClientBuilder,
+                              @Value("${theknife.parking.base-url:http://localhost:8081}") String baseUrl,
+                              @Value("${theknife.parking.timeout:PT2S}") Duration timeout,
+                              @Value("${theknife.parking.refresh-after:PT10S}") Duration refreshAfter,
+                              @Value("${theknife.parking.expire-after:PT1M}") Duration expireAfter,
+                              @Value("${theknife.parking.stale-if-error:PT10M}") Duration staleIfError,
+                              @Value("${theknife.parking.max-entries:64}") long maxEntries) {
+        this(webClientBuilder, baseUrl, timeout, refreshAfter, expireAfter, staleIfError, maxEntries, Ticker.systemTicker());
+    }
+
+    public ParkingServiceImpl(WebClient.Builder webClientBuilder, String baseUrl, Duration timeout, Duration refreshAfter,
+                              Duration expireAfter, Duration staleIfError, long maxEntries, Ticker ticker) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.timeout = timeout;
+        this.cache = new StaleWhileRevalidateCache<>(this::fetch, refreshAfter, expireAfter, staleIfError, maxEntries, ticker);
+    }
+
+    @Override
+    public Mono<List<Parking.Record>> getParkingRecords(int limit) {
+        return cache.get(limit)
+                .onErrorMap(e -> new UpstreamUnavailableException(Message.PARKING_UNAVAILABLE, e));
+    }
+
+    private Mono<List<Parking.Record>> fetch(Integer limit) {
+        return webClient.get()
+                .uri("/parking/{limit}", limit)
+                .retrieve()
+                .bodyToMono(Parking.class)
+                .map(parking -> parking.getResult().getRecords())
+                .timeout(timeout);
+    }
+}
@@ -0,0 +1,62 @@
+package org.mindswap.springtheknife.service.rating;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.model.UserExperience;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps a running rating sum and count per restaurant so that a review write only touches
+ * the restaurant it belongs to. Each change is applied as a single atomic UPDATE, and copied to the
+ * restaurant's summary in the same transaction.
+ */
+@Service
+public class RatingAggregationService {
+    private final RestaurantRepository restaurantRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryService restaurantSummaryService;
+
+    @Autowired
+    public RatingAggregationService(RestaurantRepository restaurantRepository, CacheInvalidationService cacheInvalidationService,
+                                    RestaurantSummaryService restaurantSummaryService) {
+        this.restaurantRepository = restaurantRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
+    }
+
+    public void onReviewAdded(UserExperience userExperience) {
+        if (isNotRated(userExperience)) {
+            return;
+        }
+        restaurantRepository.applyRatingDelta(userExperience.getRestaurant().getId(), userExperience.getRating(), 1);
+        restaurantSummaryService.onRatingChanged(userExperience.getRestaurant().getId());
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, userExperience.getRestaurant().getId());
+    }
+
+    public void onReviewRatingChanged(UserExperience userExperience, Double previousRating) {
+        if (isNotRated(userExperience) || previousRating == null || previousRating.equals(userExperience.getRating())) {
+            return;
+        }
+        restaurantRepository.applyRatingDelta(userExperience.getRestaurant().getId(), userExperience.getRating() - previousRating, 0);
+        restaurantSummaryService.onRatingChanged(userExperience.getRestaurant().getId());
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, userExperience.getRestaurant().getId());
+    }
+
+    public void onReviewRemoved(UserExperience userExperience) {
+        if (isNotRated(userExperience)) {
+            return;
+        }
+        restaurantRepository.applyRatingDelta(userExperience.getRestaurant().getId(), -userExperience.getRating(), -1);
+        restaurantSummaryService.onRatingChanged(userExperience.getRestaurant().getId());
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, userExperience.getRestaurant().getId());
+    }
+
+    private boolean isNotRated(UserExperience userExperience) {
+        return userExperience.getRestaurant() == null
+                || userExperience.getRestaurant().getId() == null
+                || userExperience.getRating() == null;
+    }
+}
@@ -1,32 +1,87 @@
 package org.mindswap.springtheknife.service.rating;
 
-import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.UserExperienceRepository;
+import org.mindswap.springtheknife.repository.UserExperienceRepository.RatingAggregate;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RatingUpdateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingUpdateService.class);
+    private static final int CHUNK_SIZE = 500;
+
     private final RestaurantRepository restaurantRepository;
+    private final UserExperienceRepository userExperienceRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryService restaurantSummaryService;
 
     @Autowired
-    public RatingUpdateService(RestaurantRepository restaurantRepository) {
+    public RatingUpdateService(RestaurantRepository restaurantRepository, UserExperienceRepository userExperienceRepository,
+                               CacheInvalidationService cacheInvalidationService, RestaurantSummaryService restaurantSummaryService) {
         this.restaurantRepository = restaurantRepository;
+        this.userExperienceRepository = userExperienceRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
     }
 
-    @Scheduled(fixedRate = 5000) //Current restaurant rating update in the server is happening every 5 seconds for demo
+    /**
+     * Full recompute of every restaurant rating from its reviews. Ratings are normally kept up to date by
+     * {@link RatingAggregationService}, so this only repairs drift and backfills restaurants created before
+     * the running sums existed. Disabled unless theknife.rating.reconciliation-cron is set.
+     */
+    @Scheduled(cron = "${theknife.rating.reconciliation-cron:-}")
     public void updateRestaurantRatings() {
-        List<Restaurant> allRestaurants = restaurantRepository.findAll();
-        for (Restaurant restaurant : allRestaurants) {
-            Double averageRating = restaurantRepository.findAverageRating(restaurant.getId());
-            if (averageRating == null) {
-                averageRating = 0.0;
+        List<RatingAggregate> aggregates = userExperienceRepository.findRatingAggregates();
+        for (RatingAggregate aggregate : aggregates) {
+            restaurantRepository.reconcileRating(aggregate.getRestaurantId(), aggregate.getRatingSum(), aggregate.getRatingCount());
+        }
+        restaurantRepository.resetUnratedRestaurants();
+        restaurantSummaryService.onRatingsReconciled();
+        cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+    }
+
+    /**
+     * Fills in the running sum and count of restaurants created before they existed. Their columns are null,
+     * which the incremental update would take as zero, so a first new review would replace the whole average.
+     * Runs once at startup, one chunk of restaurants at a time.
+     *
+     * @return the number of restaurants backfilled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillRatingSums() {
+        int backfilled = 0;
+        List<Long> ids;
+        while (!(ids = restaurantRepository.findIdsWithoutRatingSums(Limit.of(CHUNK_SIZE))).isEmpty()) {
+            Map<Long, RatingAggregate> aggregates = userExperienceRepository.findRatingAggregatesByRestaurantIds(ids).stream()
+                    .collect(Collectors.toMap(RatingAggregate::getRestaurantId, Function.identity()));
+            for (Long id : ids) {
+                RatingAggregate aggregate = aggregates.get(id);
+                restaurantRepository.reconcileRating(id, aggregate == null ? 0.0 : aggregate.getRatingSum(),
+                        aggregate == null ? 0L : aggregate.getRatingCount());
             }
-            restaurant.setRating(averageRating);
-            restaurantRepository.save(restaurant);
+            backfilled += ids.size();
+        }
+        if (backfilled > 0) {
+            restaurantSummaryService.onRatingsReconciled();
+            cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+            logger.info("Backfilled the rating sums of {} restaurants", backfilled);
         }
+        return backfilled;
     }
-}
\ No newline at end of file
+}
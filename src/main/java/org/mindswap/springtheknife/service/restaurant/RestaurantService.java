@@ -1,9 +1,16 @@
 package org.mindswap.springtheknife.service.restaurant;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
+import org.mindswap.springtheknife.dto.restaurant.NearbyRestaurantDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantSearchResultDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantWithImageDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.model.Restaurant;
@@ -15,6 +22,12 @@ public interface RestaurantService {
 
     List<RestaurantGetDto> getAllRestaurants(int pageNumber, int pageSize, String sortBy);
 
+    CursorPageDto<RestaurantGetDto> scrollRestaurants(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
+    List<NearbyRestaurantDto> findNearbyRestaurants(double latitude, double longitude, double radiusKm, int limit, Long cityId, Long restaurantTypeId) throws InvalidGeoQueryException;
+
+    List<RestaurantSearchResultDto> searchRestaurants(String query, int limit) throws InvalidSearchQueryException;
+
     RestaurantGetDto getRestaurant(Long id) throws RestaurantNotFoundException;
 
     Restaurant getById(Long id) throws RestaurantNotFoundException;
@@ -27,9 +40,9 @@ public interface RestaurantService {
 
     RestaurantGetDto patchRestaurant(Long id, RestaurantPatchDto restaurant) throws RestaurantNotFoundException;
 
-    RestaurantGetDto addRestaurantWithImage(RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException;
+    RestaurantWithImageDto addRestaurantWithImage(RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException;
 
-    List<RestaurantGetDto> addListOfRestaurantsWithImage(List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException;
+    List<RestaurantWithImageDto> addListOfRestaurantsWithImage(List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException;
 
     Double findAverageRating(Long restaurantId);
 }
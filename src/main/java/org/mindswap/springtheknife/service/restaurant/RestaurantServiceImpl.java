@@ -1,34 +1,56 @@
 package org.mindswap.springtheknife.service.restaurant;
 
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.RestaurantConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
+import org.mindswap.springtheknife.dto.restaurant.NearbyRestaurantDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantSearchResultDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantWithImageDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantSummary;
 import org.mindswap.springtheknife.model.RestaurantType;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
 import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mindswap.springtheknife.service.city.CityServiceImpl;
-import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService.GeoHit;
+import org.mindswap.springtheknife.service.restaurantimage.ImageBlobService;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageJobService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService.SearchHit;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class RestaurantServiceImpl implements RestaurantService {
@@ -40,36 +62,98 @@ public class RestaurantServiceImpl implements RestaurantService {
     private final RestaurantTypeServiceImpl restaurantTypeServiceImpl;
     private final RestaurantTypeRepository restaurantTypeRepository;
 
-    private final RestaurantImageService restaurantImageService;
+    private final RestaurantImageJobService restaurantImageJobService;
+
+    private final RestaurantGeoService restaurantGeoService;
+
+    private final RestaurantSearchService restaurantSearchService;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final RestaurantSummaryRepository restaurantSummaryRepository;
+
+    private final RestaurantSummaryService restaurantSummaryService;
+
+    private final ImageBlobService imageBlobService;
 
     @Autowired
-    public RestaurantServiceImpl(RestaurantRepository clientRepository, CityServiceImpl cityServiceImpl, RestaurantTypeServiceImpl restaurantTypeServiceImpl, RestaurantTypeRepository restaurantTypeRepository, RestaurantImageService restaurantImageService) {
+    public RestaurantServiceImpl(RestaurantRepository clientRepository, CityServiceImpl cityServiceImpl, RestaurantTypeServiceImpl restaurantTypeServiceImpl, RestaurantTypeRepository restaurantTypeRepository, RestaurantImageJobService restaurantImageJobService, RestaurantGeoService restaurantGeoService, RestaurantSearchService restaurantSearchService, CacheInvalidationService cacheInvalidationService, RestaurantSummaryRepository restaurantSummaryRepository, RestaurantSummaryService restaurantSummaryService, ImageBlobService imageBlobService) {
         this.restaurantRepository = clientRepository;
         this.cityServiceImpl = cityServiceImpl;
         this.restaurantTypeServiceImpl = restaurantTypeServiceImpl;
         this.restaurantTypeRepository = restaurantTypeRepository;
-        this.restaurantImageService = restaurantImageService;
+        this.restaurantImageJobService = restaurantImageJobService;
+        this.restaurantGeoService = restaurantGeoService;
+        this.restaurantSearchService = restaurantSearchService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryRepository = restaurantSummaryRepository;
+        this.restaurantSummaryService = restaurantSummaryService;
+        this.imageBlobService = imageBlobService;
     }
 
     @Override
-    @Cacheable(cacheNames = "Restaurant", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.RESTAURANT_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
     public List<RestaurantGetDto> getAllRestaurants(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
-        Page<Restaurant> pageRestaurants = restaurantRepository.findAll(pageRequest);
-        return pageRestaurants.stream()
-                .map(RestaurantConverter::fromModelToRestaurantDto)
-                .toList();
+        return toRestaurantDtos(restaurantSummaryRepository.findAllBy(pageRequest));
+    }
+
+    @Override
+    public CursorPageDto<RestaurantGetDto> scrollRestaurants(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<RestaurantSummary> window = restaurantSummaryRepository.findBy(KeysetCursor.decode(cursor, sortBy, RestaurantSummary.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(toRestaurantDtos(window.getContent()), KeysetCursor.encode(window));
     }
 
+    @Override
+    public List<NearbyRestaurantDto> findNearbyRestaurants(double latitude, double longitude, double radiusKm, int limit, Long cityId, Long restaurantTypeId) throws InvalidGeoQueryException {
+        List<GeoHit> hits = restaurantGeoService.findNearest(latitude, longitude, radiusKm, limit, cityId, restaurantTypeId);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, RestaurantSummary> summariesById = restaurantSummaryRepository.findAllById(hits.stream().map(GeoHit::restaurantId).toList()).stream()
+                .collect(Collectors.toMap(RestaurantSummary::getId, Function.identity()));
+        List<NearbyRestaurantDto> nearby = new ArrayList<>();
+        for (GeoHit hit : hits) {
+            RestaurantSummary summary = summariesById.get(hit.restaurantId());
+            if (summary != null) {
+                nearby.add(new NearbyRestaurantDto(hit.restaurantId(), hit.distanceKm(), RestaurantConverter.fromSummaryToRestaurantDto(summary)));
+            }
+        }
+        return nearby;
+    }
 
     @Override
-    @Cacheable(cacheNames = "RestaurantById", key = "#id" )
+    public List<RestaurantSearchResultDto> searchRestaurants(String query, int limit) throws InvalidSearchQueryException {
+        List<SearchHit> hits = restaurantSearchService.search(query, limit);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, RestaurantSummary> summariesById = restaurantSummaryRepository.findAllById(hits.stream().map(SearchHit::restaurantId).toList()).stream()
+                .collect(Collectors.toMap(RestaurantSummary::getId, Function.identity()));
+        List<RestaurantSearchResultDto> results = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            RestaurantSummary summary = summariesById.get(hit.restaurantId());
+            if (summary != null) {
+                results.add(new RestaurantSearchResultDto(hit.restaurantId(), hit.score(), RestaurantConverter.fromSummaryToRestaurantDto(summary)));
+            }
+        }
+        return results;
+    }
+
+    private List<RestaurantGetDto> toRestaurantDtos(List<RestaurantSummary> summaries) {
+        return summaries.stream().map(RestaurantConverter::fromSummaryToRestaurantDto).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.RESTAURANT_BY_ID, key = "#id")
     public RestaurantGetDto getRestaurant(Long id) throws RestaurantNotFoundException {
-        Optional<Restaurant> restaurantOptional = restaurantRepository.findById(id);
-        if (restaurantOptional.isEmpty()) {
+        Optional<RestaurantSummary> summaryOptional = restaurantSummaryRepository.findById(id);
+        if (summaryOptional.isEmpty()) {
             throw new RestaurantNotFoundException(id + Message.USER_ID_DOES_NOT_EXIST);
         }
-        return RestaurantConverter.fromModelToRestaurantDto(restaurantOptional.get());
+        return RestaurantConverter.fromSummaryToRestaurantDto(summaryOptional.get());
     }
 
     @Override
@@ -82,8 +166,9 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     @Override
+    @Transactional
     public RestaurantGetDto addRestaurant(RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
-        List<RestaurantType> restaurantTypes = restaurant.restaurantTypes().stream().map(restaurantTypeRepository::findById).filter(Optional::isPresent).map(Optional::get).toList();
+        List<RestaurantType> restaurantTypes = restaurantTypeRepository.findAllById(restaurant.restaurantTypes());
 
         Optional<City> cityOptional = Optional.ofNullable(this.cityServiceImpl.getCityById(restaurant.cityId()));
         if (cityOptional.isEmpty()) {
@@ -96,15 +181,18 @@ public class RestaurantServiceImpl implements RestaurantService {
 
         Restaurant newRestaurant = RestaurantConverter.fromRestaurantCreateDtoToEntity(restaurant, cityServiceImpl.getCityById(restaurant.cityId()), restaurantTypes);
         restaurantRepository.save(newRestaurant);
+        restaurantGeoService.index(newRestaurant);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, null);
 
-        return RestaurantConverter.fromModelToRestaurantDto(newRestaurant);
+        return RestaurantConverter.fromSummaryToRestaurantDto(restaurantSummaryService.refresh(newRestaurant.getId()));
     }
 
     @Override
+    @Transactional
     public List<RestaurantGetDto> addListOfRestaurants(List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
         List<RestaurantGetDto> newRestaurantsList = new ArrayList<>();
         for (RestaurantPostDto restaurantPostDto : restaurantList) {
-            List<RestaurantType> restaurantTypes = restaurantPostDto.restaurantTypes().stream().map(restaurantTypeRepository::findById).filter(Optional::isPresent).map(Optional::get).toList();
+            List<RestaurantType> restaurantTypes = restaurantTypeRepository.findAllById(restaurantPostDto.restaurantTypes());
             Optional<City> cityOptional = Optional.ofNullable(this.cityServiceImpl.getCityById(restaurantPostDto.cityId()));
             if (cityOptional.isEmpty()) {
                 throw new CityNotFoundException(restaurantPostDto.cityId() + Message.CITY_NOT_FOUND);
@@ -115,20 +203,28 @@ public class RestaurantServiceImpl implements RestaurantService {
             }
             Restaurant newRestaurant = RestaurantConverter.fromRestaurantCreateDtoToEntity(restaurantPostDto, cityServiceImpl.getCityById(restaurantPostDto.cityId()), restaurantTypes);
             restaurantRepository.save(newRestaurant);
-            newRestaurantsList.add(RestaurantConverter.fromModelToRestaurantDto(newRestaurant));
+            restaurantGeoService.index(newRestaurant);
+            newRestaurantsList.add(RestaurantConverter.fromSummaryToRestaurantDto(restaurantSummaryService.refresh(newRestaurant.getId())));
         }
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, null);
         return newRestaurantsList;
     }
 
     @Override
-    @CacheEvict(cacheNames = "RestaurantDelete", allEntries = true)
+    @Transactional
     public void deleteRestaurant(Long restaurantId) throws RestaurantNotFoundException {
-        restaurantRepository.findById(restaurantId).orElseThrow(() -> new RestaurantNotFoundException("Restaurant with id " + restaurantId + " not found."));
+        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow(() -> new RestaurantNotFoundException("Restaurant with id " + restaurantId + " not found."));
+        restaurant.getUsersWhoFavorited().forEach(user -> user.getFavoriteRestaurants().remove(restaurant));
+        List<String> imageHashes = imageBlobService.findContentHashes(restaurantId);
         restaurantRepository.deleteById(restaurantId);
+        imageBlobService.onImagesRemoved(imageHashes);
+        restaurantSummaryService.onRestaurantDeleted(restaurantId);
+        restaurantGeoService.remove(restaurantId);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
     }
 
     @Override
-    @CachePut(cacheNames = "RestaurantPatch", key="#id")
+    @Transactional
     public RestaurantGetDto patchRestaurant(Long id, RestaurantPatchDto restaurant) throws RestaurantNotFoundException {
         Restaurant dbRestaurant = restaurantRepository.findById(id).orElseThrow(() -> new RestaurantNotFoundException("Restaurant with id " + id + " not found."));
         if (restaurantRepository.findByEmail(restaurant.email()).isPresent()) {
@@ -140,12 +236,19 @@ public class RestaurantServiceImpl implements RestaurantService {
         if (restaurant.email() != null) {
             dbRestaurant.setEmail(restaurant.email());
         }
-        return RestaurantConverter.fromModelToRestaurantDto(restaurantRepository.save(dbRestaurant));
+        if (restaurant.slotCapacity() != null) {
+            dbRestaurant.setSlotCapacity(restaurant.slotCapacity());
+        }
+        Restaurant savedRestaurant = restaurantRepository.save(dbRestaurant);
+        restaurantGeoService.index(savedRestaurant);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, id);
+        return RestaurantConverter.fromSummaryToRestaurantDto(restaurantSummaryService.refresh(savedRestaurant.getId()));
     }
 
     @Override
-    public RestaurantGetDto addRestaurantWithImage(RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
-        List<RestaurantType> restaurantTypes = restaurant.restaurantTypes().stream().map(restaurantTypeRepository::findById).filter(Optional::isPresent).map(Optional::get).toList();
+    @Transactional
+    public RestaurantWithImageDto addRestaurantWithImage(RestaurantPostDto restaurant) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
+        List<RestaurantType> restaurantTypes = restaurantTypeRepository.findAllById(restaurant.restaurantTypes());
 
         Optional<City> cityOptional = Optional.ofNullable(this.cityServiceImpl.getCityById(restaurant.cityId()));
         if (cityOptional.isEmpty()) {
@@ -158,16 +261,19 @@ public class RestaurantServiceImpl implements RestaurantService {
 
         Restaurant newRestaurant = RestaurantConverter.fromRestaurantCreateDtoToEntity(restaurant, cityServiceImpl.getCityById(restaurant.cityId()), restaurantTypes);
         restaurantRepository.save(newRestaurant);
-        restaurantImageService.saveRestaurantImage(newRestaurant);
+        restaurantGeoService.index(newRestaurant);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, null);
 
-        return RestaurantConverter.fromModelToRestaurantDto(newRestaurant);
+        return new RestaurantWithImageDto(RestaurantConverter.fromSummaryToRestaurantDto(restaurantSummaryService.refresh(newRestaurant.getId())),
+                restaurantImageJobService.enqueue(newRestaurant));
     }
 
     @Override
-    public List<RestaurantGetDto> addListOfRestaurantsWithImage(List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
-        List<RestaurantGetDto> newRestaurantsList = new ArrayList<>();
+    @Transactional
+    public List<RestaurantWithImageDto> addListOfRestaurantsWithImage(List<RestaurantPostDto> restaurantList) throws RestaurantAlreadyExistsException, CityNotFoundException, IOException {
+        List<RestaurantWithImageDto> newRestaurantsList = new ArrayList<>();
         for (RestaurantPostDto restaurantPostDto : restaurantList) {
-            List<RestaurantType> restaurantTypes = restaurantPostDto.restaurantTypes().stream().map(restaurantTypeRepository::findById).filter(Optional::isPresent).map(Optional::get).toList();
+            List<RestaurantType> restaurantTypes = restaurantTypeRepository.findAllById(restaurantPostDto.restaurantTypes());
             Optional<City> cityOptional = Optional.ofNullable(this.cityServiceImpl.getCityById(restaurantPostDto.cityId()));
             if (cityOptional.isEmpty()) {
                 throw new CityNotFoundException(restaurantPostDto.cityId() + Message.CITY_NOT_FOUND);
@@ -179,15 +285,20 @@ public class RestaurantServiceImpl implements RestaurantService {
             Restaurant newRestaurant = RestaurantConverter.fromRestaurantCreateDtoToEntity(restaurantPostDto, cityServiceImpl.getCityById(restaurantPostDto.cityId()), restaurantTypes);
 
             restaurantRepository.save(newRestaurant);
-            restaurantImageService.saveRestaurantImage(newRestaurant);
+            restaurantGeoService.index(newRestaurant);
 
-            newRestaurantsList.add(RestaurantConverter.fromModelToRestaurantDto(newRestaurant));
+            newRestaurantsList.add(new RestaurantWithImageDto(RestaurantConverter.fromSummaryToRestaurantDto(restaurantSummaryService.refresh(newRestaurant.getId())),
+                    restaurantImageJobService.enqueue(newRestaurant)));
         }
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, null);
         return newRestaurantsList;
     }
 
     @Override
     public Double findAverageRating(Long restaurantId) {
-        return restaurantRepository.findAverageRating(restaurantId);
+        return restaurantSummaryRepository.findById(restaurantId)
+                .filter(summary -> summary.getReviewCount() > 0)
+                .map(RestaurantSummary::getRating)
+                .orElse(null);
     }
 }
@@ -0,0 +1,25 @@
+package org.mindswap.springtheknife.service.restaurantgeo;
+
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.model.Restaurant;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RestaurantGeoService {
+
+    List<GeoHit> findNearest(double latitude, double longitude, double radiusKm, int limit, Long cityId, Long restaurantTypeId) throws InvalidGeoQueryException;
+
+    void index(Restaurant restaurant);
+
+    void index(Long restaurantId, Double latitude, Double longitude, Long cityId, Collection<Long> restaurantTypeIds);
+
+    void remove(Long restaurantId);
+
+    void rebuild();
+
+    int size();
+
+    record GeoHit(Long restaurantId, double distanceKm) {
+    }
+}
@@ -0,0 +1,245 @@
+package org.mindswap.springtheknife.service.restaurantgeo;
+
+import jakarta.annotation.PostConstruct;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantType;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantLocation;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantTypeRow;
+import org.mindswap.springtheknife.utils.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory grid index over restaurant coordinates. The globe is cut into cells of a fixed number of
+ * degrees; a query walks the cells in rings around the query point and stops as soon as the next ring
+ * cannot hold anything closer than the current k-th hit or lies outside the radius. City and type
+ * filters are applied while scanning, so they never cost an extra lookup. Updates made inside a transaction
+ * are applied once it commits, so a rollback leaves the index as it was.
+ */
+@Service
+public class RestaurantGeoServiceImpl implements RestaurantGeoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantGeoServiceImpl.class);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final RestaurantRepository restaurantRepository;
+    private final double cellDegrees;
+    private final double maxRadiusKm;
+    private final int maxResults;
+    private final int latCells;
+    private final int lonCells;
+
+    private final Map<Long, Map<Long, GeoPoint>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, GeoPoint> pointsById = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RestaurantGeoServiceImpl(RestaurantRepository restaurantRepository,
+                                    @Value("${theknife.geo.cell-degrees:0.05}") double cellDegrees,
+                                    @Value("${theknife.geo.max-radius-km:50}") double maxRadiusKm,
+                                    @Value("${theknife.geo.max-results:100}") int maxResults) {
+        this.restaurantRepository = restaurantRepository;
+        this.cellDegrees = cellDegrees;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxResults = maxResults;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    @Override
+    @PostConstruct
+    public void rebuild() {
+        Map<Long, Set<Long>> typesByRestaurant = restaurantRepository.findAllTypeRows().stream()
+                .collect(Collectors.groupingBy(RestaurantTypeRow::getRestaurantId,
+                        Collectors.mapping(RestaurantTypeRow::getTypeId, Collectors.toSet())));
+        List<RestaurantLocation> locations = restaurantRepository.findRestaurantLocations();
+        cells.clear();
+        pointsById.clear();
+        for (RestaurantLocation location : locations) {
+            put(location.getId(), location.getLatitude(), location.getLongitude(), location.getCityId(),
+                    typesByRestaurant.getOrDefault(location.getId(), Set.of()));
+        }
+        logger.info("Geo index built with {} restaurants in {} cells", pointsById.size(), cells.size());
+    }
+
+    @Override
+    public List<GeoHit> findNearest(double latitude, double longitude, double radiusKm, int limit, Long cityId, Long restaurantTypeId) throws InvalidGeoQueryException {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidGeoQueryException(Message.INVALID_GEO_POINT);
+        }
+        if (!(radiusKm > 0) || radiusKm > maxRadiusKm) {
+            throw new InvalidGeoQueryException(Message.INVALID_GEO_RADIUS + maxRadiusKm + " km");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new InvalidGeoQueryException(Message.INVALID_GEO_LIMIT + maxResults);
+        }
+
+        int centerLat = latIndex(latitude);
+        int centerLon = lonIndex(longitude);
+        double radiusDegrees = radiusKm / KM_PER_DEGREE;
+        double widestLat = Math.min(Math.abs(latitude) + radiusDegrees, 89.9);
+        double cellLatKm = cellDegrees * KM_PER_DEGREE;
+        double cellLonKm = cellLatKm * Math.cos(Math.toRadians(widestLat));
+        int latRings = (int) Math.ceil(radiusDegrees / cellDegrees) + 1;
+        int lonRings = Math.min((int) Math.ceil(radiusKm / cellLonKm) + 1, (lonCells - 1) / 2);
+        double ringWidthKm = Math.min(cellLatKm, cellLonKm);
+
+        PriorityQueue<GeoHit> nearest = new PriorityQueue<>(Comparator.comparingDouble(GeoHit::distanceKm).reversed());
+        for (int ring = 0; ring <= Math.max(latRings, lonRings); ring++) {
+            double ringMinKm = Math.max(ring - 1, 0) * ringWidthKm;
+            if (ringMinKm > radiusKm || (nearest.size() == limit && ringMinKm > nearest.peek().distanceKm())) {
+                break;
+            }
+            for (int dLat = -Math.min(ring, latRings); dLat <= Math.min(ring, latRings); dLat++) {
+                int row = centerLat + dLat;
+                if (row < 0 || row >= latCells) {
+                    continue;
+                }
+                boolean edgeRow = Math.abs(dLat) == ring;
+                int lonSpan = Math.min(ring, lonRings);
+                for (int dLon = -lonSpan; dLon <= lonSpan; dLon += edgeRow || lonSpan == 0 ? 1 : 2 * lonSpan) {
+                    if (!edgeRow && Math.abs(dLon) != ring) {
+                        continue;
+                    }
+                    scan(cells.get(cellKey(row, Math.floorMod(centerLon + dLon, lonCells))),
+                            latitude, longitude, radiusKm, limit, cityId, restaurantTypeId, nearest);
+                }
+            }
+        }
+
+        List<GeoHit> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(GeoHit::distanceKm).thenComparing(GeoHit::restaurantId));
+        return hits;
+    }
+
+    private void scan(Map<Long, GeoPoint> cell, double latitude, double longitude, double radiusKm, int limit,
+                      Long cityId, Long restaurantTypeId, PriorityQueue<GeoHit> nearest) {
+        if (cell == null) {
+            return;
+        }
+        for (GeoPoint point : cell.values()) {
+            if ((cityId != null && !cityId.equals(point.cityId()))
+                    || (restaurantTypeId != null && !point.restaurantTypeIds().contains(restaurantTypeId))) {
+                continue;
+            }
+            double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (nearest.size() < limit) {
+                nearest.add(new GeoHit(point.restaurantId(), distance));
+            } else if (distance < nearest.peek().distanceKm()) {
+                nearest.poll();
+                nearest.add(new GeoHit(point.restaurantId(), distance));
+            }
+        }
+    }
+
+    @Override
+    public void index(Restaurant restaurant) {
+        List<Long> typeIds = restaurant.getRestaurantTypes() == null ? List.of()
+                : restaurant.getRestaurantTypes().stream().map(RestaurantType::getId).filter(Objects::nonNull).toList();
+        index(restaurant.getId(), restaurant.getLatitude(), restaurant.getLongitude(),
+                restaurant.getCity() == null ? null : restaurant.getCity().getId(), typeIds);
+    }
+
+    @Override
+    public void index(Long restaurantId, Double latitude, Double longitude, Long cityId, Collection<Long> restaurantTypeIds) {
+        if (restaurantId == null) {
+            return;
+        }
+        Set<Long> typeIds = Set.copyOf(restaurantTypeIds);
+        afterCommit(() -> put(restaurantId, latitude, longitude, cityId, typeIds));
+    }
+
+    @Override
+    public void remove(Long restaurantId) {
+        afterCommit(() -> unindex(restaurantId));
+    }
+
+    @Override
+    public int size() {
+        return pointsById.size();
+    }
+
+    private void put(Long restaurantId, Double latitude, Double longitude, Long cityId, Set<Long> restaurantTypeIds) {
+        if (latitude == null || longitude == null) {
+            unindex(restaurantId);
+            return;
+        }
+        GeoPoint point = new GeoPoint(restaurantId, latitude, longitude, cityId, restaurantTypeIds);
+        long key = cellKey(latIndex(latitude), lonIndex(longitude));
+        pointsById.compute(restaurantId, (id, previous) -> {
+            if (previous != null) {
+                removeFromCell(previous);
+            }
+            cells.compute(key, (k, cell) -> {
+                Map<Long, GeoPoint> target = cell == null ? new ConcurrentHashMap<>() : cell;
+                target.put(id, point);
+                return target;
+            });
+            return point;
+        });
+    }
+
+    private void unindex(Long restaurantId) {
+        pointsById.computeIfPresent(restaurantId, (id, previous) -> {
+            removeFromCell(previous);
+            return null;
+        });
+    }
+
+    private void removeFromCell(GeoPoint point) {
+        cells.computeIfPresent(cellKey(latIndex(point.latitude()), lonIndex(point.longitude())), (k, cell) -> {
+            cell.remove(point.restaurantId());
+            return cell.isEmpty() ? null : cell;
+        });
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min((int) Math.floor((latitude + 90) / cellDegrees), latCells - 1);
+    }
+
+    private int lonIndex(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), lonCells);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private record GeoPoint(Long restaurantId, double latitude, double longitude, Long cityId, Set<Long> restaurantTypeIds) {
+    }
+}
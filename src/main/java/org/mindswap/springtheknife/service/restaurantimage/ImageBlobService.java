@@ -0,0 +1,177 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import org.mindswap.springtheknife.model.ImageBlob;
+import org.mindswap.springtheknife.repository.ImageBlobRepository;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository;
+import org.mindswap.springtheknife.service.restaurantimage.ImageFileStore.StoredImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the image_blobs table in step with the content-addressed files of {@link ImageFileStore}. Every
+ * restaurant_image row with a hash holds a reference to its blob; a blob nobody references is deleted, file
+ * and derivatives included, by the collector once it has been untouched for theknife.image.blob-gc-grace.
+ * Generated blobs remember their prompt, so the same prompt within theknife.image.prompt-cache-ttl reuses
+ * the image instead of calling the txt2img backend again. Writers touch a blob's row before relying on its
+ * file, and the collector deletes the files while it holds the row it deletes, so a writer of the same bytes
+ * either keeps the blob alive or waits for the collection to finish and writes the file again.
+ */
+@Service
+public class ImageBlobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageBlobService.class);
+    private static final int COLLECT_CHUNK_SIZE = 100;
+
+    private final ImageBlobRepository imageBlobRepository;
+    private final RestaurantImageRepository restaurantImageRepository;
+    private final ImageDerivativeService imageDerivativeService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration promptCacheTtl;
+    private final Duration collectGrace;
+
+    @Autowired
+    public ImageBlobService(ImageBlobRepository imageBlobRepository, RestaurantImageRepository restaurantImageRepository,
+                            ImageDerivativeService imageDerivativeService, TransactionTemplate transactionTemplate,
+                            @Value("${theknife.image.prompt-cache-ttl:PT24H}") Duration promptCacheTtl,
+                            @Value("${theknife.image.blob-gc-grace:PT1H}") Duration collectGrace) {
+        this.imageBlobRepository = imageBlobRepository;
+        this.restaurantImageRepository = restaurantImageRepository;
+        this.imageDerivativeService = imageDerivativeService;
+        this.transactionTemplate = transactionTemplate;
+        this.promptCacheTtl = promptCacheTtl;
+        this.collectGrace = collectGrace;
+    }
+
+    /**
+     * Records a file staged by the store, or touches the blob already recording the same bytes, so the collector
+     * leaves it alone until the row that will reference it has committed. The file is to be published only after
+     * this returns: a collection of the same hash that was already under way has deleted its files by then.
+     */
+    public ImageBlob track(StoredImage stored, String prompt) {
+        try {
+            return transactionTemplate.execute(status -> touch(stored, prompt));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted the same hash first; its row is there now
+            return transactionTemplate.execute(status -> touch(stored, prompt));
+        }
+    }
+
+    private ImageBlob touch(StoredImage stored, String prompt) {
+        LocalDateTime now = LocalDateTime.now();
+        // An update, not a read: it waits for a collector deleting the same row and then matches nothing
+        if (imageBlobRepository.touch(stored.contentHash(), now) > 0) {
+            return imageBlobRepository.findById(stored.contentHash()).orElseThrow();
+        }
+        ImageBlob blob = ImageBlob.builder()
+                .contentHash(stored.contentHash())
+                .path(stored.path().toString())
+                .size(stored.size())
+                .prompt(prompt)
+                .createdAt(now)
+                .build();
+        blob.setTouchedAt(now);
+        return imageBlobRepository.saveAndFlush(blob);
+    }
+
+    /**
+     * Counts a new restaurant_image row; called in the transaction that writes it, which fails if the blob was
+     * collected in the meantime rather than reference a file that is gone.
+     */
+    public void onImageAdded(String contentHash) {
+        if (imageBlobRepository.addReference(contentHash, LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Image blob " + contentHash + " was collected before it was referenced");
+        }
+    }
+
+    /**
+     * The hashes to hand to {@link #onImagesRemoved} once the restaurant's images are deleted.
+     */
+    public List<String> findContentHashes(Long restaurantId) {
+        return restaurantImageRepository.findContentHashesByRestaurantId(restaurantId);
+    }
+
+    /**
+     * Recounts the blobs after rows were removed; ones left without references become collectable.
+     */
+    public void onImagesRemoved(Collection<String> contentHashes) {
+        if (!contentHashes.isEmpty()) {
+            imageBlobRepository.recountReferences(contentHashes);
+        }
+    }
+
+    /**
+     * A blob generated from the same prompt within the cache TTL whose file is still on disk, touched so the
+     * collector leaves it alone until the row that will reference it has committed.
+     */
+    public Optional<ImageBlob> findRecentGeneration(String prompt) {
+        if (promptCacheTtl.isZero() || promptCacheTtl.isNegative()) {
+            return Optional.empty();
+        }
+        return imageBlobRepository.findFirstByPromptAndCreatedAtAfterOrderByCreatedAtDesc(prompt, LocalDateTime.now().minus(promptCacheTtl))
+                .filter(blob -> touch(blob.getContentHash()) && Files.isRegularFile(Paths.get(blob.getPath())));
+    }
+
+    /**
+     * Recounts every blob first, so rows removed by cascades the services do not see are accounted for, then
+     * deletes the unreferenced blobs past the grace period. Each row is deleted only if it is still
+     * unreferenced and untouched at that moment, and its files are deleted before that delete commits.
+     */
+    @Scheduled(fixedDelayString = "${theknife.image.blob-gc-interval:PT1H}")
+    public int collectGarbage() {
+        transactionTemplate.executeWithoutResult(status -> imageBlobRepository.recountAllReferences());
+        LocalDateTime cutoff = LocalDateTime.now().minus(collectGrace);
+        int collected = 0;
+        List<ImageBlob> chunk;
+        do {
+            chunk = imageBlobRepository.findUnreferencedBefore(cutoff, Limit.of(COLLECT_CHUNK_SIZE));
+            for (ImageBlob blob : chunk) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> collect(blob, cutoff)))) {
+                    collected++;
+                }
+            }
+        } while (chunk.size() == COLLECT_CHUNK_SIZE);
+        if (collected > 0) {
+            logger.info("Collected {} unreferenced image blobs", collected);
+        }
+        return collected;
+    }
+
+    private boolean touch(String contentHash) {
+        Integer touched = transactionTemplate.execute(status -> imageBlobRepository.touch(contentHash, LocalDateTime.now()));
+        return touched != null && touched > 0;
+    }
+
+    private boolean collect(ImageBlob blob, LocalDateTime cutoff) {
+        if (imageBlobRepository.deleteIfUnreferenced(blob.getContentHash(), cutoff) == 0) {
+            return false;
+        }
+        // The deleted row stays locked until commit, so a writer of the same bytes cannot publish its file before this
+        deleteFiles(blob);
+        return true;
+    }
+
+    private void deleteFiles(ImageBlob blob) {
+        try {
+            Files.deleteIfExists(Paths.get(blob.getPath()));
+            imageDerivativeService.delete(blob.getContentHash());
+        } catch (IOException e) {
+            logger.warn("Could not delete the files of image blob {}", blob.getContentHash(), e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ImageDerivativeService {
+
+    /**
+     * Generates the derivatives of the image on the derivative pool once the current transaction commits.
+     */
+    void schedule(Long imageId, Path source);
+
+    /**
+     * Hashes the source, writes every configured width narrower than it and records the hash on the image.
+     *
+     * @return the content hash of the source
+     */
+    String generate(Long imageId, Path source) throws IOException;
+
+    /**
+     * The smallest derivative at least as wide as requested, or empty when only the original is that wide.
+     */
+    Optional<Derivative> find(String contentHash, int width);
+
+    /**
+     * Removes every derivative of the content, once no image has it any more.
+     */
+    void delete(String contentHash) throws IOException;
+
+    record Derivative(Path path, int width) {
+    }
+}
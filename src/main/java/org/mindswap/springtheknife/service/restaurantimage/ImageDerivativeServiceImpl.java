@@ -0,0 +1,277 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import jakarta.annotation.PreDestroy;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository.ImageLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes narrower JPEG copies of every restaurant image so list pages can fetch a card-sized file instead of
+ * the original. Derivatives live under theknife.image.derivative-root at {hash[0..2]}/{hash}/{width}.jpg,
+ * keyed by the SHA-256 of the source: identical sources share one set of files, a set that exists is never
+ * written again, and each file is renamed into place only once complete. The source is decoded once per
+ * image, on a small dedicated pool, off the upload and generation paths; a source of more than
+ * theknife.image.derivative-max-pixels is decoded subsampled, so its dimensions cannot exhaust the heap.
+ */
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeServiceImpl.class);
+    private static final int BACKFILL_CHUNK_SIZE = 100;
+
+    private final RestaurantImageRepository restaurantImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final List<Integer> widths;
+    private final float quality;
+    private final long maxPixels;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    public ImageDerivativeServiceImpl(RestaurantImageRepository restaurantImageRepository, TransactionTemplate transactionTemplate,
+                                      @Value("${theknife.image.derivative-root:src/main/imagefiles/derivatives}") String root,
+                                      @Value("${theknife.image.derivative-widths:160,320,640,1280}") List<Integer> widths,
+                                      @Value("${theknife.image.derivative-quality:0.8}") float quality,
+                                      @Value("${theknife.image.derivative-workers:2}") int workers,
+                                      @Value("${theknife.image.derivative-queue-capacity:200}") int queueCapacity,
+                                      @Value("${theknife.image.derivative-max-pixels:50000000}") long maxPixels) {
+        this.restaurantImageRepository = restaurantImageRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.root = Paths.get(root);
+        this.widths = widths.stream().sorted().distinct().toList();
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(workers);
+        this.executor.setMaxPoolSize(workers);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("image-derivative-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void schedule(Long imageId, Path source) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(imageId, source);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(imageId, source);
+            }
+        });
+    }
+
+    /**
+     * Derives the images whose derivatives were never recorded: stored before derivatives existed, or whose task
+     * was dropped by a full queue, failed, or was still pending at shutdown.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long afterId = 0;
+        List<ImageLocation> images;
+        while (!(images = restaurantImageRepository.findUnderivedImagesAfter(afterId, Limit.of(BACKFILL_CHUNK_SIZE))).isEmpty()) {
+            for (ImageLocation image : images) {
+                if (image.getImagePath() != null && Files.isRegularFile(Paths.get(image.getImagePath()))) {
+                    submit(image.getId(), Paths.get(image.getImagePath()));
+                }
+            }
+            afterId = images.getLast().getId();
+        }
+    }
+
+    @Override
+    public String generate(Long imageId, Path source) throws IOException {
+        String contentHash = hash(source);
+        Path directory = directory(contentHash);
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException(source + " is not a readable image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                // Only widths narrower than the source are written, so a source that has them all is not decoded again
+                List<Integer> missing = widths.stream()
+                        .filter(width -> width < sourceWidth && !Files.exists(directory.resolve(width + ".jpg")))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    BufferedImage original = reader.read(0, readParam(reader, sourceWidth, sourceHeight));
+                    Files.createDirectories(directory);
+                    for (int width : missing) {
+                        write(scale(original, width), directory.resolve(width + ".jpg"));
+                    }
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+        if (imageId != null) {
+            transactionTemplate.executeWithoutResult(status -> restaurantImageRepository.markDerived(imageId, contentHash, LocalDateTime.now()));
+        }
+        return contentHash;
+    }
+
+    @Override
+    public Optional<Derivative> find(String contentHash, int width) {
+        Path directory = directory(contentHash);
+        for (int candidate : widths) {
+            if (candidate >= width) {
+                Path path = directory.resolve(candidate + ".jpg");
+                if (Files.isRegularFile(path)) {
+                    return Optional.of(new Derivative(path, candidate));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void delete(String contentHash) throws IOException {
+        Path directory = directory(contentHash);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private void submit(Long imageId, Path source) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId, source);
+                } catch (Exception e) {
+                    logger.warn("Derivatives of image {} failed", imageId, e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("Derivative queue full, image {} is derived at the next startup", imageId);
+        }
+    }
+
+    /**
+     * Reads every n-th pixel of every n-th row, with n the smallest step that keeps the decoded image within
+     * the pixel limit; the reader then never holds more than that, whatever the dimensions of the source.
+     */
+    private ImageReadParam readParam(ImageReader reader, int sourceWidth, int sourceHeight) {
+        ImageReadParam param = reader.getDefaultReadParam();
+        double pixels = (double) sourceWidth * sourceHeight;
+        if (pixels > maxPixels) {
+            int step = (int) Math.ceil(Math.sqrt(pixels / maxPixels));
+            param.setSourceSubsampling(step, step, 0, 0);
+        }
+        return param;
+    }
+
+    private Path directory(String contentHash) {
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash);
+    }
+
+    private static String hash(Path source) throws IOException {
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), MessageDigest.getInstance("SHA-256"))) {
+            in.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) in).getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Halves the image with bilinear filtering until one more step would overshoot, then scales to the exact
+     * width: a single bilinear step from a much larger image drops most of its pixels and aliases.
+     */
+    private static BufferedImage scale(BufferedImage original, int width) {
+        BufferedImage current = original;
+        int currentWidth = original.getWidth();
+        int currentHeight = original.getHeight();
+        int height = Math.max(1, Math.round((float) original.getHeight() * width / original.getWidth()));
+        do {
+            boolean last = currentWidth / 2 <= width;
+            currentWidth = last ? width : currentWidth / 2;
+            currentHeight = last ? height : Math.max(1, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, currentWidth, currentHeight);
+            graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            graphics.dispose();
+            current = step;
+        } while (currentWidth != width);
+        return current;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import org.mindswap.springtheknife.Enum.ImageFormat;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
+import org.mindswap.springtheknife.utils.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Writes images to disk as they arrive. The stream goes through a fixed buffer into a temp file of its own,
+ * hashed on the way, and is renamed to {hash[0..2]}/{hash}.{extension} under theknife.image.blob-root only once
+ * complete: concurrent writes never collide, a reader never sees half a file, the image is never held in
+ * memory, and the same bytes written twice end up as one file. The format is taken from the first bytes, so
+ * anything that is not an image is refused before it is written. Callers that record the hash elsewhere stage
+ * the file first and publish it once recorded.
+ */
+@Service
+public class ImageFileStore {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final long maxSize;
+
+    @Autowired
+    public ImageFileStore(@Value("${theknife.image.blob-root:src/main/imagefiles/blobs}") String root,
+                          @Value("${theknife.image.max-upload-size:25MB}") DataSize maxSize) {
+        this.root = Paths.get(root);
+        this.maxSize = maxSize.toBytes();
+    }
+
+    public StoredImage write(InputStream content) throws IOException, InvalidImageException, ImageTooLargeException {
+        try (StagedImage staged = stage(content)) {
+            return staged.publish();
+        }
+    }
+
+    /**
+     * Writes and hashes the image without putting it in place yet, so the caller can record the hash first;
+     * closing a staged image that was not published deletes its temp file.
+     */
+    public StagedImage stage(InputStream content) throws IOException, InvalidImageException, ImageTooLargeException {
+        byte[] header = content.readNBytes(ImageFormat.HEADER_LENGTH);
+        ImageFormat format = ImageFormat.detect(header)
+                .orElseThrow(() -> new InvalidImageException(Message.INVALID_IMAGE_TYPE));
+
+        Files.createDirectories(root);
+        Path temp = Files.createTempFile(root, "upload-", ".tmp");
+        StagedImage staged = null;
+        try {
+            MessageDigest digest = sha256();
+            long size = header.length;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                digest.update(header);
+                out.write(header);
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new ImageTooLargeException(Message.IMAGE_TOO_LARGE + DataSize.ofBytes(maxSize).toMegabytes() + "MB");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+            Path target = root.resolve(contentHash.substring(0, 2)).resolve(contentHash + "." + format.getExtension());
+            staged = new StagedImage(temp, new StoredImage(target, contentHash, size, format));
+            return staged;
+        } finally {
+            if (staged == null) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record StoredImage(Path path, String contentHash, long size, ImageFormat format) {
+    }
+
+    public static final class StagedImage implements AutoCloseable {
+
+        private final Path temp;
+        private final StoredImage image;
+
+        private StagedImage(Path temp, StoredImage image) {
+            this.temp = temp;
+            this.image = image;
+        }
+
+        public StoredImage image() {
+            return image;
+        }
+
+        public StoredImage publish() throws IOException {
+            Files.createDirectories(image.path().getParent());
+            // Same name means same bytes, so replacing an existing file changes nothing a reader can see
+            Files.move(temp, image.path(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return image;
+        }
+
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
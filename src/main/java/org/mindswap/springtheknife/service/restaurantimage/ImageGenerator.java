@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import reactor.core.publisher.Mono;
+
+public interface ImageGenerator {
+
+    /**
+     * Emits the encoded image for the prompt. Slow: callers should wait for it off the request thread.
+     */
+    Mono<byte[]> generate(String prompt);
+}
@@ -0,0 +1,16 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.model.Restaurant;
+
+public interface RestaurantImageJobService {
+
+    RestaurantImageJobDto enqueue(Restaurant restaurant);
+
+    RestaurantImageJobDto getJob(Long restaurantId) throws ImageJobNotFoundException;
+
+    void dispatchDueJobs();
+
+    void runJob(Long jobId);
+}
@@ -0,0 +1,179 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import jakarta.annotation.PreDestroy;
+import org.mindswap.springtheknife.Enum.ImageJobStatus;
+import org.mindswap.springtheknife.converter.RestaurantImageJobConverter;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantImageJob;
+import org.mindswap.springtheknife.repository.RestaurantImageJobRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.utils.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates restaurant images off the request thread. Jobs are persisted first and then handed to a fixed
+ * worker pool with a bounded queue; when the queue is full the job simply stays PENDING in the table and the
+ * sweeper offers it again later, so producers never block. Failed attempts are retried with exponential
+ * backoff up to theknife.image.max-attempts.
+ */
+@Service
+public class RestaurantImageJobServiceImpl implements RestaurantImageJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantImageJobServiceImpl.class);
+
+    private final RestaurantImageJobRepository restaurantImageJobRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantImageService restaurantImageService;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long jobTimeoutSeconds;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public RestaurantImageJobServiceImpl(RestaurantImageJobRepository restaurantImageJobRepository, RestaurantRepository restaurantRepository,
+                                         RestaurantImageService restaurantImageService,
+                                         @Value("${theknife.image.workers:2}") int workers,
+                                         @Value("${theknife.image.queue-capacity:50}") int queueCapacity,
+                                         @Value("${theknife.image.max-attempts:4}") int maxAttempts,
+                                         @Value("${theknife.image.retry-backoff-seconds:30}") long retryBackoffSeconds,
+                                         @Value("${theknife.image.job-timeout-seconds:300}") long jobTimeoutSeconds) {
+        this.restaurantImageJobRepository = restaurantImageJobRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.restaurantImageService = restaurantImageService;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.jobTimeoutSeconds = jobTimeoutSeconds;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(workers);
+        this.executor.setMaxPoolSize(workers);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("image-job-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public RestaurantImageJobDto enqueue(Restaurant restaurant) {
+        LocalDateTime now = LocalDateTime.now();
+        RestaurantImageJob job = restaurantImageJobRepository.findByRestaurantId(restaurant.getId())
+                .orElseGet(() -> RestaurantImageJob.builder().restaurantId(restaurant.getId()).createdAt(now).build());
+        job.setStatus(ImageJobStatus.PENDING);
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setNextAttemptAt(now);
+        job.setUpdatedAt(now);
+        RestaurantImageJob saved = restaurantImageJobRepository.save(job);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(saved.getId());
+                }
+            });
+        } else {
+            submit(saved.getId());
+        }
+        return RestaurantImageJobConverter.fromModelToRestaurantImageJobDto(saved);
+    }
+
+    @Override
+    public RestaurantImageJobDto getJob(Long restaurantId) throws ImageJobNotFoundException {
+        return restaurantImageJobRepository.findByRestaurantId(restaurantId)
+                .map(RestaurantImageJobConverter::fromModelToRestaurantImageJobDto)
+                .orElseThrow(() -> new ImageJobNotFoundException(restaurantId + Message.IMAGE_JOB_NOT_FOUND));
+    }
+
+    /**
+     * Offers due jobs to the pool: new jobs that did not fit in the queue, retries whose backoff elapsed and
+     * RUNNING jobs whose worker died. Only as many as there is room for are read.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${theknife.image.sweep-interval:PT10S}")
+    public void dispatchDueJobs() {
+        int room = executor.getQueueCapacity() - executor.getQueueSize() + executor.getMaxPoolSize() - executor.getActiveCount();
+        if (room <= 0) {
+            return;
+        }
+        for (Long jobId : restaurantImageJobRepository.findDueJobIds(LocalDateTime.now(), Limit.of(room))) {
+            if (!submit(jobId)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void runJob(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (restaurantImageJobRepository.claim(jobId, now, now.plusSeconds(jobTimeoutSeconds)) == 0) {
+            return;
+        }
+        RestaurantImageJob job = restaurantImageJobRepository.findById(jobId).orElseThrow();
+        Optional<Restaurant> restaurant = restaurantRepository.findCardById(job.getRestaurantId());
+        if (restaurant.isEmpty()) {
+            finish(job, ImageJobStatus.FAILED, job.getRestaurantId() + Message.NOT_EXIST, LocalDateTime.now());
+            return;
+        }
+        try {
+            restaurantImageService.saveRestaurantImage(restaurant.get());
+            finish(job, ImageJobStatus.DONE, null, LocalDateTime.now());
+        } catch (Exception e) {
+            logger.warn("Image job " + jobId + " attempt " + job.getAttempts() + " failed: " + e);
+            if (job.getAttempts() >= maxAttempts) {
+                finish(job, ImageJobStatus.FAILED, e.toString(), LocalDateTime.now());
+            } else {
+                long backoff = retryBackoffSeconds << (job.getAttempts() - 1);
+                finish(job, ImageJobStatus.PENDING, e.toString(), LocalDateTime.now().plusSeconds(backoff));
+            }
+        }
+    }
+
+    private void finish(RestaurantImageJob job, ImageJobStatus status, String error, LocalDateTime nextAttemptAt) {
+        job.setStatus(status);
+        job.setLastError(error == null ? null : error.substring(0, Math.min(error.length(), 500)));
+        job.setNextAttemptAt(nextAttemptAt);
+        job.setUpdatedAt(LocalDateTime.now());
+        restaurantImageJobRepository.save(job);
+    }
+
+    private boolean submit(Long jobId) {
+        if (!inFlight.add(jobId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    runJob(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobId);
+            return false;
+        }
+    }
+}
@@ -1,15 +1,35 @@
 package org.mindswap.springtheknife.service.restaurantimage;
 
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageDto;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
 import org.mindswap.springtheknife.model.Restaurant;
 import org.mindswap.springtheknife.model.RestaurantImage;
+import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 
 public interface RestaurantImageService {
 
     RestaurantImage saveRestaurantImage(Restaurant restaurant) throws IOException;
     void uploadFile(MultipartFile file) throws Exception;
     void uploadFileWithId(MultipartFile file, Long id) throws Exception;
+
+    RestaurantImageDto uploadImage(Long restaurantId, InputStream content)
+            throws RestaurantNotFoundException, InvalidImageException, ImageTooLargeException, IOException;
+
+    /**
+     * The file of the restaurant's primary image, with what a response needs to validate and cache it.
+     *
+     * @param width the width the client displays the image at, or null for the original
+     */
+    ImageFile getImageFile(Long restaurantId, Integer width) throws ImageNotFoundException;
+
+    record ImageFile(Path path, long contentLength, long lastModified, String eTag, MediaType mediaType) {
+    }
 }
@@ -1,83 +1,182 @@
 package org.mindswap.springtheknife.service.restaurantimage;
 
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageDto;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
+import org.mindswap.springtheknife.model.ImageBlob;
 import org.mindswap.springtheknife.model.Restaurant;
 import org.mindswap.springtheknife.model.RestaurantImage;
 import org.mindswap.springtheknife.repository.RestaurantImageRepository;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository.ImageLocation;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.service.restaurantimage.ImageDerivativeService.Derivative;
+import org.mindswap.springtheknife.service.restaurantimage.ImageFileStore.StagedImage;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
 
 @Service
 public class RestaurantImageServiceImpl implements RestaurantImageService {
 
-    private static final String UPLOAD_PATH = "src/main/imagefiles/";
     private final RestaurantImageRepository restaurantImageRepository;
     private final RestaurantRepository restaurantRepository;
+    private final ImageGenerator imageGenerator;
+    private final RestaurantSummaryService restaurantSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageFileStore imageFileStore;
+    private final ImageBlobService imageBlobService;
 
     @Autowired
-    public RestaurantImageServiceImpl(RestaurantImageRepository restaurantImageRepository, RestaurantRepository restaurantRepository) {
+    public RestaurantImageServiceImpl(RestaurantImageRepository restaurantImageRepository, RestaurantRepository restaurantRepository, ImageGenerator imageGenerator,
+                                      RestaurantSummaryService restaurantSummaryService, TransactionTemplate transactionTemplate,
+                                      ImageDerivativeService imageDerivativeService, ImageFileStore imageFileStore,
+                                      ImageBlobService imageBlobService) {
         this.restaurantImageRepository = restaurantImageRepository;
         this.restaurantRepository = restaurantRepository;
+        this.imageGenerator = imageGenerator;
+        this.restaurantSummaryService = restaurantSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.imageDerivativeService = imageDerivativeService;
+        this.imageFileStore = imageFileStore;
+        this.imageBlobService = imageBlobService;
     }
 
+    /**
+     * Reuses the image of a recent generation from the same prompt when there is one; otherwise generates it
+     * outside the transaction, so only the writes hold a connection.
+     */
     @Override
     public RestaurantImage saveRestaurantImage(Restaurant restaurant) throws IOException {
-        RestaurantImage restaurantImage = new RestaurantImage();
-        String prompt = restaurant.getRestaurantTypes().getFirst().getType() + "restaurant facade";
-        byte[] image = restaurantImage.convertToByteArray(prompt);
+        String prompt = restaurant.getRestaurantTypes() == null || restaurant.getRestaurantTypes().isEmpty()
+                ? "restaurant facade"
+                : restaurant.getRestaurantTypes().getFirst().getType() + " restaurant facade";
+        Optional<ImageBlob> cached = imageBlobService.findRecentGeneration(prompt);
+        ImageBlob blob = cached.isPresent() ? cached.get() : generate(prompt);
 
-        restaurantImage.setRestaurant(restaurant);
-        restaurantImage.setImages(image);
-        restaurantImage.setImagePath(restaurantImage.createImageFile(restaurant.getId()));
+        return transactionTemplate.execute(status -> save(restaurant.getId(), blob.getContentHash(), Paths.get(blob.getPath())));
+    }
 
-        return restaurantImageRepository.save(restaurantImage);
+    private ImageBlob generate(String prompt) throws IOException {
+        // Job workers are the blocking boundary: the response streams and decodes on the client's event loop
+        byte[] image = imageGenerator.generate(prompt).block();
+        if (image == null) {
+            throw new IOException("No image generated for: " + prompt);
+        }
+        try {
+            return store(new ByteArrayInputStream(image), prompt);
+        } catch (InvalidImageException | ImageTooLargeException e) {
+            throw new IOException("Generated image rejected: " + e.getMessage(), e);
+        }
     }
 
     @Override
     public void uploadFile(MultipartFile file) throws Exception {
         if (file.isEmpty()) {
-            throw new Exception("Empty file");
+            throw new InvalidImageException(Message.INVALID_IMAGE_TYPE);
         }
-
-        Path uploadPath = Paths.get(UPLOAD_PATH);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        ImageBlob blob;
+        try (InputStream content = file.getInputStream()) {
+            blob = store(content, null);
         }
-
-        Path filePath = uploadPath.resolve("usr_img.jpg");
-        Files.copy(file.getInputStream(), filePath);
-
-        // You can do additional processing or save the file path to a database here
-        RestaurantImage restaurantImage = new RestaurantImage();
-        restaurantImage.setImagePath(filePath.toString());
-        restaurantImageRepository.save(restaurantImage);
+        transactionTemplate.execute(status -> save(null, blob.getContentHash(), Paths.get(blob.getPath())));
     }
 
     @Override
     public void uploadFileWithId(MultipartFile file, Long id) throws Exception {
         if (file.isEmpty()) {
-            throw new Exception("Empty file");
+            throw new InvalidImageException(Message.INVALID_IMAGE_TYPE);
         }
+        try (InputStream content = file.getInputStream()) {
+            uploadImage(id, content);
+        }
+    }
 
-        Path uploadPath = Paths.get(UPLOAD_PATH + "/" + id + "/");
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+    /**
+     * Streams the image to disk before touching the database, so a slow or large upload never holds a
+     * connection. The file may already be shared with other images, so it is never deleted here: if the row
+     * cannot be written, the blob stays unreferenced and the collector removes it.
+     */
+    @Override
+    public RestaurantImageDto uploadImage(Long restaurantId, InputStream content)
+            throws RestaurantNotFoundException, InvalidImageException, ImageTooLargeException, IOException {
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new RestaurantNotFoundException(restaurantId + Message.NOT_EXIST);
         }
+        ImageBlob blob = store(content, null);
+        RestaurantImage saved = transactionTemplate.execute(status -> save(restaurantId, blob.getContentHash(), Paths.get(blob.getPath())));
+        return new RestaurantImageDto(saved.getId(), restaurantId, blob.getContentHash(), blob.getSize());
+    }
 
-        Path filePath = uploadPath.resolve("usr_img.jpg");
-        Files.copy(file.getInputStream(), filePath);
+    /**
+     * Records the blob before its file is put in place, so a collection of the same hash can never delete the
+     * file this writer is about to reference.
+     */
+    private ImageBlob store(InputStream content, String prompt) throws IOException, InvalidImageException, ImageTooLargeException {
+        try (StagedImage staged = imageFileStore.stage(content)) {
+            ImageBlob blob = imageBlobService.track(staged.image(), prompt);
+            staged.publish();
+            return blob;
+        }
+    }
 
-        Restaurant restToAdd = restaurantRepository.findById(id).orElseThrow(() -> new RestaurantNotFoundException("Restaurant with id " + id + " not found."));
+    private RestaurantImage save(Long restaurantId, String contentHash, Path path) {
         RestaurantImage restaurantImage = new RestaurantImage();
-        restaurantImage.setImagePath(filePath.toString());
-        restaurantImage.setRestaurant(restToAdd);
+        restaurantImage.setImagePath(path.toString());
+        restaurantImage.setContentHash(contentHash);
+        if (restaurantId != null) {
+            restaurantImage.setRestaurant(restaurantRepository.getReferenceById(restaurantId));
+        }
         restaurantImageRepository.save(restaurantImage);
+        imageBlobService.onImageAdded(contentHash);
+        if (restaurantId != null) {
+            restaurantSummaryService.onImageAdded(restaurantId, restaurantImage.getImagePath());
+        }
+        imageDerivativeService.schedule(restaurantImage.getId(), path);
+        return restaurantImage;
+    }
+
+    @Override
+    public ImageFile getImageFile(Long restaurantId, Integer width) throws ImageNotFoundException {
+        List<ImageLocation> images = restaurantImageRepository.findImageLocationsByRestaurantId(restaurantId, Limit.of(1));
+        if (images.isEmpty() || images.getFirst().getImagePath() == null) {
+            throw new ImageNotFoundException(restaurantId + Message.IMAGE_NOT_FOUND);
+        }
+        ImageLocation image = images.getFirst();
+        Optional<Derivative> derivative = width == null || image.getContentHash() == null
+                ? Optional.empty()
+                : imageDerivativeService.find(image.getContentHash(), width);
+        Path path = derivative.map(Derivative::path).orElse(Paths.get(image.getImagePath())).normalize();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new ImageNotFoundException(restaurantId + Message.IMAGE_NOT_FOUND);
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // Image files are written once, so size and modification time identify the content until it is hashed
+        String eTag = image.getContentHash() == null
+                ? "\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\""
+                : "\"" + image.getContentHash() + derivative.map(d -> "-" + d.width()).orElse("") + "\"";
+        MediaType mediaType = MediaTypeFactory.getMediaType(path.getFileName().toString()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return new ImageFile(path, attributes.size(), lastModified, eTag, mediaType);
     }
 }
@@ -0,0 +1,121 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.mindswap.springtheknife.utils.Base64JsonFieldDecoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Calls the txt2img backend through one WebClient on a fixed pool of keep-alive connections. The response is
+ * never buffered: images[0] is picked out of the JSON and base64-decoded as the body streams in, so the
+ * decoded image is the only copy held. Connection failures and 502/503/504 are retried with backoff; a
+ * request that was answered otherwise is not, since each one costs a full generation.
+ */
+@Component
+@ConditionalOnProperty(name = "theknife.image.generator", havingValue = "stable-diffusion", matchIfMissing = true)
+public class StableDiffusionImageGenerator implements ImageGenerator {
+
+    private static final String TXT2IMG_PATH = "/sdapi/v1/txt2img";
+    // Below the backend's keep-alive of 5s, so an idle connection is closed here before it is closed there
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(4);
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final int steps;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final int maxImageSize;
+
+    @Autowired
+    public StableDiffusionImageGenerator(WebClient.Builder webClientBuilder,
+                                         @Value("${theknife.txt2img.base-url:http://127.0.0.1:7860}") String baseUrl,
+                                         @Value("${theknife.txt2img.steps:15}") int steps,
+                                         @Value("${theknife.txt2img.max-connections:4}") int maxConnections,
+                                         @Value("${theknife.txt2img.connect-timeout:PT5S}") Duration connectTimeout,
+                                         @Value("${theknife.txt2img.response-timeout:PT2M}") Duration responseTimeout,
+                                         @Value("${theknife.txt2img.max-retries:2}") int maxRetries,
+                                         @Value("${theknife.txt2img.retry-backoff:PT1S}") Duration retryBackoff,
+                                         @Value("${theknife.txt2img.max-image-size:25MB}") DataSize maxImageSize) {
+        this.connectionProvider = ConnectionProvider.builder("txt2img")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(responseTimeout)
+                .maxIdleTime(MAX_IDLE_TIME)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.steps = steps;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxImageSize = (int) Math.min(maxImageSize.toBytes(), Integer.MAX_VALUE - 8);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+
+    @Override
+    public Mono<byte[]> generate(String prompt) {
+        return webClient.post()
+                .uri(TXT2IMG_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("prompt", prompt, "steps", steps))
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    Base64JsonFieldDecoder decoder = new Base64JsonFieldDecoder("images", maxImageSize,
+                            response.headers().contentLength().orElse(-1));
+                    // The rest of the body is still read, so the connection goes back to the pool
+                    return response.bodyToFlux(DataBuffer.class)
+                            .doOnNext(buffer -> {
+                                try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                                    while (chunks.hasNext()) {
+                                        decoder.feed(chunks.next());
+                                    }
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                            })
+                            .then(Mono.fromCallable(decoder::finish));
+                })
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .filter(StableDiffusionImageGenerator::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof WebClientRequestException) {
+            return true;
+        }
+        return e instanceof WebClientResponseException response
+                && (response.getStatusCode().isSameCodeAs(HttpStatus.BAD_GATEWAY)
+                || response.getStatusCode().isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                || response.getStatusCode().isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT));
+    }
+}
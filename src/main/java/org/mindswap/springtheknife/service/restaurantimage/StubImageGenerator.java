@@ -0,0 +1,38 @@
+package org.mindswap.springtheknife.service.restaurantimage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Local stand-in for the txt2img backend: a flat PNG coloured from the prompt, returned immediately.
+ */
+@Component
+@ConditionalOnProperty(name = "theknife.image.generator", havingValue = "stub")
+public class StubImageGenerator implements ImageGenerator {
+
+    private static final int SIZE = 64;
+
+    @Override
+    public Mono<byte[]> generate(String prompt) {
+        return Mono.fromCallable(() -> render(prompt));
+    }
+
+    private static byte[] render(String prompt) throws IOException {
+        BufferedImage image = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(prompt.hashCode() & 0xFFFFFF));
+        graphics.fillRect(0, 0, SIZE, SIZE);
+        graphics.dispose();
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.mindswap.springtheknife.service.restaurantimport;
+
+import org.mindswap.springtheknife.dto.restaurant.RestaurantImportReportDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+
+import java.util.List;
+
+public interface RestaurantImportService {
+
+    RestaurantImportReportDto importRestaurants(List<RestaurantPostDto> restaurantList, Integer chunkSize);
+}
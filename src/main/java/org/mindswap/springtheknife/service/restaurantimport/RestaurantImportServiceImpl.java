@@ -0,0 +1,200 @@
+package org.mindswap.springtheknife.service.restaurantimport;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.Enum.RestaurantImportStatus;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantImportReportDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantImportRowDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantBatchRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.Message;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports restaurants in chunks. Each chunk runs in its own transaction: cities, types and existing
+ * emails/phone numbers are resolved with one IN query each, then the accepted rows are written with
+ * JDBC batches. Rejected rows are reported instead of aborting the import. Rows of a committed chunk
+ * are added to the geo index.
+ */
+@Service
+public class RestaurantImportServiceImpl implements RestaurantImportService {
+
+    private final RestaurantBatchRepository restaurantBatchRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final CityRepository cityRepository;
+    private final RestaurantTypeRepository restaurantTypeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final RestaurantGeoService restaurantGeoService;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryService restaurantSummaryService;
+    private final int defaultChunkSize;
+
+    @Autowired
+    public RestaurantImportServiceImpl(RestaurantBatchRepository restaurantBatchRepository, RestaurantRepository restaurantRepository,
+                                       CityRepository cityRepository, RestaurantTypeRepository restaurantTypeRepository,
+                                       TransactionTemplate transactionTemplate, Validator validator,
+                                       RestaurantGeoService restaurantGeoService, CacheInvalidationService cacheInvalidationService,
+                                       RestaurantSummaryService restaurantSummaryService,
+                                       @Value("${theknife.restaurant-import.chunk-size:500}") int defaultChunkSize) {
+        this.restaurantBatchRepository = restaurantBatchRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.cityRepository = cityRepository;
+        this.restaurantTypeRepository = restaurantTypeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.restaurantGeoService = restaurantGeoService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    /**
+     * @param chunkSize rows per transaction; null uses theknife.restaurant-import.chunk-size and a value
+     *                  of 0 or less imports everything in a single transaction
+     */
+    @Override
+    public RestaurantImportReportDto importRestaurants(List<RestaurantPostDto> restaurantList, Integer chunkSize) {
+        int size = chunkSize == null ? defaultChunkSize : chunkSize;
+        if (size <= 0) {
+            size = Math.max(restaurantList.size(), 1);
+        }
+        RestaurantImportRowDto[] rows = new RestaurantImportRowDto[restaurantList.size()];
+        Set<String> acceptedEmails = new HashSet<>();
+        Set<String> acceptedPhoneNumbers = new HashSet<>();
+
+        for (int from = 0; from < restaurantList.size(); from += size) {
+            int to = Math.min(from + size, restaurantList.size());
+            Set<String> chunkEmails = new HashSet<>();
+            Set<String> chunkPhoneNumbers = new HashSet<>();
+            int chunkStart = from;
+            try {
+                Map<Long, Set<Long>> importedTypes = transactionTemplate.execute(status -> importChunk(restaurantList, chunkStart, to, rows,
+                        acceptedEmails, acceptedPhoneNumbers, chunkEmails, chunkPhoneNumbers));
+                acceptedEmails.addAll(chunkEmails);
+                acceptedPhoneNumbers.addAll(chunkPhoneNumbers);
+                indexImported(restaurantList, chunkStart, to, rows, importedTypes);
+            } catch (DataAccessException e) {
+                for (int i = chunkStart; i < to; i++) {
+                    if (rows[i] == null || rows[i].status() == RestaurantImportStatus.IMPORTED) {
+                        rows[i] = row(i, restaurantList.get(i), RestaurantImportStatus.FAILED, null,
+                                Message.IMPORT_CHUNK_FAILED + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+
+        List<RestaurantImportRowDto> report = Arrays.asList(rows);
+        int imported = (int) report.stream().filter(r -> r.status() == RestaurantImportStatus.IMPORTED).count();
+        if (imported > 0) {
+            cacheInvalidationService.evict(CachedEntity.RESTAURANT, null);
+        }
+        return new RestaurantImportReportDto(imported, report.size() - imported, report);
+    }
+
+    private Map<Long, Set<Long>> importChunk(List<RestaurantPostDto> restaurantList, int from, int to, RestaurantImportRowDto[] rows,
+                                             Set<String> acceptedEmails, Set<String> acceptedPhoneNumbers,
+                                             Set<String> chunkEmails, Set<String> chunkPhoneNumbers) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            String violations = validate(restaurantList.get(i));
+            if (violations != null) {
+                rows[i] = row(i, restaurantList.get(i), RestaurantImportStatus.INVALID, null, violations);
+            } else {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+
+        List<RestaurantPostDto> candidateDtos = candidates.stream().map(restaurantList::get).toList();
+        Set<Long> cityIds = cityRepository.findExistingIds(candidateDtos.stream().map(RestaurantPostDto::cityId).collect(Collectors.toSet()));
+        Set<Long> typeIds = restaurantTypeRepository.findExistingIds(candidateDtos.stream()
+                .flatMap(r -> r.restaurantTypes().stream()).collect(Collectors.toSet()));
+        Set<String> takenEmails = restaurantRepository.findExistingEmails(candidateDtos.stream().map(RestaurantPostDto::email).collect(Collectors.toSet()));
+        Set<String> takenPhoneNumbers = restaurantRepository.findExistingPhoneNumbers(candidateDtos.stream().map(RestaurantPostDto::phoneNumber).collect(Collectors.toSet()));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            RestaurantPostDto restaurant = restaurantList.get(i);
+            if (!cityIds.contains(restaurant.cityId())) {
+                rows[i] = row(i, restaurant, RestaurantImportStatus.CITY_NOT_FOUND, null, restaurant.cityId() + Message.CITY_NOT_FOUND);
+            } else if (takenEmails.contains(restaurant.email()) || acceptedEmails.contains(restaurant.email()) || !chunkEmails.add(restaurant.email())) {
+                rows[i] = row(i, restaurant, RestaurantImportStatus.DUPLICATE, null, Message.RESTAURANT_EMAIL_TAKEN);
+            } else if (takenPhoneNumbers.contains(restaurant.phoneNumber()) || acceptedPhoneNumbers.contains(restaurant.phoneNumber())
+                    || !chunkPhoneNumbers.add(restaurant.phoneNumber())) {
+                chunkEmails.remove(restaurant.email());
+                rows[i] = row(i, restaurant, RestaurantImportStatus.DUPLICATE, null, Message.RESTAURANT_PHONE_TAKEN);
+            } else {
+                accepted.add(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = restaurantBatchRepository.insertRestaurants(accepted.stream().map(restaurantList::get).toList());
+        List<Long[]> restaurantTypePairs = new ArrayList<>();
+        Map<Long, Set<Long>> importedTypes = new HashMap<>();
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            Long restaurantId = ids.get(k);
+            Set<Long> restaurantTypeIds = restaurantList.get(i).restaurantTypes().stream()
+                    .filter(typeIds::contains)
+                    .collect(Collectors.toSet());
+            restaurantTypeIds.forEach(typeId -> restaurantTypePairs.add(new Long[]{restaurantId, typeId}));
+            importedTypes.put(restaurantId, restaurantTypeIds);
+            rows[i] = row(i, restaurantList.get(i), RestaurantImportStatus.IMPORTED, restaurantId, null);
+        }
+        restaurantBatchRepository.insertRestaurantTypes(restaurantTypePairs);
+        restaurantSummaryService.refresh(ids);
+        return importedTypes;
+    }
+
+    private void indexImported(List<RestaurantPostDto> restaurantList, int from, int to, RestaurantImportRowDto[] rows,
+                               Map<Long, Set<Long>> importedTypes) {
+        for (int i = from; i < to; i++) {
+            if (rows[i] != null && rows[i].status() == RestaurantImportStatus.IMPORTED) {
+                RestaurantPostDto restaurant = restaurantList.get(i);
+                restaurantGeoService.index(rows[i].restaurantId(), restaurant.latitude(), restaurant.longitude(),
+                        restaurant.cityId(), importedTypes.getOrDefault(rows[i].restaurantId(), Set.of()));
+            }
+        }
+    }
+
+    private String validate(RestaurantPostDto restaurant) {
+        if (restaurant == null) {
+            return Message.INVALID_RESTAURANT;
+        }
+        Set<ConstraintViolation<RestaurantPostDto>> violations = validator.validate(restaurant);
+        if (violations.isEmpty() && restaurant.cityId() != null) {
+            return null;
+        }
+        if (violations.isEmpty()) {
+            return Message.INVALID_CITY_ID;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private RestaurantImportRowDto row(int index, RestaurantPostDto restaurant, RestaurantImportStatus status, Long restaurantId, String message) {
+        return new RestaurantImportRowDto(index, restaurant == null ? null : restaurant.email(), status, restaurantId, message);
+    }
+}
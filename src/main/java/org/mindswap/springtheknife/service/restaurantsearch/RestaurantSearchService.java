@@ -0,0 +1,28 @@
+package org.mindswap.springtheknife.service.restaurantsearch;
+
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
+import org.mindswap.springtheknife.model.RestaurantSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RestaurantSearchService {
+
+    List<SearchHit> search(String query, int limit) throws InvalidSearchQueryException;
+
+    void index(RestaurantSummary summary);
+
+    void reindex(Collection<Long> restaurantIds);
+
+    void remove(Long restaurantId);
+
+    void rebuild();
+
+    int size();
+
+    /**
+     * @param score the sum over the query terms of how each matched: 3 exact, 2 prefix, 1 one typo away
+     */
+    record SearchHit(Long restaurantId, int score) {
+    }
+}
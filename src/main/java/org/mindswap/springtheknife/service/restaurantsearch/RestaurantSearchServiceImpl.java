@@ -0,0 +1,331 @@
+package org.mindswap.springtheknife.service.restaurantsearch;
+
+import jakarta.annotation.PostConstruct;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
+import org.mindswap.springtheknife.model.RestaurantSummary;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
+import org.mindswap.springtheknife.utils.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.WindowIterator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the restaurant summaries: every term of the name, street, city name and
+ * type names points to the restaurants that contain it. Terms are kept sorted, so a query term also
+ * matches the terms it is a prefix of, and each term is filed under its one-letter deletions, so a query
+ * term one typo away (insertion, deletion, substitution or swap) finds it without scanning the dictionary.
+ * Every query term has to match; hits rank by how well they matched, then by rating.
+ * <p>
+ * Writes are serialized and rare; searches run lock-free against the concurrent maps.
+ */
+@Service
+public class RestaurantSearchServiceImpl implements RestaurantSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantSearchServiceImpl.class);
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int TYPO = 1;
+    private static final int CHUNK_SIZE = 1_000;
+
+    private final RestaurantSummaryRepository restaurantSummaryRepository;
+    private final int maxResults;
+    private final int maxTerms;
+    private final int typoMinLength;
+
+    private volatile Index index = new Index();
+
+    @Autowired
+    public RestaurantSearchServiceImpl(RestaurantSummaryRepository restaurantSummaryRepository,
+                                       @Value("${theknife.search.max-results:50}") int maxResults,
+                                       @Value("${theknife.search.max-terms:8}") int maxTerms,
+                                       @Value("${theknife.search.typo-min-length:4}") int typoMinLength) {
+        this.restaurantSummaryRepository = restaurantSummaryRepository;
+        this.maxResults = maxResults;
+        this.maxTerms = maxTerms;
+        this.typoMinLength = typoMinLength;
+    }
+
+    @Override
+    @PostConstruct
+    public synchronized void rebuild() {
+        Index rebuilt = new Index();
+        WindowIterator<RestaurantSummary> summaries = WindowIterator
+                .of(position -> restaurantSummaryRepository.findBy(position, Sort.by("id"), Limit.of(CHUNK_SIZE)))
+                .startingAt(ScrollPosition.keyset());
+        while (summaries.hasNext()) {
+            rebuilt.put(document(summaries.next()));
+        }
+        index = rebuilt;
+        logger.info("Search index built with {} restaurants and {} terms", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int limit) throws InvalidSearchQueryException {
+        List<String> terms = query == null ? List.of() : tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || terms.size() > maxTerms) {
+            throw new InvalidSearchQueryException(Message.INVALID_SEARCH_QUERY + maxTerms + " words");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new InvalidSearchQueryException(Message.INVALID_SEARCH_LIMIT + maxResults);
+        }
+
+        Index current = index;
+        List<Map<Long, Integer>> matches = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Integer> termMatches = current.match(term, term.length() >= typoMinLength);
+            if (termMatches.isEmpty()) {
+                return new ArrayList<>();
+            }
+            matches.add(termMatches);
+        }
+        matches.sort(Comparator.comparingInt(Map::size));
+
+        Comparator<Ranked> ranking = Comparator.comparingInt(Ranked::score)
+                .thenComparing(Ranked::rating, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Ranked::restaurantId, Comparator.reverseOrder());
+        PriorityQueue<Ranked> best = new PriorityQueue<>(ranking);
+        candidates:
+        for (Map.Entry<Long, Integer> candidate : matches.get(0).entrySet()) {
+            int score = candidate.getValue();
+            for (int i = 1; i < matches.size(); i++) {
+                Integer termScore = matches.get(i).get(candidate.getKey());
+                if (termScore == null) {
+                    continue candidates;
+                }
+                score += termScore;
+            }
+            SearchDocument document = current.documents.get(candidate.getKey());
+            if (document == null) {
+                continue;
+            }
+            best.add(new Ranked(candidate.getKey(), score, document.rating()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Ranked> ranked = new ArrayList<>(best);
+        ranked.sort(ranking.reversed());
+        return ranked.stream().map(hit -> new SearchHit(hit.restaurantId(), hit.score())).toList();
+    }
+
+    @Override
+    public synchronized void index(RestaurantSummary summary) {
+        if (summary == null || summary.getId() == null) {
+            return;
+        }
+        index.put(document(summary));
+    }
+
+    /**
+     * Reloads the restaurants from their summaries once the current transaction commits, so the index
+     * never shows a write that was rolled back; ids without a summary are dropped.
+     */
+    @Override
+    public void reindex(Collection<Long> restaurantIds) {
+        if (restaurantIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(new HashSet<>(restaurantIds));
+        afterCommit(() -> {
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+                Map<Long, RestaurantSummary> summaries = restaurantSummaryRepository.findAllById(chunk).stream()
+                        .collect(Collectors.toMap(RestaurantSummary::getId, Function.identity()));
+                synchronized (this) {
+                    for (Long id : chunk) {
+                        RestaurantSummary summary = summaries.get(id);
+                        if (summary == null) {
+                            index.remove(id);
+                        } else {
+                            index.put(document(summary));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public synchronized void remove(Long restaurantId) {
+        index.remove(restaurantId);
+    }
+
+    @Override
+    public int size() {
+        return index.documents.size();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(folded)).filter(term -> !term.isEmpty()).toList();
+    }
+
+    /**
+     * True when one insertion, deletion, substitution or swap of adjacent letters turns a into b.
+     */
+    static boolean isOneTypoApart(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1 || a.equals(b)) {
+            return false;
+        }
+        int start = 0;
+        while (start < a.length() && start < b.length() && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (a.length() == b.length()) {
+            if (a.regionMatches(start + 1, b, start + 1, a.length() - start - 1)) {
+                return true;
+            }
+            return start + 1 < a.length() && a.charAt(start) == b.charAt(start + 1) && a.charAt(start + 1) == b.charAt(start)
+                    && a.regionMatches(start + 2, b, start + 2, a.length() - start - 2);
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = a.length() > b.length() ? b : a;
+        return longer.regionMatches(start + 1, shorter, start, shorter.length() - start);
+    }
+
+    private SearchDocument document(RestaurantSummary summary) {
+        Set<String> terms = new HashSet<>(tokenize(summary.getName()));
+        terms.addAll(tokenize(summary.getCityName()));
+        if (summary.getAddress() != null) {
+            terms.addAll(tokenize(summary.getAddress().getStreet()));
+        }
+        if (summary.getRestaurantTypes() != null) {
+            for (RestaurantTypeDto type : summary.getRestaurantTypes()) {
+                terms.addAll(tokenize(type.type()));
+            }
+        }
+        return new SearchDocument(summary.getId(), Set.copyOf(terms), summary.getRating());
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private final class Index {
+        private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<String>> termsByDeletion = new ConcurrentHashMap<>();
+        private final Map<Long, SearchDocument> documents = new ConcurrentHashMap<>();
+
+        Map<Long, Integer> match(String term, boolean tolerateTypo) {
+            Map<Long, Integer> matches = new HashMap<>();
+            postings.subMap(term, false, term + Character.MAX_VALUE, false).values()
+                    .forEach(ids -> ids.forEach(id -> matches.merge(id, PREFIX, Math::max)));
+            if (tolerateTypo) {
+                Set<String> candidates = new HashSet<>();
+                for (String deletion : deletions(term)) {
+                    candidates.addAll(termsByDeletion.getOrDefault(deletion, Set.of()));
+                }
+                for (String candidate : candidates) {
+                    if (isOneTypoApart(term, candidate)) {
+                        postings.getOrDefault(candidate, Set.of()).forEach(id -> matches.merge(id, TYPO, Math::max));
+                    }
+                }
+            }
+            postings.getOrDefault(term, Set.of()).forEach(id -> matches.put(id, EXACT));
+            return matches;
+        }
+
+        void put(SearchDocument document) {
+            SearchDocument previous = documents.put(document.restaurantId(), document);
+            Set<String> previousTerms = previous == null ? Set.of() : previous.terms();
+            for (String term : previousTerms) {
+                if (!document.terms().contains(term)) {
+                    unpost(term, document.restaurantId());
+                }
+            }
+            for (String term : document.terms()) {
+                if (!previousTerms.contains(term)) {
+                    post(term, document.restaurantId());
+                }
+            }
+        }
+
+        void remove(Long restaurantId) {
+            SearchDocument previous = documents.remove(restaurantId);
+            if (previous != null) {
+                previous.terms().forEach(term -> unpost(term, restaurantId));
+            }
+        }
+
+        private void post(String term, Long restaurantId) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                postings.put(term, ids);
+                if (term.length() >= typoMinLength - 1) {
+                    for (String deletion : deletions(term)) {
+                        termsByDeletion.computeIfAbsent(deletion, d -> ConcurrentHashMap.newKeySet()).add(term);
+                    }
+                }
+            }
+            ids.add(restaurantId);
+        }
+
+        private void unpost(String term, Long restaurantId) {
+            Set<Long> ids = postings.get(term);
+            if (ids == null) {
+                return;
+            }
+            ids.remove(restaurantId);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+                for (String deletion : deletions(term)) {
+                    termsByDeletion.computeIfPresent(deletion, (d, terms) -> {
+                        terms.remove(term);
+                        return terms.isEmpty() ? null : terms;
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * The term itself and every string one letter shorter: two terms one typo apart share one of these.
+     */
+    private static Set<String> deletions(String term) {
+        Set<String> deletions = new HashSet<>(term.length() + 1);
+        deletions.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            deletions.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return deletions;
+    }
+
+    private record SearchDocument(Long restaurantId, Set<String> terms, Double rating) {
+    }
+
+    private record Ranked(Long restaurantId, int score, Double rating) {
+    }
+}
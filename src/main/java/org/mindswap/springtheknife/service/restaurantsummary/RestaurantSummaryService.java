@@ -0,0 +1,228 @@
+package org.mindswap.springtheknife.service.restaurantsummary;
+
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.model.RestaurantSummary;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantCard;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantTypeRow;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository.RestaurantCount;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository.RestaurantImagePath;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the restaurant_summary read model in step with the restaurants, reviews, bookings and images it
+ * summarizes. Writers call it inside their own transaction, so a summary row never shows a change that was
+ * rolled back. Restaurant rows are copied whole, a handful of set-based queries per batch of ids; counts,
+ * ratings and image paths are patched with a single UPDATE. Changes to what search indexes (names, streets,
+ * cities, types, ratings) are passed on to the search index once they commit.
+ */
+@Service
+public class RestaurantSummaryService {
+
+    static final int CHUNK_SIZE = 1_000;
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantSummaryService.class);
+
+    private final RestaurantSummaryRepository restaurantSummaryRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final TransactionTemplate transactionTemplate;
+    private final RestaurantSearchService restaurantSearchService;
+
+    @Autowired
+    public RestaurantSummaryService(RestaurantSummaryRepository restaurantSummaryRepository, RestaurantRepository restaurantRepository,
+                                    CacheInvalidationService cacheInvalidationService, TransactionTemplate transactionTemplate,
+                                    RestaurantSearchService restaurantSearchService) {
+        this.restaurantSummaryRepository = restaurantSummaryRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.transactionTemplate = transactionTemplate;
+        this.restaurantSearchService = restaurantSearchService;
+    }
+
+    @Transactional
+    public RestaurantSummary refresh(Long restaurantId) {
+        List<RestaurantSummary> summaries = copy(List.of(restaurantId));
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+        restaurantSearchService.reindex(List.of(restaurantId));
+        return summaries.isEmpty() ? null : summaries.getFirst();
+    }
+
+    /**
+     * Copies the given restaurants into their summaries, and drops the summaries of ids that no longer exist.
+     */
+    @Transactional
+    public List<RestaurantSummary> refresh(Collection<Long> restaurantIds) {
+        List<RestaurantSummary> summaries = new ArrayList<>();
+        List<Long> ids = List.copyOf(new HashSet<>(restaurantIds));
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            summaries.addAll(copy(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))));
+        }
+        if (!ids.isEmpty()) {
+            cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+            restaurantSearchService.reindex(ids);
+        }
+        return summaries;
+    }
+
+    @Transactional
+    public void onRestaurantDeleted(Long restaurantId) {
+        restaurantSummaryRepository.deleteById(restaurantId);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+        restaurantSearchService.reindex(List.of(restaurantId));
+    }
+
+    @Transactional
+    public void onBookingAdded(Long restaurantId) {
+        restaurantSummaryRepository.applyBookingDelta(restaurantId, 1);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+    }
+
+    @Transactional
+    public void onBookingRemoved(Long restaurantId) {
+        restaurantSummaryRepository.applyBookingDelta(restaurantId, -1);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+    }
+
+    /**
+     * Recounts the bookings of restaurants that lost an unknown number of them, e.g. through a cascade.
+     */
+    @Transactional
+    public void onBookingsRemoved(Collection<Long> restaurantIds) {
+        if (restaurantIds.isEmpty()) {
+            return;
+        }
+        restaurantSummaryRepository.recountBookings(restaurantIds);
+        cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+    }
+
+    /**
+     * Copies the restaurant's running rating and review count, after they were changed.
+     */
+    @Transactional
+    public void onRatingChanged(Long restaurantId) {
+        restaurantSummaryRepository.copyRating(restaurantId);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+        restaurantSearchService.reindex(List.of(restaurantId));
+    }
+
+    @Transactional
+    public void onRatingsReconciled() {
+        restaurantSummaryRepository.copyAllRatings();
+        cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+        restaurantSearchService.reindex(restaurantSummaryRepository.findAllIds());
+    }
+
+    /**
+     * The first image of a restaurant is its primary image.
+     */
+    @Transactional
+    public void onImageAdded(Long restaurantId, String imagePath) {
+        if (restaurantSummaryRepository.setPrimaryImageIfMissing(restaurantId, imagePath) > 0) {
+            cacheInvalidationService.evict(CachedEntity.RESTAURANT, restaurantId);
+        }
+    }
+
+    @Transactional
+    public void onCityRenamed(Long cityId, String cityName) {
+        restaurantSummaryRepository.renameCity(cityId, cityName);
+        cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+        restaurantSearchService.reindex(restaurantSummaryRepository.findIdsByCityId(cityId));
+    }
+
+    @Transactional
+    public void onCityDeleted(Long cityId) {
+        List<Long> restaurantIds = restaurantSummaryRepository.findIdsByCityId(cityId);
+        restaurantSummaryRepository.deleteByCityId(cityId);
+        cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+        restaurantSearchService.reindex(restaurantIds);
+    }
+
+    @Transactional
+    public void onRestaurantTypeChanged(Long restaurantTypeId) {
+        refresh(restaurantSummaryRepository.findRestaurantIdsByRestaurantTypeId(restaurantTypeId));
+    }
+
+    /**
+     * Summarizes the restaurants that have no summary yet: rows written before the read model existed or
+     * straight to the database, like the load test's dataset. Runs at startup, one transaction per chunk.
+     *
+     * @return the number of summaries written
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        int written = 0;
+        List<Long> ids;
+        while (!(ids = restaurantSummaryRepository.findRestaurantIdsWithoutSummary(Limit.of(CHUNK_SIZE))).isEmpty()) {
+            List<Long> chunk = ids;
+            written += transactionTemplate.execute(status -> {
+                restaurantSearchService.reindex(chunk);
+                return copy(chunk).size();
+            });
+        }
+        if (written > 0) {
+            cacheInvalidationService.evictAll(CachedEntity.RESTAURANT);
+            logger.info("Summarized {} restaurants", written);
+        }
+        return written;
+    }
+
+    private List<RestaurantSummary> copy(List<Long> restaurantIds) {
+        Map<Long, RestaurantCard> cards = restaurantRepository.findRestaurantCardsByIds(restaurantIds).stream()
+                .collect(Collectors.toMap(RestaurantCard::getId, Function.identity()));
+        Map<Long, RestaurantSummary> existing = restaurantSummaryRepository.findAllById(restaurantIds).stream()
+                .collect(Collectors.toMap(RestaurantSummary::getId, Function.identity()));
+        List<RestaurantSummary> removed = existing.values().stream().filter(summary -> !cards.containsKey(summary.getId())).toList();
+        restaurantSummaryRepository.deleteAll(removed);
+        if (cards.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> ids = cards.keySet();
+        Map<Long, Set<RestaurantTypeDto>> types = restaurantRepository.findTypesByRestaurantIds(ids).stream()
+                .collect(Collectors.groupingBy(RestaurantTypeRow::getRestaurantId,
+                        Collectors.mapping(row -> new RestaurantTypeDto(row.getTypeId(), row.getType()), Collectors.toSet())));
+        Map<Long, Long> bookings = restaurantSummaryRepository.countBookingsByRestaurantIds(ids).stream()
+                .collect(Collectors.toMap(RestaurantCount::getRestaurantId, RestaurantCount::getCount));
+        Map<Long, String> images = restaurantSummaryRepository.findPrimaryImagesByRestaurantIds(ids).stream()
+                .collect(Collectors.toMap(RestaurantImagePath::getRestaurantId, RestaurantImagePath::getImagePath));
+
+        List<RestaurantSummary> summaries = new ArrayList<>(cards.size());
+        for (RestaurantCard card : cards.values()) {
+            RestaurantSummary summary = existing.getOrDefault(card.getId(), new RestaurantSummary(card.getId()));
+            summary.setName(card.getName());
+            summary.setAddress(card.getAddress());
+            summary.setEmail(card.getEmail());
+            summary.setPhoneNumber(card.getPhoneNumber());
+            summary.setCityId(card.getCityId());
+            summary.setCityName(card.getCityName());
+            summary.setRestaurantTypes(new HashSet<>(types.getOrDefault(card.getId(), Set.of())));
+            summary.setRating(card.getRating());
+            summary.setReviewCount(card.getRatingCount() == null ? 0 : card.getRatingCount());
+            summary.setBookingCount(bookings.getOrDefault(card.getId(), 0L));
+            summary.setPrimaryImagePath(images.get(card.getId()));
+            summaries.add(summary);
+        }
+        return restaurantSummaryRepository.saveAll(summaries);
+    }
+}
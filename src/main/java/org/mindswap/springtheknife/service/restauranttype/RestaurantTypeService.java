@@ -1,7 +1,9 @@
 package org.mindswap.springtheknife.service.restauranttype;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFoundException;
 
 import java.util.List;
@@ -10,6 +12,8 @@ public interface RestaurantTypeService {
 
     List<RestaurantTypeDto> getAllRestaurantType(int pageNumber, int pageSize, String sortBy);
 
+    CursorPageDto<RestaurantTypeDto> scrollRestaurantTypes(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
     RestaurantTypeDto getRestaurantTypeById(Long id) throws RestaurantTypeNotFoundException;
 
     RestaurantTypeDto addRestaurantType(RestaurantTypeDto restaurantType) throws RestaurantTypeAlreadyExistsException;
@@ -1,20 +1,28 @@
 package org.mindswap.springtheknife.service.restauranttype;
 
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.RestaurantTypeConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFoundException;
 import org.mindswap.springtheknife.model.RestaurantType;
 import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,14 +32,18 @@ import java.util.stream.Collectors;
 @Service
 public class RestaurantTypeServiceImpl implements RestaurantTypeService {
     RestaurantTypeRepository restaurantTypeRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryService restaurantSummaryService;
 
     @Autowired
-    public RestaurantTypeServiceImpl(RestaurantTypeRepository restaurantTypeRepository) {
+    public RestaurantTypeServiceImpl(RestaurantTypeRepository restaurantTypeRepository, CacheInvalidationService cacheInvalidationService, RestaurantSummaryService restaurantSummaryService) {
         this.restaurantTypeRepository = restaurantTypeRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
     }
 
     @Override
-    @Cacheable(cacheNames = "RestaurantType", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.RESTAURANT_TYPE_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
     public List<RestaurantTypeDto> getAllRestaurantType(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
         Page<RestaurantType> pageRestaurantType = restaurantTypeRepository.findAll(pageRequest);
@@ -39,13 +51,22 @@ public class RestaurantTypeServiceImpl implements RestaurantTypeService {
                 .map(RestaurantTypeConverter::fromModelToRestaurantTypeDto)
                 .toList();
     }
+
+    @Override
+    public CursorPageDto<RestaurantTypeDto> scrollRestaurantTypes(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<RestaurantType> window = restaurantTypeRepository.findAllBy(KeysetCursor.decode(cursor, sortBy, RestaurantType.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(window.stream()
+                .map(RestaurantTypeConverter::fromModelToRestaurantTypeDto)
+                .toList(), KeysetCursor.encode(window));
+    }
     public Set<RestaurantTypeDto> getRestaurantTypeById(Set<Long> restaurantTypeId){
         List<RestaurantType> restaurantType = restaurantTypeRepository.findAllById(restaurantTypeId);
         return restaurantType.stream().map(RestaurantTypeConverter::fromModelToRestaurantTypeDto).collect(Collectors.toSet());
             }
 
     @Override
-    @Cacheable(cacheNames = "RestaurantTypeById", key = "#id" )
+    @Cacheable(cacheNames = CacheNames.RESTAURANT_TYPE_BY_ID, key = "#id" )
     public RestaurantTypeDto getRestaurantTypeById(Long id) throws RestaurantTypeNotFoundException {
         RestaurantType restaurantType = restaurantTypeRepository.findById(id).orElseThrow(() -> new RestaurantTypeNotFoundException(Message.TYPE_ID + id + Message.NOT_FOUND));
         return RestaurantTypeConverter.fromModelToRestaurantTypeDto(restaurantType);
@@ -58,18 +79,22 @@ public class RestaurantTypeServiceImpl implements RestaurantTypeService {
             throw new RestaurantTypeAlreadyExistsException(Message.ALREADY_EXISTS);
         }
         RestaurantType restaurantType1 = RestaurantTypeConverter.fromRestaurantTypeDtoToModel(restaurantType);
-        return RestaurantTypeConverter.fromModelToRestaurantTypeDto(restaurantTypeRepository.save(restaurantType1));
+        RestaurantTypeDto savedRestaurantType = RestaurantTypeConverter.fromModelToRestaurantTypeDto(restaurantTypeRepository.save(restaurantType1));
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT_TYPE, null);
+        return savedRestaurantType;
     }
 
     @Override
-    @CacheEvict(cacheNames = "RestaurantTypeDelete", allEntries = true)
+    @Transactional
     public void deleteRestaurantType(Long restaurantTypeId) throws RestaurantTypeNotFoundException {
         restaurantTypeRepository.findById(restaurantTypeId).orElseThrow(() -> new RestaurantTypeNotFoundException(Message.TYPE_ID + restaurantTypeId + Message.NOT_FOUND));
         restaurantTypeRepository.deleteById(restaurantTypeId);
+        restaurantSummaryService.onRestaurantTypeChanged(restaurantTypeId);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT_TYPE, restaurantTypeId);
     }
 
     @Override
-    @CachePut(cacheNames = "RestaurantPatch", key="#id")
+    @Transactional
     public RestaurantTypeDto patchRestaurantType(Long id, RestaurantTypeDto restaurantType) throws RestaurantTypeNotFoundException {
         RestaurantType dbRestaurantType = restaurantTypeRepository.findById(id).orElseThrow(() -> new RestaurantTypeNotFoundException(Message.TYPE_ID + id + Message.NOT_FOUND));
         if (restaurantTypeRepository.findByType(restaurantType.type()).isPresent()) {
@@ -78,6 +103,9 @@ public class RestaurantTypeServiceImpl implements RestaurantTypeService {
         if (restaurantType.type() != null) {
             dbRestaurantType.setType(restaurantType.type());
         }
-        return RestaurantTypeConverter.fromModelToRestaurantTypeDto(restaurantTypeRepository.save(dbRestaurantType));
+        RestaurantTypeDto updatedRestaurantType = RestaurantTypeConverter.fromModelToRestaurantTypeDto(restaurantTypeRepository.save(dbRestaurantType));
+        restaurantSummaryService.onRestaurantTypeChanged(id);
+        cacheInvalidationService.evict(CachedEntity.RESTAURANT_TYPE, id);
+        return updatedRestaurantType;
     }
 }
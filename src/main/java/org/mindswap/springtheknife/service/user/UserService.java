@@ -1,9 +1,11 @@
 package org.mindswap.springtheknife.service.user;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.user.UserCreateDto;
 import org.mindswap.springtheknife.dto.user.UserGetDto;
 import org.mindswap.springtheknife.dto.user.UserPatchDto;
 import org.mindswap.springtheknife.exceptions.user.UserAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.user.UserEmailAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 
@@ -13,6 +15,8 @@ public interface UserService {
 
     List<UserGetDto> getAllUsers(int pageNumber, int pageSize, String sortBy);
 
+    CursorPageDto<UserGetDto> scrollUsers(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
     UserGetDto getUser(Long id) throws UserNotFoundException;
 
 
@@ -1,46 +1,72 @@
 package org.mindswap.springtheknife.service.user;
 
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.UserConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.user.UserCreateDto;
 import org.mindswap.springtheknife.dto.user.UserGetDto;
 import org.mindswap.springtheknife.dto.user.UserPatchDto;
 import org.mindswap.springtheknife.exceptions.user.UserAlreadyExistsException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.user.UserEmailAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
+import org.mindswap.springtheknife.model.Booking;
 import org.mindswap.springtheknife.model.Restaurant;
 import org.mindswap.springtheknife.model.User;
+import org.mindswap.springtheknife.model.UserExperience;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
 import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityService;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.rating.RatingAggregationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
+    private final CacheInvalidationService cacheInvalidationService;
+    private final RestaurantSummaryRepository restaurantSummaryRepository;
+    private final RestaurantSummaryService restaurantSummaryService;
+    private final RatingAggregationService ratingAggregationService;
+    private final BookingAvailabilityService bookingAvailabilityService;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, RestaurantRepository restaurantService) {
+    public UserServiceImpl(UserRepository userRepository, RestaurantRepository restaurantService, CacheInvalidationService cacheInvalidationService,
+                           RestaurantSummaryRepository restaurantSummaryRepository, RestaurantSummaryService restaurantSummaryService,
+                           RatingAggregationService ratingAggregationService, BookingAvailabilityService bookingAvailabilityService) {
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryRepository = restaurantSummaryRepository;
+        this.restaurantSummaryService = restaurantSummaryService;
+        this.ratingAggregationService = ratingAggregationService;
+        this.bookingAvailabilityService = bookingAvailabilityService;
     }
 
     @Override
-    @Cacheable(cacheNames = "User", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.USER_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
+    @Transactional(readOnly = true)
     public List<UserGetDto> getAllUsers(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
         Page<User> pageUsers = userRepository.findAll(pageRequest);
@@ -50,9 +76,19 @@ public class UserServiceImpl implements UserService {
    }
 
     @Override
-    @Cacheable(cacheNames = "UserById", key = "#id" )
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserGetDto> scrollUsers(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<User> window = userRepository.findAllBy(KeysetCursor.decode(cursor, sortBy, User.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(window.stream()
+                .map(UserConverter::fromEntityToGetDto)
+                .toList(), KeysetCursor.encode(window));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.USER_BY_ID, key = "#id" )
     public UserGetDto getUser(Long id) throws UserNotFoundException {
-        Optional<User> userOptional = userRepository.findById(id);
+        Optional<User> userOptional = userRepository.findProfileById(id);
         if (userOptional.isEmpty()) {
             throw new UserNotFoundException(id + Message.USER_ID_DOES_NOT_EXIST);
         }
@@ -68,6 +104,7 @@ public class UserServiceImpl implements UserService {
         return userOptional.get();
     }
     @Override
+    @Transactional
     public UserGetDto createUser(UserCreateDto user) throws UserAlreadyExistsException, UserEmailAlreadyExistsException {
         Optional<User> userOptional = this.userRepository.findByUserName(user.userName());
         if (userOptional.isPresent()) {
@@ -76,9 +113,9 @@ public class UserServiceImpl implements UserService {
         if (userRepository.findByEmail(user.email()).isPresent()) {
             throw new UserEmailAlreadyExistsException(user.email() + Message.EMAIL_TAKEN);
         }
-        Set<Restaurant> favorites = user.favoriteRestaurants().stream().map(restaurantRepository::findById).filter(Optional::isPresent)
-                .map(Optional::get).collect(Collectors.toSet());
+        Set<Restaurant> favorites = new HashSet<>(restaurantRepository.findAllById(user.favoriteRestaurants()));
         User newUser = userRepository.save(UserConverter.fromCreateDtoToEntity(user, favorites));
+        cacheInvalidationService.evict(CachedEntity.USER, null);
 
         return UserConverter.fromEntityToGetDto(newUser);
 
@@ -86,7 +123,6 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @CachePut(cacheNames = "UserPatch", key="#id")
     public UserPatchDto updateUser(Long id, UserPatchDto user) throws UserNotFoundException, UserAlreadyExistsException {
         Optional<User> userOptional= userRepository.findById(id);
         if(userOptional.isEmpty()) {
@@ -104,14 +140,28 @@ public class UserServiceImpl implements UserService {
             userToUpdate.setEmail(user.email());
         }
 
-        return UserConverter.fromEntityToPatchDto(userRepository.save(userToUpdate));
+        User updatedUser = userRepository.save(userToUpdate);
+        cacheInvalidationService.evict(CachedEntity.USER, id);
+        return UserConverter.fromEntityToPatchDto(updatedUser);
     }
 
+    /**
+     * The user's reviews and bookings go with it by cascade, so they are taken out of the restaurants' ratings
+     * and counts here rather than waiting for the nightly reconcile, and the seats of the bookings are freed
+     * once the delete commits.
+     */
     @Override
-    @CacheEvict(cacheNames = "UserDelete", allEntries = true)
+    @Transactional
     public void deleteUser(Long id) throws UserNotFoundException {
-        userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id + Message.USER_ID_DOES_NOT_EXIST));
+        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id + Message.USER_ID_DOES_NOT_EXIST));
+        List<UserExperience> reviews = List.copyOf(user.getUserExperiences());
+        List<Booking> bookings = List.copyOf(user.getBookings());
+        List<Long> bookedRestaurantIds = restaurantSummaryRepository.findRestaurantIdsBookedByUserId(id);
         userRepository.deleteById(id);
+        reviews.forEach(ratingAggregationService::onReviewRemoved);
+        bookings.forEach(bookingAvailabilityService::onBookingRemoved);
+        restaurantSummaryService.onBookingsRemoved(bookedRestaurantIds);
+        cacheInvalidationService.evict(CachedEntity.USER, id);
     }
 }
 
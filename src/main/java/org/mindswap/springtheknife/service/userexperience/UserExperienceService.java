@@ -1,10 +1,12 @@
 package org.mindswap.springtheknife.service.userexperience;
 
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceCreateDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceGetDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperiencePatchDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.userexperience.UserExperienceNotFoundException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 
@@ -14,6 +16,8 @@ public interface UserExperienceService {
 
     List<UserExperienceGetDto> getAllUsersExperiences(int pageNumber, int pageSize, String sortBy);
 
+    CursorPageDto<UserExperienceGetDto> scrollUsersExperiences(String cursor, int pageSize, String sortBy) throws InvalidCursorException;
+
     UserExperienceGetDto getUserExperienceById(Long id) throws UserExperienceNotFoundException;
 
     UserExperienceGetDto addNewUserExperience(UserExperienceCreateDto userExperience) throws UserNotFoundException, RestaurantNotFoundException, UserExperienceNotFoundException, BookingNotFoundException;
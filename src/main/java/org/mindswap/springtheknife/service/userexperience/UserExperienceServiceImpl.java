@@ -1,12 +1,15 @@
 package org.mindswap.springtheknife.service.userexperience;
 
 import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.converter.UserExperienceConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceCreateDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperienceGetDto;
 import org.mindswap.springtheknife.dto.userexperience.UserExperiencePatchDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
 import org.mindswap.springtheknife.exceptions.userexperience.UserExperienceNotFoundException;
 import org.mindswap.springtheknife.model.User;
@@ -14,17 +17,23 @@ import org.mindswap.springtheknife.model.UserExperience;
 import org.mindswap.springtheknife.repository.BookingRepository;
 import org.mindswap.springtheknife.repository.UserExperienceRepository;
 import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.rating.RatingAggregationService;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.mindswap.springtheknife.utils.KeysetCursor;
 import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,19 +50,31 @@ public class UserExperienceServiceImpl implements UserExperienceService {
     private final RestaurantServiceImpl restaurantServiceImpl;
     private final BookingServiceImpl bookingServiceImpl;
 
+    private final RatingAggregationService ratingAggregationService;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final RestaurantSummaryService restaurantSummaryService;
+
     @Autowired
     public UserExperienceServiceImpl(UserExperienceRepository userExperienceRepository, BookingRepository bookingRepository, UserServiceImpl userServiceImpl,
-                                     RestaurantServiceImpl restaurantServiceImpl, BookingServiceImpl bookingServiceImpl) {
+                                     RestaurantServiceImpl restaurantServiceImpl, BookingServiceImpl bookingServiceImpl,
+                                     RatingAggregationService ratingAggregationService, CacheInvalidationService cacheInvalidationService,
+                                     RestaurantSummaryService restaurantSummaryService) {
         this.userExperienceRepository = userExperienceRepository;
         this.bookingRepository = bookingRepository;
         this.userServiceImpl = userServiceImpl;
         this.restaurantServiceImpl = restaurantServiceImpl;
 
         this.bookingServiceImpl = bookingServiceImpl;
+        this.ratingAggregationService = ratingAggregationService;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.restaurantSummaryService = restaurantSummaryService;
     }
 
     @Override
-    @Cacheable(cacheNames = "UserExperience", key = "{#pageNumber, #pageSize, #sortBy}")
+    @Cacheable(cacheNames = CacheNames.USER_EXPERIENCE_PAGES, key = "{#pageNumber, #pageSize, #sortBy}")
+    @Transactional(readOnly = true)
     public List<UserExperienceGetDto> getAllUsersExperiences(int pageNumber, int pageSize, String sortBy) {
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize, Sort.Direction.ASC, sortBy);
         Page<UserExperience> pageUserExperiences = userExperienceRepository.findAll(pageRequest);
@@ -63,9 +84,20 @@ public class UserExperienceServiceImpl implements UserExperienceService {
     }
 
     @Override
-    @Cacheable(cacheNames = "UserExperienceById", key = "#id" )
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserExperienceGetDto> scrollUsersExperiences(String cursor, int pageSize, String sortBy) throws InvalidCursorException {
+        Window<UserExperience> window = userExperienceRepository.findAllBy(KeysetCursor.decode(cursor, sortBy, UserExperience.class),
+                Sort.by(Sort.Direction.ASC, sortBy), Limit.of(pageSize));
+        return new CursorPageDto<>(window.stream()
+                .map(UserExperienceConverter::fromEntityToGetDto)
+                .toList(), KeysetCursor.encode(window));
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheNames.USER_EXPERIENCE_BY_ID, key = "#id" )
+    @Transactional(readOnly = true)
     public UserExperienceGetDto getUserExperienceById(Long id) throws UserExperienceNotFoundException {
-        Optional<UserExperience> userExperienceOptional = userExperienceRepository.findById(id);
+        Optional<UserExperience> userExperienceOptional = userExperienceRepository.findDetailById(id);
         if (userExperienceOptional.isEmpty()) {
             throw new UserExperienceNotFoundException(id + Message.USER_EXPERIENCE_ID_NOT_FOUND);
         }
@@ -74,6 +106,7 @@ public class UserExperienceServiceImpl implements UserExperienceService {
     }
 
     @Override
+    @Transactional
     public UserExperienceGetDto addNewUserExperience(UserExperienceCreateDto userExperience) throws UserNotFoundException, RestaurantNotFoundException, BookingNotFoundException, UserExperienceNotFoundException {
        /* User newUser = UserConverter.fromGetDtoToEntity(userService.getUserById(userExperience.userId()));
         Restaurant newRestaurant = RestaurantConverter.fromRestaurantDtoToModel(restaurantService.getById(userExperience.restaurantId()));
@@ -92,31 +125,42 @@ public class UserExperienceServiceImpl implements UserExperienceService {
                         restaurantServiceImpl.getById(userExperience.restaurantId()));
         userExperienceToSave.setTimestamp(LocalDateTime.now());
         userExperienceRepository.save(userExperienceToSave);
+        ratingAggregationService.onReviewAdded(userExperienceToSave);
+        cacheInvalidationService.evict(CachedEntity.USER_EXPERIENCE, null);
         return UserExperienceConverter.fromEntityToGetDto(userExperienceToSave);
     }
 
     @Override
-    @CachePut(cacheNames = "UserExperiencePatch", key="#id")
+    @Transactional
     public UserExperiencePatchDto updateUserExperience(Long id, UserExperiencePatchDto userExperience) throws UserExperienceNotFoundException {
         Optional<UserExperience> userExperienceOptional = userExperienceRepository.findById(id);
         if (!userExperienceOptional.isPresent()) {
             throw new UserExperienceNotFoundException(id + Message.USER_EXPERIENCE_ID_NOT_FOUND);
         }
         UserExperience userExperienceToUpdate = userExperienceOptional.get();
+        Double previousRating = userExperienceToUpdate.getRating();
         if (userExperience.rating() > 0 && userExperience.rating() != (userExperienceToUpdate.getRating())) {
             userExperienceToUpdate.setRating(userExperience.rating());
         }
         if (userExperience.comment() != null && !userExperience.comment().equals(userExperienceToUpdate.getComment())) {
             userExperienceToUpdate.setComment(userExperience.comment());
         }
-        return UserExperienceConverter.fromEntityToPatchDto(userExperienceRepository.save(userExperienceToUpdate));
+        UserExperience updatedUserExperience = userExperienceRepository.save(userExperienceToUpdate);
+        ratingAggregationService.onReviewRatingChanged(updatedUserExperience, previousRating);
+        cacheInvalidationService.evict(CachedEntity.USER_EXPERIENCE, id);
+        return UserExperienceConverter.fromEntityToPatchDto(updatedUserExperience);
     }
 
     @Override
-    @CacheEvict(cacheNames = "UserExperienceDelete", allEntries = true)
+    @Transactional
     public void deleteUserExperience(Long userExperienceId) throws UserExperienceNotFoundException {
-        userExperienceRepository.findById(userExperienceId).orElseThrow(() -> new UserExperienceNotFoundException(userExperienceId + Message.USER_EXPERIENCE_ID_NOT_FOUND));
+        UserExperience userExperience = userExperienceRepository.findById(userExperienceId).orElseThrow(() -> new UserExperienceNotFoundException(userExperienceId + Message.USER_EXPERIENCE_ID_NOT_FOUND));
         userExperienceRepository.deleteById(userExperienceId);
+        ratingAggregationService.onReviewRemoved(userExperience);
+        if (userExperience.getBooking() != null && userExperience.getBooking().getRestaurant() != null) {
+            restaurantSummaryService.onBookingsRemoved(List.of(userExperience.getBooking().getRestaurant().getId()));
+        }
+        cacheInvalidationService.evict(CachedEntity.USER_EXPERIENCE, userExperienceId);
     }
 }
 
@@ -0,0 +1,8 @@
+package org.mindswap.springtheknife.service.weather;
+
+import reactor.core.publisher.Mono;
+
+public interface WeatherService {
+
+    Mono<String> getCurrentWeather(String location);
+}
@@ -0,0 +1,79 @@
+package org.mindswap.springtheknife.service.weather;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
+import org.mindswap.springtheknife.exceptions.weather.InvalidLocationException;
+import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.utils.StaleWhileRevalidateCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Current weather per location, cached under the normalized location so "Porto", " porto " and "PORTO"
+ * share one entry and one upstream call. Entries are refreshed in the background before they expire, and
+ * the last known weather is served while the upstream is failing.
+ */
+@Service
+public class WeatherServiceImpl implements WeatherService {
+
+    private static final int MAX_LOCATION_LENGTH = 100;
+
+    private final WebClient webClient;
+    private final Duration timeout;
+    private final StaleWhileRevalidateCache<String, String> cache;
+
+    @Autowired
+    public WeatherServiceImpl(WebClient.Builder webClientBuilder,
+                              @Value("${theknife.weather.base-url:http://localhost:8081}") String baseUrl,
+                              @Value("${theknife.weather.timeout:PT2S}") Duration timeout,
+                              @Value("${theknife.weather.refresh-after:PT5M}") Duration refreshAfter,
+                              @Value("${theknife.weather.expire-after:PT10M}") Duration expireAfter,
+                              @Value("${theknife.weather.stale-if-error:PT1H}") Duration staleIfError,
+                              @Value("${theknife.weather.max-entries:1000}") long maxEntries) {
+        this(webClientBuilder, baseUrl, timeout, refreshAfter, expireAfter, staleIfError, maxEntries, Ticker.systemTicker());
+    }
+
+    public WeatherServiceImpl(WebClient.Builder webClientBuilder, String baseUrl, Duration timeout, Duration refreshAfter,
+                              Duration expireAfter, Duration staleIfError, long maxEntries, Ticker ticker) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.timeout = timeout;
+        this.cache = new StaleWhileRevalidateCache<>(this::fetch, refreshAfter, expireAfter, staleIfError, maxEntries, ticker);
+    }
+
+    @Override
+    public Mono<String> getCurrentWeather(String location) {
+        String normalized = normalize(location);
+        if (normalized.isEmpty() || normalized.length() > MAX_LOCATION_LENGTH) {
+            return Mono.error(new InvalidLocationException(Message.INVALID_LOCATION));
+        }
+        return cache.get(normalized)
+                .onErrorMap(e -> new UpstreamUnavailableException(Message.WEATHER_UNAVAILABLE, e));
+    }
+
+    private static String normalize(String location) {
+        if (location == null) {
+            return "";
+        }
+        return Normalizer.normalize(location, Normalizer.Form.NFC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private Mono<String> fetch(String location) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/currentWeather/currentWeatherResource")
+                        .queryParam("location", "{location}")
+                        .build(location))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout);
+    }
+}
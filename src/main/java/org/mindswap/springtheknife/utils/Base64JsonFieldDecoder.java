@@ -0,0 +1,205 @@
+package org.mindswap.springtheknife.utils;
+
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pulls one base64 string out of a JSON document as its bytes arrive: the first element of the array held
+ * by a top-level field, such as images[0] of a txt2img response. Everything else is skipped without being
+ * kept, and the string is decoded as it is read into a buffer sized from the response length, so the decoded
+ * bytes are the only copy held - not the response, nor the base64 text.
+ */
+public class Base64JsonFieldDecoder {
+
+    private static final int DEFAULT_CAPACITY = 64 * 1024;
+    private static final int[] BASE64_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        byte[] alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < alphabet.length; i++) {
+            BASE64_VALUES[alphabet[i]] = i;
+        }
+    }
+
+    private enum State {SCANNING, FIELD_ARRAY, DECODING, DONE}
+
+    private final byte[] field;
+    private final int maxSize;
+    private State state = State.SCANNING;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean afterColon;
+    private boolean key;
+    private int keyIndex;
+    private boolean keyMatches;
+    private boolean fieldPending;
+
+    private byte[] output;
+    private int size;
+    private int quantum;
+    private int quantumLength;
+    private boolean padded;
+
+    /**
+     * @param expectedLength the length of the whole document if known, or -1; the decoded string is at most 3/4 of it
+     */
+    public Base64JsonFieldDecoder(String field, int maxSize, long expectedLength) {
+        this.field = field.getBytes(StandardCharsets.UTF_8);
+        this.maxSize = maxSize;
+        long capacity = expectedLength < 0 ? DEFAULT_CAPACITY : expectedLength / 4 * 3 + 3;
+        this.output = new byte[(int) Math.min(capacity, maxSize)];
+    }
+
+    public void feed(ByteBuffer buffer) {
+        while (buffer.hasRemaining() && state != State.DONE) {
+            byte b = buffer.get();
+            if (state == State.DECODING) {
+                decode(b);
+            } else {
+                scan(b);
+            }
+        }
+    }
+
+    public boolean isDone() {
+        return state == State.DONE;
+    }
+
+    /**
+     * The decoded bytes, once the document has been fed up to the end of the string.
+     */
+    public byte[] finish() {
+        if (state != State.DONE) {
+            throw new DecodingException("No " + new String(field, StandardCharsets.UTF_8) + "[0] string in the response");
+        }
+        return size == output.length ? output : Arrays.copyOf(output, size);
+    }
+
+    private void scan(byte b) {
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+                keyMatches = false;
+            } else if (b == '\\') {
+                escaped = true;
+            } else if (b == '"') {
+                inString = false;
+                if (key) {
+                    fieldPending = keyMatches && keyIndex == field.length;
+                }
+            } else if (key) {
+                keyMatches = keyMatches && keyIndex < field.length && b == field[keyIndex];
+                keyIndex++;
+            }
+            return;
+        }
+        if (state == State.FIELD_ARRAY) {
+            if (b == '"') {
+                state = State.DECODING;
+            } else if (!isWhitespace(b)) {
+                throw new DecodingException(new String(field, StandardCharsets.UTF_8) + "[0] is not a string");
+            }
+            return;
+        }
+        switch (b) {
+            case '"' -> {
+                inString = true;
+                key = depth == 1 && !afterColon;
+                keyIndex = 0;
+                keyMatches = true;
+            }
+            case ':' -> afterColon = depth == 1 || afterColon;
+            case ',' -> {
+                if (depth == 1) {
+                    afterColon = false;
+                    fieldPending = false;
+                }
+            }
+            case '{', '[' -> {
+                if (depth == 1 && fieldPending && b == '[') {
+                    state = State.FIELD_ARRAY;
+                }
+                if (depth == 1) {
+                    fieldPending = false;
+                }
+                depth++;
+            }
+            case '}', ']' -> depth--;
+            default -> {
+            }
+        }
+    }
+
+    private void decode(byte b) {
+        if (b == '"' && !escaped) {
+            flush();
+            state = State.DONE;
+            return;
+        }
+        if (escaped) {
+            escaped = false;
+            // JSON may escape the slash; \n and \r are line breaks of MIME-style base64
+            if (b == 'n' || b == 'r') {
+                return;
+            }
+            if (b != '/') {
+                throw new DecodingException("Unexpected escape in base64 string");
+            }
+        } else if (b == '\\') {
+            escaped = true;
+            return;
+        }
+        if (b == '=') {
+            padded = true;
+            return;
+        }
+        int value = b >= 0 ? BASE64_VALUES[b] : -1;
+        if (value < 0 || padded) {
+            if (isWhitespace(b)) {
+                return;
+            }
+            throw new DecodingException("Illegal base64 character " + (char) b);
+        }
+        quantum = quantum << 6 | value;
+        if (++quantumLength == 4) {
+            write(quantum >> 16);
+            write(quantum >> 8);
+            write(quantum);
+            quantum = 0;
+            quantumLength = 0;
+        }
+    }
+
+    private void flush() {
+        switch (quantumLength) {
+            case 0 -> {
+            }
+            case 2 -> write(quantum >> 4);
+            case 3 -> {
+                write(quantum >> 10);
+                write(quantum >> 2);
+            }
+            default -> throw new DecodingException("Truncated base64 string");
+        }
+    }
+
+    private void write(int b) {
+        if (size == output.length) {
+            if (size == maxSize) {
+                throw new DataBufferLimitException("Decoded image exceeds " + maxSize + " bytes");
+            }
+            output = Arrays.copyOf(output, (int) Math.min((long) size * 2 + 1, maxSize));
+        }
+        output[size++] = (byte) b;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
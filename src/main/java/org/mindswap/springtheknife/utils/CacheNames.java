@@ -0,0 +1,16 @@
+package org.mindswap.springtheknife.utils;
+
+public class CacheNames {
+    public static final String RESTAURANT_BY_ID = "RestaurantById";
+    public static final String RESTAURANT_PAGES = "Restaurant";
+    public static final String CITY_BY_ID = "CityById";
+    public static final String CITY_PAGES = "City";
+    public static final String RESTAURANT_TYPE_BY_ID = "RestaurantTypeById";
+    public static final String RESTAURANT_TYPE_PAGES = "RestaurantType";
+    public static final String USER_BY_ID = "UserById";
+    public static final String USER_PAGES = "User";
+    public static final String BOOKING_BY_ID = "BookingById";
+    public static final String BOOKING_PAGES = "Booking";
+    public static final String USER_EXPERIENCE_BY_ID = "UserExperienceById";
+    public static final String USER_EXPERIENCE_PAGES = "UserExperience";
+}
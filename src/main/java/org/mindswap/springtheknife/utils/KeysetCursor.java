@@ -0,0 +1,90 @@
+package org.mindswap.springtheknife.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns a Spring Data keyset position into an opaque continuation token and back.
+ * The token carries the sort key and id of the last row served, so the next page is read with a
+ * seek predicate instead of an OFFSET. Keys are restored to the entity field types on decode.
+ */
+public class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final DefaultConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+    public static ScrollPosition decode(String cursor, String sortBy, Class<?> entityClass) throws InvalidCursorException {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, String> keys;
+        try {
+            keys = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<>() {
+            });
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException(Message.INVALID_CURSOR);
+        }
+        if (keys == null || !keys.containsKey(sortBy)) {
+            throw new InvalidCursorException(Message.CURSOR_SORT_MISMATCH);
+        }
+        Map<String, Object> keyset = new LinkedHashMap<>();
+        for (Map.Entry<String, String> key : keys.entrySet()) {
+            Field field = ReflectionUtils.findField(entityClass, key.getKey());
+            if (field == null) {
+                throw new InvalidCursorException(Message.INVALID_CURSOR);
+            }
+            keyset.put(key.getKey(), convert(key.getValue(), field.getType()));
+        }
+        return ScrollPosition.forward(keyset);
+    }
+
+    public static String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        if (!(window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position)) {
+            return null;
+        }
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((key, value) -> keys.put(key, value == null ? null : value.toString()));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object convert(String value, Class<?> type) throws InvalidCursorException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            return CONVERSION_SERVICE.convert(value, type);
+        } catch (ConversionException | DateTimeParseException e) {
+            throw new InvalidCursorException(Message.INVALID_CURSOR);
+        }
+    }
+}
@@ -71,4 +71,25 @@ public class Message {
     public static final String USERNAME_VALIDATOR = "^[a-zA-Z0-9]+([._]?[a-zA-Z0-9]+){0,19}$";
     public static final String VALID_DATE = "Insert a valid Date.";
     public static final String COMMENT_VALIDATOR = "^[^\\n]{1,250}$";
+    public static final String INVALID_CURSOR = "Invalid cursor";
+    public static final String CURSOR_SORT_MISMATCH = "Cursor was issued for a different sortBy";
+    public static final String RESTAURANT_EMAIL_TAKEN = "A restaurant with this email already exists";
+    public static final String RESTAURANT_PHONE_TAKEN = "A restaurant with this phone number already exists";
+    public static final String IMPORT_CHUNK_FAILED = "Chunk rolled back: ";
+    public static final String INVALID_RESTAURANT = "Restaurant entry is empty";
+    public static final String IMAGE_JOB_NOT_FOUND = " has no image job";
+    public static final String IMAGE_NOT_FOUND = " has no image";
+    public static final String INVALID_IMAGE_TYPE = "Only JPEG, PNG, GIF and WebP images are accepted";
+    public static final String IMAGE_TOO_LARGE = "Images can be at most ";
+    public static final String INVALID_SLOT_CAPACITY = "Slot capacity must be at least 1";
+    public static final String BOOKING_SLOT_FULL = "No tables left for this time slot";
+    public static final String INVALID_AVAILABILITY_RANGE = "The availability range must end after it starts and span at most ";
+    public static final String INVALID_GEO_POINT = "Latitude must be between -90 and 90 and longitude between -180 and 180";
+    public static final String INVALID_GEO_RADIUS = "Radius must be greater than 0 and at most ";
+    public static final String INVALID_GEO_LIMIT = "Limit must be between 1 and ";
+    public static final String INVALID_SEARCH_QUERY = "Search query must contain between 1 and ";
+    public static final String INVALID_SEARCH_LIMIT = "Limit must be between 1 and ";
+    public static final String PARKING_UNAVAILABLE = "Parking data is unavailable right now";
+    public static final String WEATHER_UNAVAILABLE = "Weather data is unavailable right now";
+    public static final String INVALID_LOCATION = "Location must be between 1 and 100 characters";
 }
@@ -0,0 +1,16 @@
+package org.mindswap.springtheknife.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request to the annotated endpoint may run, whatever the size of the data it
+ * returns. Going over it is logged, and fails the request when theknife.query-count.enforce is set.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,41 @@
+package org.mindswap.springtheknife.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and
+ * {@link #stop()}. Registered as the session factory's statement inspector, so every query, insert and
+ * lazy load goes through {@link #inspect(String)}; statements run outside a counted scope, e.g. by
+ * scheduled jobs, are not counted.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        COUNT.set(new long[1]);
+    }
+
+    /**
+     * The number of statements since {@link #start()}, or -1 when the thread is not counting.
+     */
+    public static long current() {
+        long[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    public static long stop() {
+        long statements = current();
+        COUNT.remove();
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
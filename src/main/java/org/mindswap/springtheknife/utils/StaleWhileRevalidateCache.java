@@ -0,0 +1,85 @@
+package org.mindswap.springtheknife.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache in front of a slow or flaky upstream:
+ * <ul>
+ *     <li>younger than refreshAfter, a value is served as is;</li>
+ *     <li>up to expireAfter it is still served, and a reload starts in the background;</li>
+ *     <li>past that, the caller waits for a reload, but if the reload fails the old value is served for
+ *     another staleIfError.</li>
+ * </ul>
+ * Concurrent loads of the same key share one upstream call.
+ */
+public class StaleWhileRevalidateCache<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    private final Function<K, Mono<V>> loader;
+    private final long refreshAfterNanos;
+    private final long expireAfterNanos;
+    private final Ticker ticker;
+    private final Cache<K, Entry<V>> entries;
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public StaleWhileRevalidateCache(Function<K, Mono<V>> loader, Duration refreshAfter, Duration expireAfter,
+                                     Duration staleIfError, long maximumSize, Ticker ticker) {
+        this.loader = loader;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.expireAfterNanos = expireAfter.toNanos();
+        this.ticker = ticker;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfter.plus(staleIfError))
+                .ticker(ticker)
+                .build();
+    }
+
+    public Mono<V> get(K key) {
+        Entry<V> entry = entries.getIfPresent(key);
+        if (entry != null) {
+            long age = ticker.read() - entry.loadedAt();
+            if (age < refreshAfterNanos) {
+                return Mono.just(entry.value());
+            }
+            if (age < expireAfterNanos) {
+                load(key).subscribe(value -> {
+                }, e -> logger.warn("Background refresh of {} failed, serving the cached value: {}", key, e.getMessage()));
+                return Mono.just(entry.value());
+            }
+        }
+        return load(key).onErrorResume(e -> {
+            if (entry == null) {
+                return Mono.error(e);
+            }
+            logger.warn("Reload of {} failed, serving a value loaded {}s ago: {}", key,
+                    Duration.ofNanos(ticker.read() - entry.loadedAt()).toSeconds(), e.getMessage());
+            return Mono.just(entry.value());
+        });
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    private Mono<V> load(K key) {
+        return inFlight.computeIfAbsent(key, k -> Mono.defer(() -> loader.apply(k))
+                .doOnNext(value -> entries.put(k, new Entry<>(value, ticker.read())))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -14,6 +14,7 @@ import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.dto.user.UserGetDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.model.Address;
 import org.mindswap.springtheknife.repository.BookingRepository;
@@ -183,7 +184,7 @@ public class BookingControllerTest {
     }
 
     @Test
-    void testPatchBooking() throws BookingNotFoundException, OperationNotAllowedException {
+    void testPatchBooking() throws BookingNotFoundException, OperationNotAllowedException, BookingSlotFullException {
 
         Long id = 1L;
         LocalDateTime bookingTime = LocalDateTime.now();
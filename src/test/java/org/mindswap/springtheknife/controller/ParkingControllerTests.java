@@ -2,12 +2,23 @@ package org.mindswap.springtheknife.controller;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
+import org.mindswap.springtheknife.service.parking.ParkingService;
+import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
 
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -17,6 +28,9 @@ public class ParkingControllerTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockBean
+    private ParkingService parkingService;
+
     @Test
     void contextLoads() {
 
@@ -27,9 +41,25 @@ public class ParkingControllerTests {
     void testGetParkingData() throws Exception {
         // Arrange
         Integer limit = 10;
+        when(parkingService.getParkingRecords(limit)).thenReturn(Mono.just(List.of()));
 
         // Act and Assert
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/parking/checkParking/" + limit))
-                .andExpect(status().isOk());
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/parking/checkParking/" + limit))
+                .andExpect(status().isOk())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    @DisplayName("Test Get Parking Data when the upstream is down and nothing is cached")
+    void testGetParkingDataUnavailable() throws Exception {
+        when(parkingService.getParkingRecords(10)).thenReturn(Mono.error(new UpstreamUnavailableException(Message.PARKING_UNAVAILABLE)));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/parking/checkParking/10")).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(Message.PARKING_UNAVAILABLE));
     }
 }
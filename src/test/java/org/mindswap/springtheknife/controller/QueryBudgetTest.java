@@ -0,0 +1,92 @@
+package org.mindswap.springtheknife.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.aspects.QueryCountHeaderAdvice;
+import org.mindswap.springtheknife.config.QueryCountFilter;
+import org.mindswap.springtheknife.exceptions.querycount.QueryBudgetExceededException;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.utils.QueryBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.cache.type=none")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Test an endpoint over its query budget fails the request")
+    void testOverBudget() {
+        Exception exception = assertThrows(Exception.class, () -> mockMvc.perform(get("/test/query-budget/over")));
+        assertTrue(exception instanceof QueryBudgetExceededException || exception.getCause() instanceof QueryBudgetExceededException,
+                exception.toString());
+    }
+
+    @Test
+    @DisplayName("Test an endpoint within its query budget answers with its query count")
+    void testWithinBudget() throws Exception {
+        mockMvc.perform(get("/test/query-budget/within"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryCountHeaderAdvice.HEADER, "2"));
+
+        DistributionSummary summary = meterRegistry.find(QueryCountFilter.METRIC)
+                .tag("method", "GET")
+                .tag("uri", "/test/query-budget/within")
+                .summary();
+        assertNotNull(summary);
+        assertTrue(summary.count() >= 1);
+        assertEquals(2, summary.max());
+    }
+
+    @TestConfiguration
+    static class BudgetedEndpoints {
+
+        @Bean
+        BudgetedController budgetedController(CityRepository cityRepository) {
+            return new BudgetedController(cityRepository);
+        }
+    }
+
+    @RestController
+    static class BudgetedController {
+
+        private final CityRepository cityRepository;
+
+        BudgetedController(CityRepository cityRepository) {
+            this.cityRepository = cityRepository;
+        }
+
+        @GetMapping("/test/query-budget/over")
+        @QueryBudget(1)
+        long over() {
+            return cityRepository.count() + cityRepository.count();
+        }
+
+        @GetMapping("/test/query-budget/within")
+        @QueryBudget(2)
+        long within() {
+            return cityRepository.count() + cityRepository.count();
+        }
+    }
+}
@@ -5,12 +5,19 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mindswap.springtheknife.dto.CursorPageDto;
+import org.mindswap.springtheknife.dto.restaurant.NearbyRestaurantDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantSearchResultDto;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.model.Address;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -207,4 +214,92 @@ public class RestaurantControllerTests {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(content().string(expectedAverageRating.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test scroll restaurants returns the page and the next cursor")
+    void testScrollRestaurants() throws Exception {
+        List<RestaurantGetDto> restaurants = new ArrayList<>();
+        restaurants.add(new RestaurantGetDto("Porto", "Pizza", "pizza@ge.com", new Address(), "+351219879876", 0.0, new HashSet<>()));
+
+        when(restaurantService.scrollRestaurants("abc", 1, "name")).thenReturn(new CursorPageDto<>(restaurants, "next"));
+
+        mockMvc.perform(get("/api/v1/restaurants/scroll")
+                        .param("cursor", "abc")
+                        .param("pageSize", "1")
+                        .param("sortBy", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].name", is("Pizza")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    @DisplayName("Test scroll restaurants with an invalid cursor")
+    void testScrollRestaurantsInvalidCursor() throws Exception {
+        when(restaurantService.scrollRestaurants("bad", 10, "id")).thenThrow(new InvalidCursorException(Message.INVALID_CURSOR));
+
+        mockMvc.perform(get("/api/v1/restaurants/scroll").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(Message.INVALID_CURSOR));
+    }
+
+    @Test
+    @DisplayName("Test find nearby restaurants")
+    void testFindNearbyRestaurants() throws Exception {
+        RestaurantGetDto pizza = new RestaurantGetDto("Porto", "Pizza", "pizza@ge.com", new Address(), "+351219879876", 0.0, new HashSet<>());
+        when(restaurantService.findNearbyRestaurants(41.15, -8.61, 2.0, 5, 1L, null))
+                .thenReturn(List.of(new NearbyRestaurantDto(4L, 0.3, pizza)));
+
+        mockMvc.perform(get("/api/v1/restaurants/nearby")
+                        .param("lat", "41.15")
+                        .param("lon", "-8.61")
+                        .param("radiusKm", "2")
+                        .param("limit", "5")
+                        .param("cityId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].restaurantId", is(4)))
+                .andExpect(jsonPath("$[0].restaurant.name", is("Pizza")));
+    }
+
+    @Test
+    @DisplayName("Test find nearby restaurants with an invalid radius")
+    void testFindNearbyRestaurantsInvalidRadius() throws Exception {
+        when(restaurantService.findNearbyRestaurants(41.15, -8.61, 500.0, 10, null, null))
+                .thenThrow(new InvalidGeoQueryException(Message.INVALID_GEO_RADIUS + "50.0 km"));
+
+        mockMvc.perform(get("/api/v1/restaurants/nearby")
+                        .param("lat", "41.15")
+                        .param("lon", "-8.61")
+                        .param("radiusKm", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Test search restaurants")
+    void testSearchRestaurants() throws Exception {
+        RestaurantGetDto pizza = new RestaurantGetDto("Porto", "Pizza", "pizza@ge.com", new Address(), "+351219879876", 0.0, new HashSet<>());
+        when(restaurantService.searchRestaurants("piza porto", 5))
+                .thenReturn(List.of(new RestaurantSearchResultDto(4L, 4, pizza)));
+
+        mockMvc.perform(get("/api/v1/restaurants/search")
+                        .param("q", "piza porto")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].restaurantId", is(4)))
+                .andExpect(jsonPath("$[0].score", is(4)))
+                .andExpect(jsonPath("$[0].restaurant.name", is("Pizza")));
+    }
+
+    @Test
+    @DisplayName("Test search restaurants with an empty query")
+    void testSearchRestaurantsEmptyQuery() throws Exception {
+        when(restaurantService.searchRestaurants(" ", 10))
+                .thenThrow(new InvalidSearchQueryException(Message.INVALID_SEARCH_QUERY + "8 words"));
+
+        mockMvc.perform(get("/api/v1/restaurants/search")
+                        .param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -5,11 +5,23 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mindswap.springtheknife.Enum.ImageJobStatus;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageDto;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageNotFoundException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageJobService;
 import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService.ImageFile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,10 +29,20 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -33,6 +55,9 @@ public class RestaurantImageControllerTests {
     @Autowired
     private WebApplicationContext webApplicationContext;
 
+    @MockBean
+    private RestaurantImageJobService restaurantImageJobService;
+
     @MockBean
     private RestaurantRepository restaurantRepository;
 
@@ -73,4 +98,115 @@ public class RestaurantImageControllerTests {
                 .andExpect(content().string("File uploaded successfully"));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test streaming an image as the request body")
+    void testStreamUpload() throws Exception {
+        when(restaurantImageService.uploadImage(eq(1L), any(InputStream.class))).thenReturn(new RestaurantImageDto(5L, 1L, "abc", 3));
+
+        mockMvc.perform(put("/api/v1/restaurants/img/{id}", 1L).contentType(MediaType.IMAGE_JPEG).content(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(5))
+                .andExpect(jsonPath("$.contentHash").value("abc"));
+    }
+
+    @Test
+    @DisplayName("Test streaming a body that is not an image or is too large")
+    void testStreamUploadRejected() throws Exception {
+        when(restaurantImageService.uploadImage(eq(1L), any(InputStream.class))).thenThrow(new InvalidImageException("not an image"));
+        when(restaurantImageService.uploadImage(eq(2L), any(InputStream.class))).thenThrow(new ImageTooLargeException("too large"));
+
+        mockMvc.perform(put("/api/v1/restaurants/img/{id}", 1L).contentType(MediaType.APPLICATION_OCTET_STREAM).content("some xml".getBytes()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put("/api/v1/restaurants/img/{id}", 2L).contentType(MediaType.IMAGE_PNG).content(new byte[16]))
+                .andExpect(status().isPayloadTooLarge());
+        mockMvc.perform(put("/api/v1/restaurants/img/{id}", 1L).contentType(MediaType.TEXT_PLAIN).content("some xml".getBytes()))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @DisplayName("Test get image job status")
+    void testGetImageJobStatus() throws Exception {
+        when(restaurantImageJobService.getJob(1L)).thenReturn(new RestaurantImageJobDto(1L, ImageJobStatus.PENDING, 0, null, null, null));
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}/status", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("Test get image job status when restaurant has no job")
+    void testGetImageJobStatusNotFound() throws Exception {
+        when(restaurantImageJobService.getJob(2L)).thenThrow(new ImageJobNotFoundException("2 has no image job"));
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}/status", 2L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Test get image streams the file with caching headers")
+    void testGetImage(@TempDir Path directory) throws Exception {
+        ImageFile image = imageFile(directory);
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, image.eTag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=2592000, public"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(Files.readAllBytes(image.path())));
+    }
+
+    @Test
+    @DisplayName("Test get image answers a matching conditional request with 304")
+    void testGetImageNotModified(@TempDir Path directory) throws Exception {
+        ImageFile image = imageFile(directory);
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, image.eTag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Test get image serves the requested byte range")
+    void testGetImageRange(@TempDir Path directory) throws Exception {
+        imageFile(directory);
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 1L).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes(new byte[]{2, 3, 4, 5}));
+    }
+
+    @Test
+    @DisplayName("Test get image passes the requested width to the service")
+    void testGetImageWidth(@TempDir Path directory) throws Exception {
+        Path path = Files.write(directory.resolve("320.jpg"), new byte[]{1, 2, 3});
+        when(restaurantImageService.getImageFile(1L, 300))
+                .thenReturn(new ImageFile(path, 3, Files.getLastModifiedTime(path).toMillis(), "\"abc-320\"", MediaType.IMAGE_JPEG));
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 1L).param("width", "300"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-320\""))
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("Test get image when restaurant has no image")
+    void testGetImageNotFound() throws Exception {
+        when(restaurantImageService.getImageFile(2L, null)).thenThrow(new ImageNotFoundException("2 has no image"));
+
+        mockMvc.perform(get("/api/v1/restaurants/img/{id}", 2L))
+                .andExpect(status().isNotFound());
+    }
+
+    private ImageFile imageFile(Path directory) throws Exception {
+        Path path = Files.write(directory.resolve("rest_default.png"), new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        ImageFile image = new ImageFile(path, 10, Files.getLastModifiedTime(path).toMillis(), "\"a-1\"", MediaType.IMAGE_PNG);
+        when(restaurantImageService.getImageFile(1L, null)).thenReturn(image);
+        return image;
+    }
+}
@@ -0,0 +1,195 @@
+package org.mindswap.springtheknife.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.aspects.QueryCountHeaderAdvice;
+import org.mindswap.springtheknife.dto.city.CityDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserCreateDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.UserExperience;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.repository.UserExperienceRepository;
+import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportService;
+import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each read endpoint runs against a graph with several restaurants, favorites,
+ * bookings and reviews per page. The bounds do not depend on the number of rows, so an association that
+ * starts loading one row at a time (N+1) fails here instead of in production. The X-Query-Count header
+ * must agree with Hibernate's own statistics.
+ */
+@SpringBootTest(properties = {
+        "spring.cache.type=none",
+        "spring.jpa.open-in-view=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureMockMvc
+class SqlStatementCountTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final int RESTAURANTS = 6;
+    private static final int USERS = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CityServiceImpl cityService;
+    @Autowired
+    private RestaurantTypeServiceImpl restaurantTypeService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private RestaurantImportService restaurantImportService;
+    @Autowired
+    private CityRepository cityRepository;
+    @Autowired
+    private RestaurantTypeRepository restaurantTypeRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private UserExperienceRepository userExperienceRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Long cityId;
+    private Long restaurantId;
+    private Long userId;
+    private Long bookingId;
+    private Long userExperienceId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = "sql" + SEQUENCE.incrementAndGet() + System.nanoTime();
+
+        cityService.createCity(new CityDto("Porto" + suffix));
+        cityId = cityRepository.findByName("Porto" + suffix).orElseThrow().getId();
+        Set<Long> restaurantTypeIds = new HashSet<>();
+        for (String type : List.of("Italian", "Japanese")) {
+            restaurantTypeService.addRestaurantType(new RestaurantTypeDto(null, type + suffix));
+            restaurantTypeIds.add(restaurantTypeRepository.findByType(type + suffix).orElseThrow().getId());
+        }
+
+        List<RestaurantPostDto> restaurants = new ArrayList<>();
+        for (int i = 0; i < RESTAURANTS; i++) {
+            String email = "r" + i + suffix + "@ge.com";
+            restaurants.add(new RestaurantPostDto("Restaurant " + i, new Address(), email,
+                    String.format("+3512%08d", Math.floorMod(email.hashCode(), 100_000_000)), 41.15, -8.61, cityId, restaurantTypeIds));
+        }
+        List<Long> restaurantIds = restaurantImportService.importRestaurants(restaurants, null).rows().stream()
+                .map(row -> row.restaurantId())
+                .toList();
+        restaurantId = restaurantIds.get(0);
+
+        for (int i = 0; i < USERS; i++) {
+            String userName = "u" + i + suffix;
+            userService.createUser(new UserCreateDto(userName, "secret", userName + "@ge.com", "Ana", "Silva",
+                    LocalDate.of(1990, 1, 1), Set.copyOf(restaurantIds.subList(i, i + 3))));
+            Long id = userRepository.findByUserName(userName).orElseThrow().getId();
+            Long restaurant = restaurantIds.get(i);
+            bookingId = transactionTemplate.execute(tx -> bookingRepository.save(Booking.builder()
+                    .user(userRepository.findById(id).orElseThrow())
+                    .restaurant(restaurantRepository.findById(restaurant).orElseThrow())
+                    .bookingTime(LocalDateTime.now().minusDays(1))
+                    .status(BookingStatus.COMPLETE)
+                    .build()).getId());
+            Long booking = bookingId;
+            userExperienceId = transactionTemplate.execute(tx -> userExperienceRepository.save(UserExperience.builder()
+                    .user(userRepository.findById(id).orElseThrow())
+                    .restaurant(restaurantRepository.findById(restaurant).orElseThrow())
+                    .booking(bookingRepository.findById(booking).orElseThrow())
+                    .rating(4.0)
+                    .comment("Good")
+                    .timestamp(LocalDateTime.now())
+                    .build()).getId());
+            userId = id;
+        }
+    }
+
+    @Test
+    @DisplayName("Test restaurant reads run a constant number of statements")
+    void testRestaurantStatements() throws Exception {
+        assertStatements("/api/v1/restaurants/" + restaurantId, 1);
+        assertStatements("/api/v1/restaurants/?pageSize=50&sortBy=id", 1);
+        assertStatements("/api/v1/restaurants/scroll?pageSize=50&sortBy=id", 1);
+    }
+
+    @Test
+    @DisplayName("Test city reads run a constant number of statements")
+    void testCityStatements() throws Exception {
+        assertStatements("/api/v1/cities/" + cityId, 1);
+        assertStatements("/api/v1/cities/?pageSize=50&sortBy=id", 3);
+        assertStatements("/api/v1/cities/scroll?pageSize=50&sortBy=id", 3);
+    }
+
+    @Test
+    @DisplayName("Test user reads run a constant number of statements")
+    void testUserStatements() throws Exception {
+        assertStatements("/api/v1/users/" + userId, 1);
+        assertStatements("/api/v1/users/?pageSize=50&sortBy=id", 4);
+        assertStatements("/api/v1/users/scroll?pageSize=50&sortBy=id", 4);
+    }
+
+    @Test
+    @DisplayName("Test booking reads run a constant number of statements")
+    void testBookingStatements() throws Exception {
+        assertStatements("/api/v1/bookings/" + bookingId, 2);
+        assertStatements("/api/v1/bookings/?pageSize=50&sortBy=id", 3);
+        assertStatements("/api/v1/bookings/scroll?pageSize=50&sortBy=id", 3);
+    }
+
+    @Test
+    @DisplayName("Test user experience reads run a constant number of statements")
+    void testUserExperienceStatements() throws Exception {
+        assertStatements("/api/v1/userexperiences/" + userExperienceId, 2);
+        assertStatements("/api/v1/userexperiences/?pageSize=50&sortBy=id", 3);
+        assertStatements("/api/v1/userexperiences/scroll?pageSize=50&sortBy=id", 3);
+    }
+
+    private void assertStatements(String url, long maximum) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(String.valueOf(statements), result.getResponse().getHeader(QueryCountHeaderAdvice.HEADER));
+        assertTrue(statements <= maximum, url + " ran " + statements + " statements, expected at most " + maximum);
+    }
+}
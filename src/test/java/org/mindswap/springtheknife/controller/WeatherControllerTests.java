@@ -2,12 +2,21 @@ package org.mindswap.springtheknife.controller;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.exceptions.weather.InvalidLocationException;
+import org.mindswap.springtheknife.service.weather.WeatherService;
+import org.mindswap.springtheknife.utils.Message;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
 
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -17,6 +26,9 @@ public class WeatherControllerTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @MockBean
+    private WeatherService weatherService;
+
     @Test
     void contextLoads() {
 
@@ -26,9 +38,26 @@ public class WeatherControllerTests {
     @DisplayName("Test get current weather data")
     public void testGetCurrentWeatherData() throws Exception {
         String location = "London";
+        when(weatherService.getCurrentWeather(location)).thenReturn(Mono.just("{\"temperature\":12}"));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/weather/currentWeather/")
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/weather/currentWeather/")
                         .param("location", location))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"temperature\":12}"));
+    }
+
+    @Test
+    @DisplayName("Test get current weather data for a blank location")
+    public void testGetCurrentWeatherDataInvalidLocation() throws Exception {
+        when(weatherService.getCurrentWeather(" ")).thenReturn(Mono.error(new InvalidLocationException(Message.INVALID_LOCATION)));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/weather/currentWeather/")
+                        .param("location", " "))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.User;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityServiceImpl;
+import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
+import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires parallel bookings through the real admission path (booking service plus occupancy index) with the
+ * database stubbed out, and checks that no slot ends up over capacity.
+ */
+@SpringBootTest
+class BookingAdmissionStressTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 5000;
+    private static final LocalDateTime DINNER = LocalDate.now().plusDays(1).atTime(20, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private UserServiceImpl userService;
+    @Mock
+    private RestaurantServiceImpl restaurantService;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+
+    private BookingServiceImpl bookingService;
+    private final Map<Long, AtomicInteger> savedPerRestaurant = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        BookingAvailabilityServiceImpl bookingAvailabilityService = new BookingAvailabilityServiceImpl(bookingRepository, restaurantRepository,
+                30, 10, "12:00", "23:00", 14, 64);
+        bookingService = new BookingServiceImpl(bookingRepository, userService, restaurantService, bookingAvailabilityService, cacheInvalidationService, restaurantSummaryService);
+        when(userService.getUserById(anyLong())).thenReturn(new User());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            savedPerRestaurant.computeIfAbsent(booking.getRestaurant().getId(), id -> new AtomicInteger()).incrementAndGet();
+            return booking;
+        });
+    }
+
+    @Test
+    @DisplayName("Test thousands of parallel bookings for one slot never exceed its capacity")
+    void testHotSlotIsNeverOverbooked() throws Exception {
+        restaurant(1L, 10);
+
+        Result result = fire(i -> 1L);
+
+        assertEquals(10, result.admitted());
+        assertEquals(REQUESTS - 10, result.rejected());
+        assertEquals(10, savedPerRestaurant.get(1L).get());
+    }
+
+    @Test
+    @DisplayName("Test parallel bookings spread over many restaurants respect every capacity")
+    void testManyRestaurantsRespectCapacity() throws Exception {
+        int restaurants = 64;
+        int capacity = 50;
+        for (long id = 1; id <= restaurants; id++) {
+            restaurant(id, capacity);
+        }
+
+        Result result = fire(i -> (long) (i % restaurants) + 1);
+
+        assertEquals(restaurants * capacity, result.admitted());
+        savedPerRestaurant.values().forEach(saved -> assertTrue(saved.get() <= capacity));
+    }
+
+    private Result fire(java.util.function.IntFunction<Long> restaurantForRequest) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            Long restaurantId = restaurantForRequest.apply(i);
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    bookingService.addBooking(new BookingCreateDto(1L, restaurantId, DINNER, BookingStatus.CONFIRMED));
+                    admitted.incrementAndGet();
+                } catch (BookingSlotFullException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(REQUESTS, admitted.get() + rejected.get());
+        return new Result(admitted.get(), rejected.get());
+    }
+
+    private void restaurant(Long id, int capacity) throws Exception {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setSlotCapacity(capacity);
+        restaurant.setCity(new City());
+        restaurant.setRestaurantTypes(new ArrayList<>());
+        when(restaurantService.getById(id)).thenReturn(restaurant);
+    }
+
+    private record Result(int admitted, int rejected) {
+    }
+}
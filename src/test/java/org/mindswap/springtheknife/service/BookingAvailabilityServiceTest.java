@@ -0,0 +1,181 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.SlotAvailabilityDto;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
+import org.mindswap.springtheknife.exceptions.booking.InvalidBookingRangeException;
+import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.BookingRepository.BookedSlot;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantCapacity;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityServiceImpl;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mindswap.springtheknife.service.TransactionTestSupport.inTransaction;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class BookingAvailabilityServiceTest {
+
+    private static final LocalDateTime DINNER = LocalDate.now().plusDays(1).atTime(20, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private BookingAvailabilityServiceImpl bookingAvailabilityService;
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        bookingAvailabilityService = new BookingAvailabilityServiceImpl(bookingRepository, restaurantRepository,
+                30, 10, "12:00", "23:00", 14, 16);
+        restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setSlotCapacity(2);
+        RestaurantCapacity capacity = Mockito.mock(RestaurantCapacity.class);
+        when(capacity.getSlotCapacity()).thenReturn(2);
+        when(restaurantRepository.findCapacityById(1L)).thenReturn(Optional.of(capacity));
+
+        List<BookedSlot> bookedSlots = List.of(bookedSlot(DINNER), bookedSlot(DINNER.plusMinutes(10)));
+        when(bookingRepository.findBookedSlotsFrom(any())).thenReturn(bookedSlots);
+        bookingAvailabilityService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Test availability is built from the stored bookings, bucketed by slot")
+    void testGetAvailability() throws RestaurantNotFoundException, InvalidBookingRangeException {
+        List<SlotAvailabilityDto> slots = bookingAvailabilityService.getAvailability(1L, DINNER.minusMinutes(30), DINNER.plusMinutes(60));
+
+        assertEquals(3, slots.size());
+        assertEquals(new SlotAvailabilityDto(DINNER.minusMinutes(30), 2, 0, 2), slots.get(0));
+        assertEquals(new SlotAvailabilityDto(DINNER, 2, 2, 0), slots.get(1));
+        assertEquals(new SlotAvailabilityDto(DINNER.plusMinutes(30), 2, 0, 2), slots.get(2));
+    }
+
+    @Test
+    @DisplayName("Test slots outside opening hours are not offered")
+    void testGetAvailabilityOutsideOpeningHours() throws RestaurantNotFoundException, InvalidBookingRangeException {
+        List<SlotAvailabilityDto> slots = bookingAvailabilityService.getAvailability(1L, DINNER.withHour(22), DINNER.plusDays(1).withHour(13));
+
+        assertEquals(List.of(DINNER.withHour(22), DINNER.withHour(22).plusMinutes(30),
+                        DINNER.plusDays(1).withHour(12), DINNER.plusDays(1).withHour(12).plusMinutes(30)),
+                slots.stream().map(SlotAvailabilityDto::slotStart).toList());
+    }
+
+    @Test
+    @DisplayName("Test a full slot rejects new bookings until one is cancelled")
+    void testAdmit() throws BookingSlotFullException {
+        assertThrows(BookingSlotFullException.class,
+                () -> bookingAvailabilityService.admit(restaurant, null, BookingStatus.CANCELED, DINNER.plusMinutes(5), BookingStatus.CONFIRMED));
+
+        bookingAvailabilityService.admit(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER, BookingStatus.CANCELED);
+
+        bookingAvailabilityService.admit(restaurant, null, BookingStatus.CANCELED, DINNER, BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Test moving a booking inside its own full slot is allowed")
+    void testAdmitSameSlot() throws BookingSlotFullException, RestaurantNotFoundException, InvalidBookingRangeException {
+        bookingAvailabilityService.admit(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER.plusMinutes(15), BookingStatus.CONFIRMED);
+
+        assertEquals(2, bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.plusMinutes(30)).get(0).booked());
+    }
+
+    @Test
+    @DisplayName("Test revert gives back the seat taken by admit")
+    void testRevert() throws BookingSlotFullException, RestaurantNotFoundException, InvalidBookingRangeException {
+        bookingAvailabilityService.admit(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER.plusHours(1), BookingStatus.CONFIRMED);
+        bookingAvailabilityService.revert(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER.plusHours(1), BookingStatus.CONFIRMED);
+
+        List<SlotAvailabilityDto> slots = bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.plusMinutes(90));
+        assertEquals(2, slots.get(0).booked());
+        assertEquals(0, slots.get(2).booked());
+    }
+
+    @Test
+    @DisplayName("Test an admission is undone when its transaction rolls back and kept when it commits")
+    void testAdmitInTransaction() throws Throwable {
+        inTransaction(false, () -> bookingAvailabilityService.admit(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER.plusHours(1), BookingStatus.CONFIRMED));
+        assertEquals(2, booked(DINNER));
+        assertEquals(0, booked(DINNER.plusHours(1)));
+
+        inTransaction(true, () -> bookingAvailabilityService.admit(restaurant, null, BookingStatus.CANCELED, DINNER.plusHours(1), BookingStatus.CONFIRMED));
+        assertEquals(1, booked(DINNER.plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Test moving a booking frees the old slot and takes the new one")
+    void testAdmitMove() throws RestaurantNotFoundException, InvalidBookingRangeException, BookingSlotFullException {
+        bookingAvailabilityService.admit(restaurant, DINNER, BookingStatus.CONFIRMED, DINNER.plusHours(1), BookingStatus.CONFIRMED);
+
+        List<SlotAvailabilityDto> slots = bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.plusMinutes(90));
+        assertEquals(1, slots.get(0).booked());
+        assertEquals(1, slots.get(2).booked());
+    }
+
+    @Test
+    @DisplayName("Test deleting a booking frees its seat")
+    void testOnBookingRemoved() throws RestaurantNotFoundException, InvalidBookingRangeException {
+        bookingAvailabilityService.onBookingRemoved(booking(DINNER, BookingStatus.CONFIRMED));
+
+        assertEquals(1, bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.plusMinutes(30)).get(0).booked());
+    }
+
+    @Test
+    @DisplayName("Test a deleted booking keeps its seat until the delete commits, and for good if it rolls back")
+    void testOnBookingRemovedInTransaction() throws Throwable {
+        inTransaction(false, () -> {
+            bookingAvailabilityService.onBookingRemoved(booking(DINNER, BookingStatus.CONFIRMED));
+            assertEquals(2, booked(DINNER));
+        });
+        assertEquals(2, booked(DINNER));
+
+        inTransaction(true, () -> bookingAvailabilityService.onBookingRemoved(booking(DINNER, BookingStatus.CONFIRMED)));
+        assertEquals(1, booked(DINNER));
+    }
+
+    @Test
+    @DisplayName("Test an inverted or too long range is rejected")
+    void testInvalidRange() {
+        assertThrows(InvalidBookingRangeException.class, () -> bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.minusHours(1)));
+        assertThrows(InvalidBookingRangeException.class, () -> bookingAvailabilityService.getAvailability(1L, DINNER, DINNER.plusDays(15)));
+    }
+
+    private int booked(LocalDateTime slot) throws RestaurantNotFoundException, InvalidBookingRangeException {
+        return bookingAvailabilityService.getAvailability(1L, slot, slot.plusMinutes(30)).get(0).booked();
+    }
+
+    private Booking booking(LocalDateTime time, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setRestaurant(restaurant);
+        booking.setBookingTime(time);
+        booking.setStatus(status);
+        return booking;
+    }
+
+    private BookedSlot bookedSlot(LocalDateTime time) {
+        BookedSlot slot = Mockito.mock(BookedSlot.class);
+        when(slot.getRestaurantId()).thenReturn(1L);
+        when(slot.getBookingTime()).thenReturn(time);
+        return slot;
+    }
+}
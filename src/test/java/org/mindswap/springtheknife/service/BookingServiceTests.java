@@ -11,6 +11,7 @@ import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
 import org.mindswap.springtheknife.dto.booking.BookingGetDto;
 import org.mindswap.springtheknife.dto.booking.BookingPatchDto;
 import org.mindswap.springtheknife.exceptions.booking.BookingNotFoundException;
+import org.mindswap.springtheknife.exceptions.booking.BookingSlotFullException;
 import org.mindswap.springtheknife.exceptions.booking.OperationNotAllowedException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFoundException;
@@ -20,11 +21,14 @@ import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.model.Restaurant;
 import org.mindswap.springtheknife.model.User;
 import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityService;
 import org.mindswap.springtheknife.service.booking.BookingService;
 import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -66,6 +70,12 @@ public class BookingServiceTests {
     @Mock
     private RestaurantTypeServiceImpl restaurantTypeService;
     @Mock
+    private BookingAvailabilityService bookingAvailabilityService;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+    @Mock
     private BookingStatus CONFIRMED;
 
     @BeforeAll
@@ -119,16 +129,17 @@ public class BookingServiceTests {
         BookingRepository bookingRepository = mock(BookingRepository.class);
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
 
-        BookingService bookingService = new BookingServiceImpl(bookingRepository, userService, restaurantService);
+        BookingService bookingService = new BookingServiceImpl(bookingRepository, userService, restaurantService, bookingAvailabilityService, cacheInvalidationService, restaurantSummaryService);
 
         assertDoesNotThrow(() -> bookingService.deleteBooking(bookingId));
 
         verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, times(1)).deleteById(bookingId);
+        verify(bookingAvailabilityService, times(1)).onBookingRemoved(booking);
     }
 
     @Test
-    void testAddBooking() throws UserNotFoundException, RestaurantNotFoundException, RestaurantTypeNotFoundException {
+    void testAddBooking() throws UserNotFoundException, RestaurantNotFoundException, RestaurantTypeNotFoundException, BookingSlotFullException {
         BookingCreateDto bookingCreateDto = new BookingCreateDto(1L, 1L, LocalDateTime.now(), BookingStatus.CONFIRMED);
 
         User user = new User();
@@ -149,6 +160,20 @@ public class BookingServiceTests {
         verify(bookingRepository, times(1)).save(any(Booking.class));
         verify(userService, times(1)).getUserById(1L);
         verify(restaurantService, times(1)).getById(1L);
+        verify(bookingAvailabilityService, times(1)).admit(restaurant, null, BookingStatus.CANCELED, bookingCreateDto.bookingTime(), BookingStatus.CONFIRMED);
+    }
+
+    @Test
+    void testAddBookingWhenSlotIsFull() throws RestaurantNotFoundException, BookingSlotFullException {
+        BookingCreateDto bookingCreateDto = new BookingCreateDto(1L, 1L, LocalDateTime.now(), BookingStatus.CONFIRMED);
+        Restaurant restaurant = new Restaurant();
+        when(restaurantService.getById(1L)).thenReturn(restaurant);
+        doThrow(new BookingSlotFullException("full")).when(bookingAvailabilityService)
+                .admit(restaurant, null, BookingStatus.CANCELED, bookingCreateDto.bookingTime(), BookingStatus.CONFIRMED);
+
+        assertThrows(BookingSlotFullException.class, () -> bookingService.addBooking(bookingCreateDto));
+
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -172,14 +197,14 @@ public class BookingServiceTests {
         existingBooking.setUser(user);
         existingBooking.setRestaurant(restaurant);
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(existingBooking));
+        when(bookingRepository.findDetailById(bookingId)).thenReturn(Optional.of(existingBooking));
 
         BookingGetDto result = bookingService.getBookingById(bookingId);
 
         assertEquals(existingBooking.getId(), result.id());
         assertEquals(user.getId(), result.user().userId());
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findDetailById(bookingId);
         verifyNoMoreInteractions(bookingRepository);
     }
 
@@ -188,18 +213,18 @@ public class BookingServiceTests {
 
         long bookingId = 1L;
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findDetailById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(BookingNotFoundException.class, () -> {
             bookingService.getBookingById(bookingId);
         });
 
-        verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingRepository, times(1)).findDetailById(bookingId);
         verifyNoMoreInteractions(bookingRepository);
     }
 
     @Test
-    void testPatchBooking() throws BookingNotFoundException, RestaurantNotFoundException, UserNotFoundException, OperationNotAllowedException {
+    void testPatchBooking() throws BookingNotFoundException, RestaurantNotFoundException, UserNotFoundException, OperationNotAllowedException, BookingSlotFullException {
         long bookingId = 1L;
 
         User user = new User();
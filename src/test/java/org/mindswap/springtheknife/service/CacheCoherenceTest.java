@@ -0,0 +1,193 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.BookingPatchDto;
+import org.mindswap.springtheknife.dto.city.CityDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserCreateDto;
+import org.mindswap.springtheknife.dto.user.UserPatchDto;
+import org.mindswap.springtheknife.dto.userexperience.UserExperienceCreateDto;
+import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.Booking;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
+import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportService;
+import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.service.userexperience.UserExperienceServiceImpl;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads through the real cached services, writes, and reads again: the second read must see the write.
+ */
+@SpringBootTest(properties = "spring.cache.type=simple")
+class CacheCoherenceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private RestaurantServiceImpl restaurantService;
+    @Autowired
+    private CityServiceImpl cityService;
+    @Autowired
+    private RestaurantTypeServiceImpl restaurantTypeService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private UserExperienceServiceImpl userExperienceService;
+    @Autowired
+    private RestaurantImportService restaurantImportService;
+    @Autowired
+    private CityRepository cityRepository;
+    @Autowired
+    private RestaurantTypeRepository restaurantTypeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long cityId;
+    private Long restaurantTypeId;
+    private Long restaurantId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        suffix = String.valueOf(SEQUENCE.incrementAndGet());
+        String cityName = "Porto" + suffix;
+        cityService.createCity(new CityDto(cityName));
+        cityId = cityRepository.findByName(cityName).orElseThrow().getId();
+        restaurantTypeService.addRestaurantType(new RestaurantTypeDto(null, "Italian" + suffix));
+        restaurantTypeId = restaurantTypeRepository.findByType("Italian" + suffix).orElseThrow().getId();
+        restaurantId = addRestaurant("pizza" + suffix + "@ge.com");
+    }
+
+    @Test
+    @DisplayName("Test a patched or deleted restaurant is not served from the cache")
+    void testRestaurantPatchAndDelete() throws Exception {
+        assertEquals("pizza" + suffix + "@ge.com", restaurantService.getRestaurant(restaurantId).email());
+        assertNotNull(cacheManager.getCache(CacheNames.RESTAURANT_BY_ID).get(restaurantId));
+
+        restaurantService.patchRestaurant(restaurantId, new RestaurantPatchDto(null, "pasta" + suffix + "@ge.com", null));
+        assertEquals("pasta" + suffix + "@ge.com", restaurantService.getRestaurant(restaurantId).email());
+
+        restaurantService.deleteRestaurant(restaurantId);
+        assertThrows(RestaurantNotFoundException.class, () -> restaurantService.getRestaurant(restaurantId));
+    }
+
+    @Test
+    @DisplayName("Test a cached restaurant page shows a restaurant imported after it was cached")
+    void testRestaurantPagesAfterCreate() {
+        int before = restaurantService.getAllRestaurants(0, 1000, "id").size();
+
+        addRestaurant("sushi" + suffix + "@ge.com");
+
+        assertEquals(before + 1, restaurantService.getAllRestaurants(0, 1000, "id").size());
+    }
+
+    @Test
+    @DisplayName("Test renaming a city refreshes the restaurants that embed its name")
+    void testCityRenameRefreshesRestaurant() throws Exception {
+        assertEquals("Porto" + suffix, restaurantService.getRestaurant(restaurantId).cityName());
+
+        cityService.updateCity(cityId, City.builder().name("Braga" + suffix).build());
+
+        assertEquals("Braga" + suffix, restaurantService.getRestaurant(restaurantId).cityName());
+        assertEquals("Braga" + suffix, cityService.getCity(cityId).name());
+    }
+
+    @Test
+    @DisplayName("Test a patched restaurant type is fresh by id and inside its restaurants")
+    void testRestaurantTypePatch() throws Exception {
+        assertEquals("Italian" + suffix, restaurantTypeService.getRestaurantTypeById(restaurantTypeId).type());
+        restaurantService.getRestaurant(restaurantId);
+
+        restaurantTypeService.patchRestaurantType(restaurantTypeId, new RestaurantTypeDto(null, "Napolitan" + suffix));
+
+        assertEquals("Napolitan" + suffix, restaurantTypeService.getRestaurantTypeById(restaurantTypeId).type());
+        assertEquals(Set.of("Napolitan" + suffix), restaurantService.getRestaurant(restaurantId).restaurantTypes().stream()
+                .map(RestaurantTypeDto::type).collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("Test a patched user and a patched booking are fresh on the next read")
+    void testUserAndBookingPatch() throws Exception {
+        Long userId = addUser();
+        assertEquals("ana" + suffix, userService.getUser(userId).userName());
+        Long bookingId = addBooking(userId, BookingStatus.CONFIRMED);
+        assertEquals(BookingStatus.CONFIRMED, bookingService.getBookingById(bookingId).status());
+
+        userService.updateUser(userId, new UserPatchDto("rita" + suffix, null, null));
+        bookingService.patchBooking(bookingId, new BookingPatchDto(null, BookingStatus.CANCELED));
+
+        assertEquals("rita" + suffix, userService.getUser(userId).userName());
+        assertEquals(BookingStatus.CANCELED, bookingService.getBookingById(bookingId).status());
+        assertEquals("rita" + suffix, bookingService.getBookingById(bookingId).user().userName());
+    }
+
+    @Test
+    @DisplayName("Test a review refreshes the cached rating of its restaurant once committed")
+    void testReviewRefreshesRestaurantRating() throws Exception {
+        Long userId = addUser();
+        Long bookingId = addBooking(userId, BookingStatus.COMPLETE);
+        restaurantService.getRestaurant(restaurantId);
+
+        userExperienceService.addNewUserExperience(new UserExperienceCreateDto(bookingId, userId, restaurantId, 8.0, "Great pizza"));
+
+        assertEquals(8.0, restaurantService.getRestaurant(restaurantId).rating());
+    }
+
+    private Long addRestaurant(String email) {
+        String phoneNumber = String.format("+3512%08d", Math.floorMod(email.hashCode(), 100_000_000));
+        return restaurantImportService.importRestaurants(List.of(new RestaurantPostDto("Pizza", new Address(), email, phoneNumber,
+                41.15, -8.61, cityId, Set.of(restaurantTypeId))), null).rows().get(0).restaurantId();
+    }
+
+    private Long addUser() throws Exception {
+        userService.createUser(new UserCreateDto("ana" + suffix, "secret", "ana" + suffix + "@ge.com", "Ana", "Silva",
+                LocalDate.of(1990, 1, 1), Set.of()));
+        return userRepository.findByUserName("ana" + suffix).orElseThrow().getId();
+    }
+
+    private Long addBooking(Long userId, BookingStatus status) {
+        return transactionTemplate.execute(tx -> bookingRepository.save(Booking.builder()
+                .user(userRepository.findById(userId).orElseThrow())
+                .restaurant(restaurantRepository.findById(restaurantId).orElseThrow())
+                .bookingTime(LocalDate.now().plusDays(1).atTime(20, 0))
+                .status(status)
+                .build()).getId());
+    }
+}
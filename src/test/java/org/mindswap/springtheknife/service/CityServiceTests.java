@@ -10,6 +10,8 @@ import org.mindswap.springtheknife.exceptions.city.CityAlreadyExistsException;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.repository.CityRepository;
 import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -32,6 +34,10 @@ class CityServiceTests {
 
     @Mock
     private CityRepository cityRepository;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
 
     @InjectMocks
     private CityServiceImpl cityService;
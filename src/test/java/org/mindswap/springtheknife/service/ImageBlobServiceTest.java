@@ -0,0 +1,196 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.dto.city.CityDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.ImageBlob;
+import org.mindswap.springtheknife.model.RestaurantImage;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.ImageBlobRepository;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimage.ImageBlobService;
+import org.mindswap.springtheknife.service.restaurantimage.ImageDerivativeService;
+import org.mindswap.springtheknife.service.restaurantimage.ImageGenerator;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportService;
+import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Writes images through the real services and checks the image_blobs rows and files they share.
+ */
+@SpringBootTest(properties = "spring.cache.type=none")
+class ImageBlobServiceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @SpyBean
+    private ImageGenerator imageGenerator;
+    @Autowired
+    private RestaurantImageService restaurantImageService;
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+    @Autowired
+    private RestaurantImageRepository restaurantImageRepository;
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private RestaurantServiceImpl restaurantService;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private RestaurantImportService restaurantImportService;
+    @Autowired
+    private CityServiceImpl cityService;
+    @Autowired
+    private CityRepository cityRepository;
+    @Autowired
+    private RestaurantTypeServiceImpl restaurantTypeService;
+    @Autowired
+    private RestaurantTypeRepository restaurantTypeRepository;
+
+    private ImageBlobService imageBlobService;
+    private String suffix;
+    private Long cityId;
+    private Long restaurantTypeId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // No grace period, so whatever is unreferenced when the test collects is collected
+        imageBlobService = new ImageBlobService(imageBlobRepository, restaurantImageRepository, imageDerivativeService,
+                transactionTemplate, Duration.ofHours(24), Duration.ZERO);
+        suffix = "b" + SEQUENCE.incrementAndGet();
+        cityService.createCity(new CityDto("Braga" + suffix));
+        cityId = cityRepository.findByName("Braga" + suffix).orElseThrow().getId();
+        restaurantTypeService.addRestaurantType(new RestaurantTypeDto(null, "Churrasqueira" + suffix));
+        restaurantTypeId = restaurantTypeRepository.findByType("Churrasqueira" + suffix).orElseThrow().getId();
+    }
+
+    @Test
+    @DisplayName("Test the same image uploaded to two restaurants is stored once and referenced twice")
+    void testUploadsShareBlob() throws Exception {
+        byte[] image = png(new Color(0x2A, 0x7B, SEQUENCE.get() & 0xFF));
+
+        RestaurantImageDto first = restaurantImageService.uploadImage(addRestaurant("first"), new ByteArrayInputStream(image));
+        RestaurantImageDto second = restaurantImageService.uploadImage(addRestaurant("second"), new ByteArrayInputStream(image));
+
+        assertEquals(first.contentHash(), second.contentHash());
+        ImageBlob blob = imageBlobRepository.findById(first.contentHash()).orElseThrow();
+        assertEquals(2L, blob.getReferenceCount());
+        assertEquals(image.length, blob.getSize());
+        assertNull(blob.getPrompt());
+        assertEquals(blob.getPath(), imagePath(first.id()));
+        assertEquals(blob.getPath(), imagePath(second.id()));
+        assertArrayEquals(image, Files.readAllBytes(Paths.get(blob.getPath())));
+    }
+
+    @Test
+    @DisplayName("Test generating from a prompt used recently reuses its image without calling the backend")
+    void testPromptCache() throws Exception {
+        String prompt = "Churrasqueira" + suffix + " restaurant facade";
+
+        RestaurantImage first = restaurantImageService.saveRestaurantImage(restaurantRepository.findCardById(addRestaurant("first")).orElseThrow());
+        RestaurantImage second = restaurantImageService.saveRestaurantImage(restaurantRepository.findCardById(addRestaurant("second")).orElseThrow());
+
+        verify(imageGenerator, times(1)).generate(prompt);
+        assertEquals(first.getContentHash(), second.getContentHash());
+        ImageBlob blob = imageBlobRepository.findById(first.getContentHash()).orElseThrow();
+        assertEquals(prompt, blob.getPrompt());
+        assertEquals(2L, blob.getReferenceCount());
+    }
+
+    @Test
+    @DisplayName("Test unreferenced blobs are collected with their files and referenced ones are kept")
+    void testCollectGarbage() throws Exception {
+        Long keptRestaurantId = addRestaurant("kept");
+        Long deletedRestaurantId = addRestaurant("deleted");
+        String kept = restaurantImageService.uploadImage(keptRestaurantId, new ByteArrayInputStream(png(new Color(0x10, 0x20, SEQUENCE.get() & 0xFF)))).contentHash();
+        String deleted = restaurantImageService.uploadImage(deletedRestaurantId, new ByteArrayInputStream(png(new Color(0x30, 0x40, SEQUENCE.get() & 0xFF)))).contentHash();
+        String deletedPath = imageBlobRepository.findById(deleted).orElseThrow().getPath();
+
+        restaurantService.deleteRestaurant(deletedRestaurantId);
+        assertEquals(0L, imageBlobRepository.findById(deleted).orElseThrow().getReferenceCount());
+
+        assertTrue(imageBlobService.collectGarbage() >= 1);
+
+        assertTrue(imageBlobRepository.findById(deleted).isEmpty());
+        assertFalse(Files.exists(Paths.get(deletedPath)));
+        ImageBlob keptBlob = imageBlobRepository.findById(kept).orElseThrow();
+        assertEquals(1L, keptBlob.getReferenceCount());
+        assertTrue(Files.exists(Paths.get(keptBlob.getPath())));
+    }
+
+    @Test
+    @DisplayName("Test a collected image uploaded again is stored again, and a collected blob cannot be referenced")
+    void testUploadAfterCollection() throws Exception {
+        byte[] image = png(new Color(0x50, 0x60, SEQUENCE.get() & 0xFF));
+        Long deletedRestaurantId = addRestaurant("deleted");
+        String contentHash = restaurantImageService.uploadImage(deletedRestaurantId, new ByteArrayInputStream(image)).contentHash();
+        restaurantService.deleteRestaurant(deletedRestaurantId);
+        imageBlobService.collectGarbage();
+        assertTrue(imageBlobRepository.findById(contentHash).isEmpty());
+
+        assertThrows(IllegalStateException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> imageBlobService.onImageAdded(contentHash)));
+
+        RestaurantImageDto uploaded = restaurantImageService.uploadImage(addRestaurant("again"), new ByteArrayInputStream(image));
+        ImageBlob blob = imageBlobRepository.findById(contentHash).orElseThrow();
+        assertEquals(contentHash, uploaded.contentHash());
+        assertEquals(1L, blob.getReferenceCount());
+        assertArrayEquals(image, Files.readAllBytes(Paths.get(blob.getPath())));
+    }
+
+    private String imagePath(Long imageId) {
+        return restaurantImageRepository.findById(imageId).orElseThrow().getImagePath();
+    }
+
+    private Long addRestaurant(String name) throws Exception {
+        String email = name + suffix + "@ge.com";
+        String phoneNumber = String.format("+35192%08d", Math.floorMod(email.hashCode(), 100_000_000));
+        return restaurantImportService.importRestaurants(List.of(new RestaurantPostDto(name + suffix, new Address(), email, phoneNumber,
+                41.55, -8.42, cityId, Set.of(restaurantTypeId))), null).rows().get(0).restaurantId();
+    }
+
+    private static byte[] png(Color color) throws IOException {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 32, 32);
+        graphics.dispose();
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+    }
+}
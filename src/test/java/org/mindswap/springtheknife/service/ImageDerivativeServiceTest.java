@@ -0,0 +1,166 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository;
+import org.mindswap.springtheknife.repository.RestaurantImageRepository.ImageLocation;
+import org.mindswap.springtheknife.service.restaurantimage.ImageDerivativeService.Derivative;
+import org.mindswap.springtheknife.service.restaurantimage.ImageDerivativeServiceImpl;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ImageDerivativeServiceTest {
+
+    @Mock
+    private RestaurantImageRepository restaurantImageRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    private Path directory;
+
+    private ImageDerivativeServiceImpl imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        imageDerivativeService = new ImageDerivativeServiceImpl(restaurantImageRepository, new TransactionTemplate(transactionManager),
+                directory.resolve("derivatives").toString(), List.of(320, 160, 1280), 0.8f, 1, 10, 50_000_000);
+    }
+
+    @Test
+    @DisplayName("Test only the widths narrower than the source are written, as JPEG, and the hash is recorded")
+    void testGenerate() throws IOException {
+        Path source = png("source.png", 800, 600);
+
+        String contentHash = imageDerivativeService.generate(7L, source);
+
+        assertEquals(64, contentHash.length());
+        Path small = directory.resolve("derivatives").resolve(contentHash.substring(0, 2)).resolve(contentHash).resolve("160.jpg");
+        BufferedImage derivative = ImageIO.read(small.toFile());
+        assertEquals(160, derivative.getWidth());
+        assertEquals(120, derivative.getHeight());
+        assertEquals("jpeg", ImageIO.getImageReaders(ImageIO.createImageInputStream(small.toFile())).next().getFormatName().toLowerCase());
+        assertFalse(Files.exists(small.resolveSibling("1280.jpg")));
+        verify(restaurantImageRepository, times(1)).markDerived(eq(7L), eq(contentHash), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Test the smallest derivative at least as wide as requested is found")
+    void testFind() throws IOException {
+        String contentHash = imageDerivativeService.generate(7L, png("source.png", 800, 600));
+
+        assertEquals(Optional.of(160), imageDerivativeService.find(contentHash, 100).map(Derivative::width));
+        assertEquals(Optional.of(320), imageDerivativeService.find(contentHash, 161).map(Derivative::width));
+        assertTrue(imageDerivativeService.find(contentHash, 400).isEmpty());
+        assertTrue(imageDerivativeService.find("0".repeat(64), 100).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test identical sources share their derivatives and existing files are not written again")
+    void testGenerateDeduplicates() throws IOException {
+        Path first = png("first.png", 400, 400);
+        Path second = Files.copy(first, directory.resolve("second.png"));
+        String contentHash = imageDerivativeService.generate(1L, first);
+        Path derivative = imageDerivativeService.find(contentHash, 160).orElseThrow().path();
+        Files.setLastModifiedTime(derivative, FileTime.fromMillis(0));
+
+        assertEquals(contentHash, imageDerivativeService.generate(2L, second));
+        assertEquals(0, Files.getLastModifiedTime(derivative).toMillis());
+        verify(restaurantImageRepository, times(1)).markDerived(eq(2L), eq(contentHash), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Test a source narrower than every width is not decoded and gets no derivatives")
+    void testGenerateNarrowSource() throws IOException {
+        String contentHash = imageDerivativeService.generate(6L, png("narrow.png", 120, 90));
+
+        assertFalse(Files.exists(directory.resolve("derivatives").resolve(contentHash.substring(0, 2)).resolve(contentHash)));
+        assertTrue(imageDerivativeService.find(contentHash, 100).isEmpty());
+        verify(restaurantImageRepository, times(1)).markDerived(eq(6L), eq(contentHash), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Test a source over the pixel limit is decoded subsampled and still gets its derivatives")
+    void testGenerateOverPixelLimit() throws IOException {
+        ImageDerivativeServiceImpl limited = new ImageDerivativeServiceImpl(restaurantImageRepository, new TransactionTemplate(transactionManager),
+                directory.resolve("limited").toString(), List.of(160, 320), 0.8f, 1, 10, 100_000);
+
+        String contentHash = limited.generate(8L, png("large.png", 1600, 1200));
+
+        BufferedImage derivative = ImageIO.read(limited.find(contentHash, 160).orElseThrow().path().toFile());
+        assertEquals(160, derivative.getWidth());
+        assertEquals(120, derivative.getHeight());
+        assertEquals(320, ImageIO.read(limited.find(contentHash, 320).orElseThrow().path().toFile()).getWidth());
+        limited.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test a source that is not an image fails without recording a hash")
+    void testGenerateNotAnImage() throws IOException {
+        Path source = Files.writeString(directory.resolve("notes.png"), "not an image");
+
+        assertThrows(IOException.class, () -> imageDerivativeService.generate(3L, source));
+        verifyNoInteractions(restaurantImageRepository);
+    }
+
+    @Test
+    @DisplayName("Test the startup backfill derives every image whose derivatives were never recorded")
+    void testBackfill() throws IOException {
+        ImageLocation image = mock(ImageLocation.class);
+        when(image.getId()).thenReturn(5L);
+        when(image.getImagePath()).thenReturn(png("source.png", 400, 300).toString());
+        when(restaurantImageRepository.findUnderivedImagesAfter(eq(0L), any(Limit.class))).thenReturn(List.of(image));
+        when(restaurantImageRepository.findUnderivedImagesAfter(eq(5L), any(Limit.class))).thenReturn(List.of());
+
+        imageDerivativeService.backfill();
+
+        verify(restaurantImageRepository, timeout(5000)).markDerived(eq(5L), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Test deleting a hash removes all of its derivatives")
+    void testDelete() throws IOException {
+        String contentHash = imageDerivativeService.generate(4L, png("source.png", 800, 600));
+
+        imageDerivativeService.delete(contentHash);
+
+        assertTrue(imageDerivativeService.find(contentHash, 100).isEmpty());
+        assertFalse(Files.exists(directory.resolve("derivatives").resolve(contentHash.substring(0, 2)).resolve(contentHash)));
+        assertDoesNotThrow(() -> imageDerivativeService.delete(contentHash));
+    }
+
+    private Path png(String name, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8);
+            }
+        }
+        Path path = directory.resolve(name);
+        ImageIO.write(image, "png", path.toFile());
+        return path;
+    }
+}
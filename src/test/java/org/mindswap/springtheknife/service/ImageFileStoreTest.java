@@ -0,0 +1,117 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mindswap.springtheknife.Enum.ImageFormat;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageTooLargeException;
+import org.mindswap.springtheknife.exceptions.restaurantimage.InvalidImageException;
+import org.mindswap.springtheknife.service.restaurantimage.ImageFileStore;
+import org.mindswap.springtheknife.service.restaurantimage.ImageFileStore.StagedImage;
+import org.mindswap.springtheknife.service.restaurantimage.ImageFileStore.StoredImage;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ImageFileStoreTest {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+
+    @TempDir
+    private Path directory;
+
+    private ImageFileStore imageFileStore;
+
+    @BeforeEach
+    void setUp() {
+        imageFileStore = new ImageFileStore(directory.toString(), DataSize.ofKilobytes(256));
+    }
+
+    @Test
+    @DisplayName("Test an image is stored under its hash, sharded by its first two characters, and nothing else is left behind")
+    void testWrite() throws Exception {
+        byte[] image = png(200_000, 1);
+
+        StoredImage stored = imageFileStore.write(new ByteArrayInputStream(image));
+
+        String contentHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        assertEquals(contentHash, stored.contentHash());
+        assertEquals(ImageFormat.PNG, stored.format());
+        assertEquals(image.length, stored.size());
+        assertEquals(directory.resolve(contentHash.substring(0, 2)).resolve(contentHash + ".png"), stored.path());
+        assertArrayEquals(image, Files.readAllBytes(stored.path()));
+        try (var files = Files.walk(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test a staged image is only in place once published, and closing an unpublished one removes it")
+    void testStage() throws Exception {
+        StoredImage published;
+        try (StagedImage staged = imageFileStore.stage(new ByteArrayInputStream(png(1_000, 1)))) {
+            assertFalse(Files.exists(staged.image().path()));
+            published = staged.publish();
+        }
+        assertTrue(Files.exists(published.path()));
+
+        try (StagedImage staged = imageFileStore.stage(new ByteArrayInputStream(png(1_000, 2)))) {
+            assertFalse(Files.exists(staged.image().path()));
+        }
+        try (var files = Files.walk(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test different images do not collide and the same image twice is one file")
+    void testWriteTwice() throws Exception {
+        StoredImage first = imageFileStore.write(new ByteArrayInputStream(png(1_000, 1)));
+        StoredImage second = imageFileStore.write(new ByteArrayInputStream(png(1_000, 2)));
+        StoredImage again = imageFileStore.write(new ByteArrayInputStream(png(1_000, 1)));
+
+        assertNotEquals(first.path(), second.path());
+        assertEquals(first.path(), again.path());
+        assertTrue(Files.exists(second.path()));
+    }
+
+    @Test
+    @DisplayName("Test the format is detected from the first bytes")
+    void testFormatDetection() throws Exception {
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10};
+        byte[] webp = {'R', 'I', 'F', 'F', 1, 2, 3, 4, 'W', 'E', 'B', 'P', 'V', 'P', '8'};
+
+        assertEquals(ImageFormat.JPEG, imageFileStore.write(new ByteArrayInputStream(jpeg)).format());
+        assertTrue(imageFileStore.write(new ByteArrayInputStream(webp)).path().toString().endsWith(".webp"));
+        assertThrows(InvalidImageException.class, () -> imageFileStore.write(new ByteArrayInputStream("<svg></svg>".getBytes())));
+        assertThrows(InvalidImageException.class, () -> imageFileStore.write(new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    @DisplayName("Test an upload over the limit is refused and its partial file removed")
+    void testWriteTooLarge() throws IOException {
+        assertThrows(ImageTooLargeException.class, () -> imageFileStore.write(new ByteArrayInputStream(png(300_000, 1))));
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static byte[] png(int size, long seed) {
+        byte[] image = new byte[size];
+        new Random(seed).nextBytes(image);
+        System.arraycopy(PNG_SIGNATURE, 0, image, 0, PNG_SIGNATURE.length);
+        return image;
+    }
+}
@@ -0,0 +1,80 @@
+package org.mindswap.springtheknife.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.aspects.MetricsAspect;
+import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.service.city.CityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.cache.type=simple")
+class MetricsAspectTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CityService cityService;
+    @Autowired
+    private CityRepository cityRepository;
+
+    @Test
+    @DisplayName("Test a service call is timed under its interface and method, with percentiles")
+    void testServiceCallIsTimed() throws Exception {
+        long before = count("service", "CityService", "getAllCities", "success");
+
+        cityService.getAllCities(0, 10, "id");
+
+        Timer timer = timer("service", "CityService", "getAllCities", "success");
+        assertEquals(before + 1, timer.count());
+        assertTrue(timer.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(3, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    @DisplayName("Test a failing service call is timed with the error outcome and the exception")
+    void testFailingServiceCallIsTimed() {
+        assertThrows(CityNotFoundException.class, () -> cityService.getCity(Long.MAX_VALUE));
+
+        Timer timer = meterRegistry.find(MetricsAspect.METRIC)
+                .tags("layer", "service", "class", "CityService", "method", "getCity", "outcome", "error",
+                        "exception", "CityNotFoundException")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+    }
+
+    @Test
+    @DisplayName("Test inherited and derived repository methods are timed under the repository interface")
+    void testRepositoryCallIsTimed() {
+        long before = count("repository", "CityRepository", "count", "success");
+
+        cityRepository.count();
+
+        assertEquals(before + 1, timer("repository", "CityRepository", "count", "success").count());
+    }
+
+    private long count(String layer, String component, String method, String outcome) {
+        Timer timer = find(layer, component, method, outcome);
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Timer timer(String layer, String component, String method, String outcome) {
+        Timer timer = find(layer, component, method, outcome);
+        assertNotNull(timer, layer + " " + component + "." + method + " was not timed");
+        return timer;
+    }
+
+    private Timer find(String layer, String component, String method, String outcome) {
+        return meterRegistry.find(MetricsAspect.METRIC)
+                .tags("layer", layer, "class", component, "method", method, "outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,33 @@
+package org.mindswap.springtheknife.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.service.cache.TwoTierCacheManager;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * No Redis runs during the tests: this also checks the application still starts without it.
+ */
+@SpringBootTest(properties = "spring.cache.type=redis")
+class NearCacheConfigTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Test the redis cache type is served through the two-tier manager with per-cache metrics")
+    void testTwoTierCacheManager() {
+        assertInstanceOf(TwoTierCacheManager.class, cacheManager);
+        assertNotNull(meterRegistry.find("cache.tier.hits").tag("cache", CacheNames.RESTAURANT_BY_ID).tag("tier", "local").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheNames.RESTAURANT_PAGES).tag("result", "miss").functionCounter());
+    }
+}
@@ -0,0 +1,154 @@
+package org.mindswap.springtheknife.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
+import org.mindswap.springtheknife.model.Parking;
+import org.mindswap.springtheknife.service.parking.ParkingServiceImpl;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Signal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the parking service against a stub upstream on a local port, with the cache clock under test control.
+ */
+@SpringBootTest
+class ParkingServiceTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private volatile int upstreamStatus = 200;
+    private volatile long upstreamDelayMillis;
+    private volatile String active = "1";
+
+    private HttpServer upstream;
+    private ParkingServiceImpl parkingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.createContext("/parking/", exchange -> {
+            upstreamCalls.incrementAndGet();
+            sleep(upstreamDelayMillis);
+            int limit = Integer.parseInt(exchange.getRequestURI().getPath().substring("/parking/".length()));
+            byte[] body = records(limit).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        parkingService = new ParkingServiceImpl(WebClient.builder(), "http://localhost:" + upstream.getAddress().getPort(),
+                Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(10), 16, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests for the same limit share one upstream call")
+    void testConcurrentRequestsAreCoalesced() {
+        upstreamDelayMillis = 300;
+
+        List<List<Parking.Record>> results = Flux.range(0, 50)
+                .flatMap(i -> parkingService.getParkingRecords(3))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(50, results.size());
+        results.forEach(records -> assertEquals(3, records.size()));
+        assertEquals("Rua 2", results.get(0).get(2).getAddress());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Test a fresh value is served without calling the upstream")
+    void testFreshValueIsCached() {
+        parkingService.getParkingRecords(2).block();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        parkingService.getParkingRecords(2).block();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Test an aging value is served at once while it is refreshed in the background")
+    void testStaleWhileRevalidate() throws InterruptedException {
+        parkingService.getParkingRecords(2).block();
+        active = "0";
+        now.addAndGet(Duration.ofSeconds(15).toNanos());
+
+        assertEquals("1", parkingService.getParkingRecords(2).block().get(0).getActive());
+
+        String refreshed = null;
+        for (int i = 0; i < 100 && !"0".equals(refreshed); i++) {
+            Thread.sleep(20);
+            refreshed = parkingService.getParkingRecords(2).block().get(0).getActive();
+        }
+        assertEquals("0", refreshed);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Test an expired value is served when the upstream fails or is too slow")
+    void testStaleIfError() {
+        parkingService.getParkingRecords(2).block();
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        upstreamStatus = 500;
+
+        assertEquals(2, parkingService.getParkingRecords(2).block().size());
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        upstreamStatus = 200;
+        upstreamDelayMillis = 5000;
+
+        assertEquals(2, parkingService.getParkingRecords(2).block(Duration.ofSeconds(4)).size());
+    }
+
+    @Test
+    @DisplayName("Test a failing upstream with nothing cached is reported as unavailable")
+    void testUnavailable() {
+        upstreamStatus = 503;
+
+        Signal<List<Parking.Record>> signal = parkingService.getParkingRecords(2).materialize().block();
+
+        assertInstanceOf(UpstreamUnavailableException.class, signal.getThrowable());
+    }
+
+    private String records(int limit) {
+        return IntStream.range(0, limit)
+                .mapToObj(i -> "{\"active\":\"" + active + "\",\"address\":\"Rua " + i + "\",\"latitude\":41.1,\"longitude\":-8.6,\"capacity\":40}")
+                .collect(Collectors.joining(",", "{\"result\":{\"records\":[", "]}}"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
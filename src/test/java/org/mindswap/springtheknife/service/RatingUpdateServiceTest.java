@@ -2,9 +2,16 @@ package org.mindswap.springtheknife.service;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.CachedEntity;
 import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.UserExperience;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.UserExperienceRepository;
+import org.mindswap.springtheknife.repository.UserExperienceRepository.RatingAggregate;
+import org.mindswap.springtheknife.service.rating.RatingAggregationService;
 import org.mindswap.springtheknife.service.rating.RatingUpdateService;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -13,6 +20,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -21,30 +30,126 @@ public class RatingUpdateServiceTest {
     @Mock
     private RestaurantRepository restaurantRepository;
 
+    @Mock
+    private UserExperienceRepository userExperienceRepository;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+
     @InjectMocks
     private RatingUpdateService ratingUpdateService;
 
+    @InjectMocks
+    private RatingAggregationService ratingAggregationService;
+
     @Test
     @DisplayName("Test updateRestaurantRatings")
     public void testUpdateRestaurantRatings() {
         // Arrange
-        Restaurant restaurant1 = Mockito.mock(Restaurant.class);
-        Restaurant restaurant2 = Mockito.mock(Restaurant.class);
-        List<Restaurant> allRestaurants = Arrays.asList(restaurant1, restaurant2);
+        RatingAggregate aggregate1 = Mockito.mock(RatingAggregate.class);
+        when(aggregate1.getRestaurantId()).thenReturn(1L);
+        when(aggregate1.getRatingSum()).thenReturn(8.0);
+        when(aggregate1.getRatingCount()).thenReturn(2L);
+        RatingAggregate aggregate2 = Mockito.mock(RatingAggregate.class);
+        when(aggregate2.getRestaurantId()).thenReturn(2L);
+        when(aggregate2.getRatingSum()).thenReturn(3.5);
+        when(aggregate2.getRatingCount()).thenReturn(1L);
+        List<RatingAggregate> aggregates = Arrays.asList(aggregate1, aggregate2);
 
-        when(restaurantRepository.findAll()).thenReturn(allRestaurants);
-        when(restaurantRepository.findAverageRating(anyLong())).thenReturn(4.0, 3.5);
+        when(userExperienceRepository.findRatingAggregates()).thenReturn(aggregates);
 
         // Act
         ratingUpdateService.updateRestaurantRatings();
 
         // Assert
-        verify(restaurantRepository, times(1)).findAll();
-        verify(restaurantRepository, times(2)).findAverageRating(restaurant1.getId()); // Expect 2 invocations
-        verify(restaurantRepository, times(2)).findAverageRating(restaurant2.getId()); // Expect 2 invocations
-        verify(restaurant1, times(1)).setRating(4.0);
-        verify(restaurant2, times(1)).setRating(3.5);
-        verify(restaurantRepository, times(1)).save(restaurant1);
-        verify(restaurantRepository, times(1)).save(restaurant2);
-    }
-}
\ No newline at end of file
+        verify(userExperienceRepository, times(1)).findRatingAggregates();
+        verify(restaurantRepository, times(1)).reconcileRating(1L, 8.0, 2L);
+        verify(restaurantRepository, times(1)).reconcileRating(2L, 3.5, 1L);
+        verify(restaurantRepository, times(1)).resetUnratedRestaurants();
+        verify(restaurantRepository, never()).findAll();
+        verify(cacheInvalidationService, times(1)).evictAll(CachedEntity.RESTAURANT);
+        verify(restaurantSummaryService, times(1)).onRatingsReconciled();
+    }
+
+    @Test
+    @DisplayName("Test restaurants without running sums are backfilled from their reviews, or with zero")
+    public void testBackfillRatingSums() {
+        RatingAggregate aggregate = Mockito.mock(RatingAggregate.class);
+        when(aggregate.getRestaurantId()).thenReturn(1L);
+        when(aggregate.getRatingSum()).thenReturn(8.0);
+        when(aggregate.getRatingCount()).thenReturn(2L);
+        when(restaurantRepository.findIdsWithoutRatingSums(any())).thenReturn(List.of(1L, 2L), List.of());
+        when(userExperienceRepository.findRatingAggregatesByRestaurantIds(List.of(1L, 2L))).thenReturn(List.of(aggregate));
+
+        assertEquals(2, ratingUpdateService.backfillRatingSums());
+
+        verify(restaurantRepository, times(1)).reconcileRating(1L, 8.0, 2L);
+        verify(restaurantRepository, times(1)).reconcileRating(2L, 0.0, 0L);
+        verify(restaurantSummaryService, times(1)).onRatingsReconciled();
+        verify(cacheInvalidationService, times(1)).evictAll(CachedEntity.RESTAURANT);
+    }
+
+    @Test
+    @DisplayName("Test the backfill does nothing once every restaurant has running sums")
+    public void testBackfillRatingSumsNothingToDo() {
+        when(restaurantRepository.findIdsWithoutRatingSums(any())).thenReturn(List.of());
+
+        assertEquals(0, ratingUpdateService.backfillRatingSums());
+
+        verify(restaurantRepository, never()).reconcileRating(anyLong(), anyDouble(), anyLong());
+        verifyNoInteractions(restaurantSummaryService, cacheInvalidationService);
+    }
+
+    @Test
+    @DisplayName("Test a new review adds its rating to the restaurant aggregate")
+    public void testOnReviewAdded() {
+        UserExperience userExperience = reviewOf(7L, 4.0);
+
+        ratingAggregationService.onReviewAdded(userExperience);
+
+        verify(restaurantRepository, times(1)).applyRatingDelta(7L, 4.0, 1);
+        verify(cacheInvalidationService, times(1)).evict(CachedEntity.RESTAURANT, 7L);
+        verify(restaurantSummaryService, times(1)).onRatingChanged(7L);
+    }
+
+    @Test
+    @DisplayName("Test a changed review only applies the rating difference")
+    public void testOnReviewRatingChanged() {
+        UserExperience userExperience = reviewOf(7L, 4.0);
+
+        ratingAggregationService.onReviewRatingChanged(userExperience, 6.0);
+
+        verify(restaurantRepository, times(1)).applyRatingDelta(7L, -2.0, 0);
+    }
+
+    @Test
+    @DisplayName("Test an unchanged review rating does not touch the restaurant")
+    public void testOnReviewRatingUnchanged() {
+        UserExperience userExperience = reviewOf(7L, 4.0);
+
+        ratingAggregationService.onReviewRatingChanged(userExperience, 4.0);
+
+        verifyNoInteractions(restaurantRepository);
+        verifyNoInteractions(cacheInvalidationService);
+    }
+
+    @Test
+    @DisplayName("Test a removed review subtracts its rating from the restaurant aggregate")
+    public void testOnReviewRemoved() {
+        UserExperience userExperience = reviewOf(7L, 4.0);
+
+        ratingAggregationService.onReviewRemoved(userExperience);
+
+        verify(restaurantRepository, times(1)).applyRatingDelta(7L, -4.0, -1);
+    }
+
+    private UserExperience reviewOf(Long restaurantId, Double rating) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(restaurantId);
+        UserExperience userExperience = new UserExperience();
+        userExperience.setRestaurant(restaurant);
+        userExperience.setRating(rating);
+        return userExperience;
+    }
+}
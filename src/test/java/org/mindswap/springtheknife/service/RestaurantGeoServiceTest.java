@@ -0,0 +1,168 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantLocation;
+import org.mindswap.springtheknife.repository.RestaurantRepository.RestaurantTypeRow;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService.GeoHit;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoServiceImpl;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mindswap.springtheknife.service.TransactionTestSupport.inTransaction;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class RestaurantGeoServiceTest {
+
+    private static final double PORTO_LAT = 41.1496;
+    private static final double PORTO_LON = -8.6110;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private RestaurantGeoServiceImpl restaurantGeoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        restaurantGeoService = new RestaurantGeoServiceImpl(restaurantRepository, 0.05, 50, 100);
+        restaurantGeoService.index(1L, 41.1500, -8.6100, 1L, Set.of(10L));
+        restaurantGeoService.index(2L, 41.1579, -8.6291, 1L, Set.of(20L));
+        restaurantGeoService.index(3L, 41.1780, -8.5980, 1L, Set.of(10L, 20L));
+        restaurantGeoService.index(4L, 38.7223, -9.1393, 2L, Set.of(10L));
+    }
+
+    @Test
+    @DisplayName("Test nearest restaurants are returned closest first and limited to the radius")
+    void testFindNearest() throws InvalidGeoQueryException {
+        List<GeoHit> hits = restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 5, 10, null, null);
+
+        assertEquals(List.of(1L, 2L, 3L), hits.stream().map(GeoHit::restaurantId).toList());
+        assertTrue(hits.get(0).distanceKm() < 0.1);
+    }
+
+    @Test
+    @DisplayName("Test k nearest stops at the limit")
+    void testFindNearestLimit() throws InvalidGeoQueryException {
+        assertEquals(List.of(1L, 2L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 50, 2, null, null)
+                .stream().map(GeoHit::restaurantId).toList());
+    }
+
+    @Test
+    @DisplayName("Test city and type filters are combined")
+    void testFindNearestFilters() throws InvalidGeoQueryException {
+        assertEquals(List.of(2L, 3L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 10, 10, 1L, 20L)
+                .stream().map(GeoHit::restaurantId).toList());
+        assertEquals(List.of(1L, 3L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 10, 10, 1L, 10L)
+                .stream().map(GeoHit::restaurantId).toList());
+        assertTrue(restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 10, 10, 2L, null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test moving and removing a restaurant updates the index")
+    void testIndexUpdates() throws InvalidGeoQueryException {
+        restaurantGeoService.index(4L, 41.1497, -8.6111, 2L, Set.of(10L));
+        restaurantGeoService.remove(1L);
+
+        List<GeoHit> hits = restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 5, 10, null, null);
+
+        assertEquals(List.of(4L, 2L, 3L), hits.stream().map(GeoHit::restaurantId).toList());
+        assertTrue(restaurantGeoService.findNearest(38.7223, -9.1393, 5, 10, null, null).isEmpty());
+        assertEquals(3, restaurantGeoService.size());
+    }
+
+    @Test
+    @DisplayName("Test updates made in a transaction are applied on commit and dropped on rollback")
+    void testIndexUpdatesInTransaction() throws Throwable {
+        inTransaction(false, () -> {
+            restaurantGeoService.index(5L, 41.1497, -8.6111, 1L, Set.of(10L));
+            restaurantGeoService.remove(1L);
+        });
+        assertEquals(4, restaurantGeoService.size());
+        assertEquals(List.of(1L, 2L, 3L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 5, 10, null, null)
+                .stream().map(GeoHit::restaurantId).toList());
+
+        inTransaction(true, () -> {
+            restaurantGeoService.remove(1L);
+            assertEquals(4, restaurantGeoService.size());
+        });
+        assertEquals(3, restaurantGeoService.size());
+        assertEquals(List.of(2L, 3L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 5, 10, null, null)
+                .stream().map(GeoHit::restaurantId).toList());
+    }
+
+    @Test
+    @DisplayName("Test invalid coordinates, radius and limit are rejected")
+    void testInvalidQuery() {
+        assertThrows(InvalidGeoQueryException.class, () -> restaurantGeoService.findNearest(91, 0, 5, 10, null, null));
+        assertThrows(InvalidGeoQueryException.class, () -> restaurantGeoService.findNearest(0, 0, 0, 10, null, null));
+        assertThrows(InvalidGeoQueryException.class, () -> restaurantGeoService.findNearest(0, 0, 51, 10, null, null));
+        assertThrows(InvalidGeoQueryException.class, () -> restaurantGeoService.findNearest(0, 0, 5, 101, null, null));
+    }
+
+    @Test
+    @DisplayName("Test the index is rebuilt from the location and type projections")
+    void testRebuild() throws InvalidGeoQueryException {
+        RestaurantLocation location = Mockito.mock(RestaurantLocation.class);
+        when(location.getId()).thenReturn(5L);
+        when(location.getLatitude()).thenReturn(PORTO_LAT);
+        when(location.getLongitude()).thenReturn(PORTO_LON);
+        when(location.getCityId()).thenReturn(1L);
+        RestaurantTypeRow type = Mockito.mock(RestaurantTypeRow.class);
+        when(type.getRestaurantId()).thenReturn(5L);
+        when(type.getTypeId()).thenReturn(30L);
+        List<RestaurantLocation> locations = List.of(location);
+        List<RestaurantTypeRow> types = List.of(type);
+        when(restaurantRepository.findRestaurantLocations()).thenReturn(locations);
+        when(restaurantRepository.findAllTypeRows()).thenReturn(types);
+
+        restaurantGeoService.rebuild();
+
+        assertEquals(1, restaurantGeoService.size());
+        assertEquals(List.of(5L), restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 1, 10, null, 30L)
+                .stream().map(GeoHit::restaurantId).toList());
+    }
+
+    @Test
+    @DisplayName("Test the index matches a brute force scan over 100k restaurants")
+    void testLargeIndex() throws InvalidGeoQueryException {
+        Random random = new Random(42);
+        double[][] points = new double[100_000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{37 + random.nextDouble() * 5, -9.5 + random.nextDouble() * 3};
+            restaurantGeoService.index(100L + i, points[i][0], points[i][1], (long) (i % 20), Set.of((long) (i % 7)));
+        }
+
+        List<GeoHit> hits = restaurantGeoService.findNearest(PORTO_LAT, PORTO_LON, 25, 20, null, 3L);
+        List<Long> expected = IntStream.range(0, points.length)
+                .filter(i -> i % 7 == 3)
+                .mapToObj(i -> new GeoHit(100L + i, haversine(PORTO_LAT, PORTO_LON, points[i][0], points[i][1])))
+                .filter(hit -> hit.distanceKm() <= 25)
+                .sorted(Comparator.comparingDouble(GeoHit::distanceKm))
+                .limit(20)
+                .map(GeoHit::restaurantId)
+                .toList();
+        assertEquals(expected, hits.stream().map(GeoHit::restaurantId).toList());
+    }
+
+    private static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,122 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.ImageJobStatus;
+import org.mindswap.springtheknife.dto.restaurantimage.RestaurantImageJobDto;
+import org.mindswap.springtheknife.exceptions.restaurantimage.ImageJobNotFoundException;
+import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantImageJob;
+import org.mindswap.springtheknife.repository.RestaurantImageJobRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageJobServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimage.RestaurantImageService;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class RestaurantImageJobServiceTest {
+
+    @Mock
+    private RestaurantImageJobRepository restaurantImageJobRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private RestaurantImageService restaurantImageService;
+
+    private RestaurantImageJobServiceImpl restaurantImageJobService;
+    private Restaurant restaurant;
+    private RestaurantImageJob job;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        restaurantImageJobService = new RestaurantImageJobServiceImpl(restaurantImageJobRepository, restaurantRepository,
+                restaurantImageService, 1, 10, 3, 30, 300);
+        restaurant = new Restaurant();
+        restaurant.setId(5L);
+        job = RestaurantImageJob.builder().id(9L).restaurantId(5L).status(ImageJobStatus.RUNNING).attempts(1)
+                .nextAttemptAt(LocalDateTime.now()).build();
+        when(restaurantImageJobRepository.findById(9L)).thenReturn(Optional.of(job));
+        when(restaurantRepository.findCardById(5L)).thenReturn(Optional.of(restaurant));
+        when(restaurantImageJobRepository.claim(eq(9L), any(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        restaurantImageJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test enqueue returns a pending job and generates the image on a worker thread")
+    void testEnqueue() throws IOException {
+        when(restaurantImageJobRepository.findByRestaurantId(5L)).thenReturn(Optional.empty());
+        when(restaurantImageJobRepository.save(any(RestaurantImageJob.class))).thenAnswer(invocation -> {
+            RestaurantImageJob saved = invocation.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(9L);
+            }
+            return saved;
+        });
+
+        RestaurantImageJobDto result = restaurantImageJobService.enqueue(restaurant);
+
+        assertEquals(5L, result.restaurantId());
+        assertEquals(ImageJobStatus.PENDING, result.status());
+        verify(restaurantImageService, timeout(2000)).saveRestaurantImage(restaurant);
+    }
+
+    @Test
+    @DisplayName("Test a failed attempt is retried later with backoff")
+    void testRunJobRetries() throws IOException {
+        when(restaurantImageService.saveRestaurantImage(restaurant)).thenThrow(new IOException("backend down"));
+
+        restaurantImageJobService.runJob(9L);
+
+        assertEquals(ImageJobStatus.PENDING, job.getStatus());
+        assertTrue(job.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertTrue(job.getLastError().contains("backend down"));
+    }
+
+    @Test
+    @DisplayName("Test a job is failed once it runs out of attempts")
+    void testRunJobGivesUp() throws IOException {
+        job.setAttempts(3);
+        when(restaurantImageService.saveRestaurantImage(restaurant)).thenThrow(new IOException("backend down"));
+
+        restaurantImageJobService.runJob(9L);
+
+        assertEquals(ImageJobStatus.FAILED, job.getStatus());
+    }
+
+    @Test
+    @DisplayName("Test a job claimed by another worker is skipped")
+    void testRunJobAlreadyClaimed() {
+        when(restaurantImageJobRepository.claim(eq(9L), any(), any())).thenReturn(0);
+
+        restaurantImageJobService.runJob(9L);
+
+        verifyNoInteractions(restaurantImageService);
+        verify(restaurantImageJobRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Test get job for a restaurant without one")
+    void testGetJobNotFound() {
+        when(restaurantImageJobRepository.findByRestaurantId(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ImageJobNotFoundException.class, () -> restaurantImageJobService.getJob(5L));
+    }
+}
@@ -0,0 +1,129 @@
+package org.mindswap.springtheknife.service;
+
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.RestaurantImportStatus;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantImportReportDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantBatchRepository;
+import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class RestaurantImportServiceTest {
+
+    @Mock
+    private RestaurantBatchRepository restaurantBatchRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private CityRepository cityRepository;
+    @Mock
+    private RestaurantTypeRepository restaurantTypeRepository;
+    @Mock
+    private RestaurantGeoService restaurantGeoService;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+
+    private RestaurantImportServiceImpl restaurantImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        restaurantImportService = new RestaurantImportServiceImpl(restaurantBatchRepository, restaurantRepository,
+                cityRepository, restaurantTypeRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Validation.buildDefaultValidatorFactory().getValidator(), restaurantGeoService, cacheInvalidationService, restaurantSummaryService, 500);
+        when(cityRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(restaurantTypeRepository.findExistingIds(anyCollection())).thenReturn(Set.of(1L));
+        when(restaurantRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+        when(restaurantRepository.findExistingPhoneNumbers(anyCollection())).thenReturn(Set.of());
+    }
+
+    @Test
+    @DisplayName("Test import writes the accepted rows with one batch per chunk")
+    void testImportRestaurants() {
+        when(restaurantBatchRepository.insertRestaurants(anyList())).thenReturn(List.of(10L, 11L));
+
+        RestaurantImportReportDto report = restaurantImportService.importRestaurants(
+                List.of(restaurant("pizza@ge.com", "+351219879876", 1L), restaurant("sushi@ge.com", "+351219879877", 1L)), null);
+
+        assertEquals(2, report.imported());
+        assertEquals(0, report.rejected());
+        assertEquals(10L, report.rows().get(0).restaurantId());
+        assertEquals(11L, report.rows().get(1).restaurantId());
+        verify(restaurantBatchRepository, times(1)).insertRestaurants(anyList());
+        verify(restaurantBatchRepository, times(1)).insertRestaurantTypes(argThat(pairs -> pairs.size() == 2));
+        verify(cityRepository, times(1)).findExistingIds(anyCollection());
+        verify(restaurantGeoService).index(10L, 8.123, -9.32, 1L, Set.of(1L));
+        verify(restaurantGeoService).index(11L, 8.123, -9.32, 1L, Set.of(1L));
+    }
+
+    @Test
+    @DisplayName("Test import reports invalid, unknown city and duplicate rows without writing them")
+    void testImportRejectsRows() {
+        when(restaurantRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@ge.com"));
+        when(restaurantBatchRepository.insertRestaurants(anyList())).thenReturn(List.of(10L));
+
+        RestaurantImportReportDto report = restaurantImportService.importRestaurants(List.of(
+                restaurant("pizza@ge.com", "+351219879876", 1L),
+                restaurant("pizza@ge.com", "+351219879877", 1L),
+                restaurant("taken@ge.com", "+351219879878", 1L),
+                restaurant("sushi@ge.com", "+351219879879", 2L),
+                restaurant("ramen@ge.com", null, 1L)), null);
+
+        assertEquals(1, report.imported());
+        assertEquals(4, report.rejected());
+        assertEquals(RestaurantImportStatus.IMPORTED, report.rows().get(0).status());
+        assertEquals(RestaurantImportStatus.DUPLICATE, report.rows().get(1).status());
+        assertEquals(Message.RESTAURANT_EMAIL_TAKEN, report.rows().get(2).message());
+        assertEquals(RestaurantImportStatus.CITY_NOT_FOUND, report.rows().get(3).status());
+        assertEquals(RestaurantImportStatus.INVALID, report.rows().get(4).status());
+        verify(restaurantBatchRepository, times(1)).insertRestaurants(argThat(rows -> rows.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Test a failing chunk is reported as failed while the other chunks are kept")
+    void testImportChunkFailure() {
+        when(restaurantBatchRepository.insertRestaurants(anyList()))
+                .thenReturn(List.of(10L))
+                .thenThrow(new DataIntegrityViolationException("unique"));
+
+        RestaurantImportReportDto report = restaurantImportService.importRestaurants(
+                List.of(restaurant("pizza@ge.com", "+351219879876", 1L), restaurant("sushi@ge.com", "+351219879877", 1L)), 1);
+
+        assertEquals(1, report.imported());
+        assertEquals(RestaurantImportStatus.IMPORTED, report.rows().get(0).status());
+        assertEquals(RestaurantImportStatus.FAILED, report.rows().get(1).status());
+        assertTrue(report.rows().get(1).message().startsWith(Message.IMPORT_CHUNK_FAILED));
+        verify(restaurantBatchRepository, times(2)).insertRestaurants(anyList());
+        verify(restaurantGeoService, times(1)).index(anyLong(), anyDouble(), anyDouble(), anyLong(), anyCollection());
+    }
+
+    private RestaurantPostDto restaurant(String email, String phoneNumber, Long cityId) {
+        return new RestaurantPostDto("Pizza", new Address(), email, phoneNumber, 8.123, -9.32, cityId, Set.of(1L, 2L));
+    }
+}
@@ -0,0 +1,132 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.RestaurantSummary;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService.SearchHit;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchServiceImpl;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class RestaurantSearchServiceTest {
+
+    @Mock
+    private RestaurantSummaryRepository restaurantSummaryRepository;
+
+    private RestaurantSearchServiceImpl restaurantSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        restaurantSearchService = new RestaurantSearchServiceImpl(restaurantSummaryRepository, 50, 4, 4);
+        restaurantSearchService.index(summary(1L, "Tasca do Chico", "Rua do Diário de Notícias", "Lisboa", "Portuguese", 8.0));
+        restaurantSearchService.index(summary(2L, "Sushi Bar", "Avenida da Liberdade", "Lisboa", "Japanese", 7.0));
+        restaurantSearchService.index(summary(3L, "Sushi Ribeira", "Cais da Ribeira", "Porto", "Japanese", 9.0));
+        restaurantSearchService.index(summary(4L, "Tascantiga", "Rua de São Miguel", "Lisboa", "Portuguese", 9.5));
+    }
+
+    @Test
+    @DisplayName("Test every query word must match and exact matches rank before prefixes")
+    void testSearchMatchesAllWords() throws InvalidSearchQueryException {
+        assertEquals(List.of(3L), ids(restaurantSearchService.search("sushi porto", 10)));
+        assertEquals(List.of(1L, 4L), ids(restaurantSearchService.search("tasca lisboa", 10)));
+        assertEquals(List.of(new SearchHit(1L, 6), new SearchHit(4L, 5)), restaurantSearchService.search("tasca lisboa", 10));
+    }
+
+    @Test
+    @DisplayName("Test prefixes match and hits with the same score rank by rating")
+    void testSearchPrefix() throws InvalidSearchQueryException {
+        assertEquals(List.of(4L, 1L), ids(restaurantSearchService.search("tas", 10)));
+        assertEquals(List.of(3L, 2L), ids(restaurantSearchService.search("jap", 10)));
+        assertEquals(List.of(3L), ids(restaurantSearchService.search("jap", 1)));
+    }
+
+    @Test
+    @DisplayName("Test words one typo away match, accents and case are ignored")
+    void testSearchTypos() throws InvalidSearchQueryException {
+        assertEquals(List.of(new SearchHit(2L, 2)), restaurantSearchService.search("lisbao libredade", 10));
+        assertEquals(List.of(new SearchHit(3L, 1), new SearchHit(2L, 1)), restaurantSearchService.search("sushu", 10));
+        assertEquals(List.of(3L), ids(restaurantSearchService.search("ribiera", 10)));
+        assertEquals(List.of(1L), ids(restaurantSearchService.search("DIARIO Notícias", 10)));
+        assertTrue(restaurantSearchService.search("tsc", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test updating and removing a restaurant updates the index")
+    void testIndexUpdates() throws InvalidSearchQueryException {
+        restaurantSearchService.index(summary(2L, "Sushi Bar", "Rua das Flores", "Porto", "Japanese", 7.0));
+        restaurantSearchService.remove(3L);
+
+        assertEquals(List.of(2L), ids(restaurantSearchService.search("sushi porto", 10)));
+        assertTrue(restaurantSearchService.search("liberdade", 10).isEmpty());
+        assertTrue(restaurantSearchService.search("ribeira", 10).isEmpty());
+        assertEquals(3, restaurantSearchService.size());
+    }
+
+    @Test
+    @DisplayName("Test reindexing drops the restaurants whose summary is gone")
+    void testReindex() throws InvalidSearchQueryException {
+        when(restaurantSummaryRepository.findAllById(any())).thenReturn(List.of(summary(1L, "Tasca do Chico", "Rua do Diário de Notícias", "Porto", "Portuguese", 8.0)));
+
+        restaurantSearchService.reindex(List.of(1L, 4L));
+
+        assertEquals(List.of(1L), ids(restaurantSearchService.search("tasca porto", 10)));
+        assertTrue(restaurantSearchService.search("tascantiga", 10).isEmpty());
+        assertEquals(3, restaurantSearchService.size());
+    }
+
+    @Test
+    @DisplayName("Test rebuilding reads every summary")
+    void testRebuild() throws InvalidSearchQueryException {
+        when(restaurantSummaryRepository.findBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(summary(5L, "Cervejaria Ramiro", "Avenida Almirante Reis", "Lisboa", "Seafood", 9.0)), ScrollPosition::offset));
+
+        restaurantSearchService.rebuild();
+
+        assertEquals(1, restaurantSearchService.size());
+        assertEquals(List.of(5L), ids(restaurantSearchService.search("ramiro", 10)));
+        assertTrue(restaurantSearchService.search("sushi", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test empty or too long queries and invalid limits are rejected")
+    void testInvalidQuery() {
+        assertThrows(InvalidSearchQueryException.class, () -> restaurantSearchService.search(" - ", 10));
+        assertThrows(InvalidSearchQueryException.class, () -> restaurantSearchService.search(null, 10));
+        assertThrows(InvalidSearchQueryException.class, () -> restaurantSearchService.search("a b c d e", 10));
+        assertThrows(InvalidSearchQueryException.class, () -> restaurantSearchService.search("sushi", 0));
+        assertThrows(InvalidSearchQueryException.class, () -> restaurantSearchService.search("sushi", 51));
+    }
+
+    private static List<Long> ids(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::restaurantId).toList();
+    }
+
+    private static RestaurantSummary summary(Long id, String name, String street, String cityName, String type, Double rating) {
+        RestaurantSummary summary = new RestaurantSummary(id);
+        summary.setName(name);
+        summary.setAddress(new Address(street, "1", "1000-001"));
+        summary.setCityName(cityName);
+        summary.setRestaurantTypes(Set.of(new RestaurantTypeDto(id * 10, type)));
+        summary.setRating(rating);
+        return summary;
+    }
+}
@@ -8,30 +8,48 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mindswap.springtheknife.converter.RestaurantConverter;
+import org.mindswap.springtheknife.dto.CursorPageDto;
+import org.mindswap.springtheknife.dto.restaurant.NearbyRestaurantDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantSearchResultDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPatchDto;
 import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
 import org.mindswap.springtheknife.exceptions.city.CityNotFoundException;
+import org.mindswap.springtheknife.exceptions.pagination.InvalidCursorException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidGeoQueryException;
+import org.mindswap.springtheknife.exceptions.restaurant.InvalidSearchQueryException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.restaurant.RestaurantNotFoundException;
 import org.mindswap.springtheknife.model.Address;
 import org.mindswap.springtheknife.model.City;
 import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.RestaurantSummary;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
 import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
 import org.mindswap.springtheknife.service.city.CityServiceImpl;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService;
+import org.mindswap.springtheknife.service.restaurantimage.ImageBlobService;
+import org.mindswap.springtheknife.service.restaurantgeo.RestaurantGeoService.GeoHit;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService.SearchHit;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
 import org.mindswap.springtheknife.utils.Message;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.*;
@@ -56,6 +74,18 @@ class RestaurantServiceTest {
     private RestaurantTypeRepository restaurantTypeRepository;
     @Mock
     private RestaurantConverter restaurantConverter;
+    @Mock
+    private RestaurantGeoService restaurantGeoService;
+    @Mock
+    private RestaurantSearchService restaurantSearchService;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryRepository restaurantSummaryRepository;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+    @Mock
+    private ImageBlobService imageBlobService;
     @InjectMocks
     private RestaurantServiceImpl restaurantService;
 
@@ -73,14 +103,56 @@ class RestaurantServiceTest {
 
     @Test
     void testGetRestaurants() {
-        List<Restaurant> restaurants = new ArrayList<>();
-        Page<Restaurant> pageRestaurant = new PageImpl<>(restaurants);
+        List<RestaurantSummary> restaurants = new ArrayList<>();
 
-        when(restaurantRepository.findAll(any(Pageable.class))).thenReturn(pageRestaurant);
+        when(restaurantSummaryRepository.findAllBy(any(Pageable.class))).thenReturn(restaurants);
 
         List<RestaurantGetDto> result = restaurantService.getAllRestaurants(1, 3, "asc");
 
         assertEquals(restaurants.size(), result.size());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Test get all restaurants builds each page from the summary table alone")
+    void testGetRestaurantsFromSummary() {
+        RestaurantSummary pizza = summary(1L, "Pizza");
+        pizza.setCityName("Porto");
+        pizza.setRestaurantTypes(new HashSet<>(Set.of(new RestaurantTypeDto(10L, "Italian"))));
+        pizza.setReviewCount(3);
+        pizza.setBookingCount(12);
+        pizza.setPrimaryImagePath("src/main/imagefiles/1/img.jpg");
+        RestaurantSummary sushi = summary(2L, "Sushi");
+
+        when(restaurantSummaryRepository.findAllBy(any(Pageable.class))).thenReturn(List.of(pizza, sushi));
+
+        List<RestaurantGetDto> result = restaurantService.getAllRestaurants(0, 10, "name");
+
+        assertEquals(2, result.size());
+        assertEquals("Porto", result.get(0).cityName());
+        assertEquals(Set.of(new RestaurantTypeDto(10L, "Italian")), result.get(0).restaurantTypes());
+        assertEquals(3L, result.get(0).reviewCount());
+        assertEquals(12L, result.get(0).bookingCount());
+        assertEquals("src/main/imagefiles/1/img.jpg", result.get(0).primaryImagePath());
+        assertTrue(result.get(1).restaurantTypes().isEmpty());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Test get restaurant reads its summary row")
+    void testGetRestaurant() throws RestaurantNotFoundException {
+        when(restaurantSummaryRepository.findById(1L)).thenReturn(Optional.of(summary(1L, "Pizza")));
+
+        assertEquals("Pizza", restaurantService.getRestaurant(1L).name());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Test get restaurant without a summary is not found")
+    void testGetRestaurantNotFound() {
+        when(restaurantSummaryRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(RestaurantNotFoundException.class, () -> restaurantService.getRestaurant(1L));
     }
 
     @Test
@@ -184,7 +256,8 @@ class RestaurantServiceTest {
 
         RestaurantPatchDto restaurantPatchDto = new RestaurantPatchDto(
                 new Address(),
-                "taken.email@example.com"
+                "taken.email@example.com",
+                null
         );
 
         when(restaurantRepository.findById(id)).thenReturn(Optional.of(existingRestaurant));
@@ -211,16 +284,65 @@ class RestaurantServiceTest {
 
         when(restaurantRepository.findById(restaurantId)).thenReturn(Optional.of(existingRestaurant));
         when(restaurantRepository.save(any(Restaurant.class))).thenReturn(updatedRestaurant);
+        RestaurantSummary refreshed = summary(restaurantId, "Pizza");
+        refreshed.setEmail("newEmail@example.com");
+        when(restaurantSummaryService.refresh(anyLong())).thenReturn(refreshed);
 
         RestaurantPatchDto restaurantPatchDto = new RestaurantPatchDto(
-                new Address(), "newEmail@example.com");
+                new Address(), "newEmail@example.com", 20);
 
         RestaurantGetDto result = restaurantService.patchRestaurant(restaurantId, restaurantPatchDto);
 
         assertEquals("newEmail@example.com", result.email());
 
+        verify(existingRestaurant, times(1)).setSlotCapacity(20);
         verify(restaurantRepository, times(1)).findById(restaurantId);
         verify(restaurantRepository, times(1)).save(any(Restaurant.class));
+        verify(restaurantGeoService, times(1)).index(updatedRestaurant);
+        verify(restaurantSummaryService, times(1)).refresh(anyLong());
+    }
+
+    @Test
+    @DisplayName("Test nearby restaurants keep the index order and hydrate with one summary query")
+    void testFindNearbyRestaurants() throws InvalidGeoQueryException {
+        when(restaurantGeoService.findNearest(41.15, -8.61, 5, 10, null, null))
+                .thenReturn(List.of(new GeoHit(7L, 0.4), new GeoHit(3L, 2.5), new GeoHit(9L, 3.0)));
+        when(restaurantSummaryRepository.findAllById(List.of(7L, 3L, 9L))).thenReturn(List.of(summary(3L, "Far"), summary(7L, "Near")));
+
+        List<NearbyRestaurantDto> result = restaurantService.findNearbyRestaurants(41.15, -8.61, 5, 10, null, null);
+
+        assertEquals(2, result.size());
+        assertEquals(7L, result.get(0).restaurantId());
+        assertEquals("Near", result.get(0).restaurant().name());
+        assertEquals(2.5, result.get(1).distanceKm());
+        assertEquals("Far", result.get(1).restaurant().name());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Test search results keep the index order and hydrate with one summary query")
+    void testSearchRestaurants() throws InvalidSearchQueryException {
+        when(restaurantSearchService.search("tasca", 10))
+                .thenReturn(List.of(new SearchHit(7L, 3), new SearchHit(3L, 2), new SearchHit(9L, 1)));
+        when(restaurantSummaryRepository.findAllById(List.of(7L, 3L, 9L))).thenReturn(List.of(summary(3L, "Tascantiga"), summary(7L, "Tasca")));
+
+        List<RestaurantSearchResultDto> result = restaurantService.searchRestaurants("tasca", 10);
+
+        assertEquals(List.of(7L, 3L), result.stream().map(RestaurantSearchResultDto::restaurantId).toList());
+        assertEquals(3, result.get(0).score());
+        assertEquals("Tascantiga", result.get(1).restaurant().name());
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Test deleting a restaurant drops it from the geo index")
+    void testDeleteRestaurantRemovesFromGeoIndex() throws RestaurantNotFoundException {
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(new Restaurant()));
+
+        restaurantService.deleteRestaurant(1L);
+
+        verify(restaurantGeoService, times(1)).remove(1L);
+        verify(restaurantSummaryService, times(1)).onRestaurantDeleted(1L);
     }
 
     @Test
@@ -228,13 +350,55 @@ class RestaurantServiceTest {
     void testFindAverageRating() {
         Long restaurantId = 1L;
         Double expectedAverageRating = 4.5;
+        RestaurantSummary rated = summary(restaurantId, "Pizza");
+        rated.setRating(expectedAverageRating);
+        rated.setReviewCount(2);
 
-        when(restaurantRepository.findAverageRating(restaurantId)).thenReturn(expectedAverageRating);
+        when(restaurantSummaryRepository.findById(restaurantId)).thenReturn(Optional.of(rated));
 
         Double actualAverageRating = restaurantService.findAverageRating(restaurantId);
 
         assertEquals(expectedAverageRating, actualAverageRating);
 
-        verify(restaurantRepository, times(1)).findAverageRating(restaurantId);
+        verify(restaurantSummaryRepository, times(1)).findById(restaurantId);
+    }
+
+    @Test
+    @DisplayName("Test a restaurant without reviews has no average rating")
+    void testFindAverageRatingWithoutReviews() {
+        when(restaurantSummaryRepository.findById(1L)).thenReturn(Optional.of(summary(1L, "Pizza")));
+
+        assertNull(restaurantService.findAverageRating(1L));
+    }
+
+    @Test
+    @DisplayName("Test scroll restaurants seeks from the cursor and returns the next one")
+    void testScrollRestaurants() throws InvalidCursorException {
+        Window<RestaurantSummary> window = Window.from(List.of(summary(4L, "Pizza")), i -> ScrollPosition.forward(Map.of("name", "Pizza", "id", 4L)), true);
+        String cursor = Base64.getUrlEncoder().encodeToString("{\"name\":\"Pasta\",\"id\":\"2\"}".getBytes());
+
+        when(restaurantSummaryRepository.findBy(ScrollPosition.forward(Map.of("name", "Pasta", "id", 2L)), Sort.by(Sort.Direction.ASC, "name"), Limit.of(1)))
+                .thenReturn(window);
+
+        CursorPageDto<RestaurantGetDto> result = restaurantService.scrollRestaurants(cursor, 1, "name");
+
+        assertEquals(1, result.content().size());
+        assertEquals("Pizza", result.content().get(0).name());
+        assertNotNull(result.nextCursor());
+        verify(restaurantRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Test scroll restaurants rejects a cursor issued for another sort")
+    void testScrollRestaurantsCursorSortMismatch() {
+        String cursor = Base64.getUrlEncoder().encodeToString("{\"name\":\"Pasta\",\"id\":\"2\"}".getBytes());
+
+        assertThrows(InvalidCursorException.class, () -> restaurantService.scrollRestaurants(cursor, 1, "email"));
+    }
+
+    private RestaurantSummary summary(Long id, String name) {
+        RestaurantSummary summary = new RestaurantSummary(id);
+        summary.setName(name);
+        return summary;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.dto.booking.BookingCreateDto;
+import org.mindswap.springtheknife.dto.city.CityDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantPostDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserCreateDto;
+import org.mindswap.springtheknife.dto.userexperience.UserExperienceCreateDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.model.City;
+import org.mindswap.springtheknife.model.RestaurantSummary;
+import org.mindswap.springtheknife.repository.BookingRepository;
+import org.mindswap.springtheknife.repository.CityRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
+import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
+import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
+import org.mindswap.springtheknife.service.city.CityServiceImpl;
+import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantimport.RestaurantImportService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService;
+import org.mindswap.springtheknife.service.restaurantsearch.RestaurantSearchService.SearchHit;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
+import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.service.userexperience.UserExperienceServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through the real services and checks the restaurant_summary row they maintain.
+ */
+@SpringBootTest(properties = "spring.cache.type=none")
+class RestaurantSummaryServiceTest {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private RestaurantSummaryService restaurantSummaryService;
+    @Autowired
+    private RestaurantSummaryRepository restaurantSummaryRepository;
+    @Autowired
+    private RestaurantServiceImpl restaurantService;
+    @Autowired
+    private CityServiceImpl cityService;
+    @Autowired
+    private RestaurantTypeServiceImpl restaurantTypeService;
+    @Autowired
+    private UserServiceImpl userService;
+    @Autowired
+    private BookingServiceImpl bookingService;
+    @Autowired
+    private UserExperienceServiceImpl userExperienceService;
+    @Autowired
+    private RestaurantImportService restaurantImportService;
+    @Autowired
+    private RestaurantSearchService restaurantSearchService;
+    @Autowired
+    private CityRepository cityRepository;
+    @Autowired
+    private RestaurantTypeRepository restaurantTypeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long cityId;
+    private Long restaurantTypeId;
+    private Long restaurantId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        suffix = "s" + SEQUENCE.incrementAndGet();
+        cityService.createCity(new CityDto("Lisboa" + suffix));
+        cityId = cityRepository.findByName("Lisboa" + suffix).orElseThrow().getId();
+        restaurantTypeService.addRestaurantType(new RestaurantTypeDto(null, "Tasca" + suffix));
+        restaurantTypeId = restaurantTypeRepository.findByType("Tasca" + suffix).orElseThrow().getId();
+        String email = "tasca" + suffix + "@ge.com";
+        String phoneNumber = String.format("+35191%08d", Math.floorMod(email.hashCode(), 100_000_000));
+        restaurantId = restaurantImportService.importRestaurants(List.of(new RestaurantPostDto("Tasca", new Address(), email, phoneNumber,
+                38.72, -9.14, cityId, Set.of(restaurantTypeId))), null).rows().get(0).restaurantId();
+    }
+
+    @Test
+    @DisplayName("Test an imported restaurant is summarized with its city and types")
+    void testImportWritesSummary() throws Exception {
+        RestaurantGetDto restaurant = restaurantService.getRestaurant(restaurantId);
+
+        assertEquals("Tasca", restaurant.name());
+        assertEquals("Lisboa" + suffix, restaurant.cityName());
+        assertEquals(Set.of(new RestaurantTypeDto(restaurantTypeId, "Tasca" + suffix)), restaurant.restaurantTypes());
+        assertEquals(0L, restaurant.reviewCount());
+        assertEquals(0L, restaurant.bookingCount());
+        assertNull(restaurant.primaryImagePath());
+    }
+
+    @Test
+    @DisplayName("Test bookings and reviews update the counts and rating of the summary")
+    void testBookingsAndReviewsUpdateSummary() throws Exception {
+        Long userId = addUser();
+        bookingService.addBooking(new BookingCreateDto(userId, restaurantId, LocalDate.now().plusDays(1).atTime(20, 0), BookingStatus.COMPLETE));
+        bookingService.addBooking(new BookingCreateDto(userId, restaurantId, LocalDate.now().plusDays(2).atTime(20, 0), BookingStatus.CONFIRMED));
+        assertEquals(2L, summary().getBookingCount());
+
+        Long bookingId = bookingRepository.findAll().stream()
+                .filter(b -> b.getStatus() == BookingStatus.COMPLETE && b.getRestaurant().getId().equals(restaurantId))
+                .findFirst().orElseThrow().getId();
+        userExperienceService.addNewUserExperience(new UserExperienceCreateDto(bookingId, userId, restaurantId, 6.0, "Good"));
+        assertEquals(6.0, summary().getRating());
+        assertEquals(1L, summary().getReviewCount());
+        assertEquals(6.0, restaurantService.findAverageRating(restaurantId));
+
+        LocalDateTime confirmed = LocalDate.now().plusDays(2).atTime(20, 0);
+        assertEquals(1, bookingService.getAvailability(restaurantId, confirmed, confirmed.plusMinutes(1)).get(0).booked());
+
+        userService.deleteUser(userId);
+        assertEquals(0L, summary().getBookingCount());
+        assertEquals(0, bookingService.getAvailability(restaurantId, confirmed, confirmed.plusMinutes(1)).get(0).booked());
+        assertEquals(0L, summary().getReviewCount());
+        assertEquals(0.0, summary().getRating());
+        assertNull(restaurantService.findAverageRating(restaurantId));
+    }
+
+    @Test
+    @DisplayName("Test only the first image of a restaurant becomes its primary image")
+    void testFirstImageIsPrimary() {
+        restaurantSummaryService.onImageAdded(restaurantId, "images/" + suffix + "/first.jpg");
+        restaurantSummaryService.onImageAdded(restaurantId, "images/" + suffix + "/second.jpg");
+
+        assertEquals("images/" + suffix + "/first.jpg", summary().getPrimaryImagePath());
+    }
+
+    @Test
+    @DisplayName("Test renaming the city is reflected in the summary")
+    void testCityRenameUpdatesSummary() throws Exception {
+        cityService.updateCity(cityId, City.builder().name("Sintra" + suffix).build());
+
+        assertEquals("Sintra" + suffix, summary().getCityName());
+    }
+
+    @Test
+    @DisplayName("Test the search index follows the summary once the change commits")
+    void testSearchFollowsSummary() throws Exception {
+        assertTrue(searchIds("tasca lisboa" + suffix).contains(restaurantId));
+
+        cityService.updateCity(cityId, City.builder().name("Sintra" + suffix).build());
+
+        assertFalse(searchIds("lisboa" + suffix).contains(restaurantId));
+        assertTrue(searchIds("tasca sintra" + suffix).contains(restaurantId));
+    }
+
+    @Test
+    @DisplayName("Test the backfill summarizes restaurants that have no summary")
+    void testBackfill() {
+        restaurantSummaryRepository.deleteById(restaurantId);
+        assertTrue(restaurantSummaryRepository.findById(restaurantId).isEmpty());
+
+        assertTrue(restaurantSummaryService.backfill() >= 1);
+
+        assertEquals("Lisboa" + suffix, summary().getCityName());
+        assertEquals(0, restaurantSummaryService.backfill());
+    }
+
+    private List<Long> searchIds(String query) throws Exception {
+        return restaurantSearchService.search(query, 50).stream().map(SearchHit::restaurantId).toList();
+    }
+
+    private RestaurantSummary summary() {
+        return restaurantSummaryRepository.findById(restaurantId).orElseThrow();
+    }
+
+    private Long addUser() throws Exception {
+        userService.createUser(new UserCreateDto("rui" + suffix, "secret", "rui" + suffix + "@ge.com", "Rui", "Costa",
+                LocalDate.of(1990, 1, 1), Set.of()));
+        return userRepository.findByUserName("rui" + suffix).orElseThrow().getId();
+    }
+}
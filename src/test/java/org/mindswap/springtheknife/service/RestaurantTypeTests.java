@@ -12,7 +12,9 @@ import org.mindswap.springtheknife.exceptions.restaurantType.RestaurantTypeNotFo
 import org.mindswap.springtheknife.model.*;
 import org.mindswap.springtheknife.repository.RestaurantTypeRepository;
 
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.restauranttype.RestaurantTypeServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -37,6 +39,10 @@ public class RestaurantTypeTests {
 
     @Mock
     private RestaurantTypeRepository restaurantTypeRepository;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
 
     @InjectMocks
     private RestaurantTypeServiceImpl restaurantTypeService;
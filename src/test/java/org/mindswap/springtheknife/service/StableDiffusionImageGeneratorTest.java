@@ -0,0 +1,136 @@
+package org.mindswap.springtheknife.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.service.restaurantimage.StableDiffusionImageGenerator;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the generator against a stub txt2img backend on a local port that writes its response in small chunks.
+ */
+@SpringBootTest
+class StableDiffusionImageGeneratorTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicReference<String> lastRequest = new AtomicReference<>();
+    private volatile int failuresBeforeSuccess;
+    private volatile int failureStatus = 503;
+    private volatile String responseBody;
+
+    private HttpServer upstream;
+    private StableDiffusionImageGenerator imageGenerator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.createContext("/sdapi/v1/txt2img", exchange -> {
+            lastRequest.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (upstreamCalls.incrementAndGet() <= failuresBeforeSuccess) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < body.length; i += 1000) {
+                    out.write(body, i, Math.min(1000, body.length - i));
+                    out.flush();
+                }
+            }
+        });
+        upstream.start();
+        imageGenerator = new StableDiffusionImageGenerator(WebClient.builder(), "http://localhost:" + upstream.getAddress().getPort(),
+                15, 2, Duration.ofSeconds(1), Duration.ofSeconds(5), 2, Duration.ofMillis(10), DataSize.ofKilobytes(64));
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageGenerator.shutdown();
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("Test images[0] is decoded from a chunked response and the other fields are skipped")
+    void testGenerate() {
+        byte[] image = image(20_000, 1);
+        String encoded = Base64.getEncoder().encodeToString(image).replace("/", "\\/");
+        responseBody = "{\"parameters\": {\"prompt\": \"\\\"images\\\": [\\\"x\\\"]\", \"images\": [\"AAAA\"], \"steps\": 15},"
+                + " \"images\" : [ \"" + encoded + "\", \"" + Base64.getEncoder().encodeToString(image(100, 2)) + "\"],"
+                + " \"info\": \"{\\\"seed\\\": 1}\"}";
+
+        assertArrayEquals(image, imageGenerator.generate("tasca facade").block(Duration.ofSeconds(5)));
+        assertTrue(lastRequest.get().contains("\"prompt\":\"tasca facade\""));
+        assertTrue(lastRequest.get().contains("\"steps\":15"));
+    }
+
+    @Test
+    @DisplayName("Test an unpadded image of any length is decoded whole")
+    void testGenerateUnpadded() {
+        for (int length = 1; length <= 3; length++) {
+            byte[] image = image(length, length);
+            responseBody = "{\"images\":[\"" + Base64.getEncoder().withoutPadding().encodeToString(image) + "\"]}";
+
+            assertArrayEquals(image, imageGenerator.generate("facade").block(Duration.ofSeconds(5)));
+        }
+    }
+
+    @Test
+    @DisplayName("Test an unavailable backend is retried and a rejected request is not")
+    void testRetries() {
+        responseBody = "{\"images\":[\"" + Base64.getEncoder().encodeToString(image(10, 1)) + "\"]}";
+        failuresBeforeSuccess = 2;
+
+        assertEquals(10, imageGenerator.generate("facade").block(Duration.ofSeconds(5)).length);
+        assertEquals(3, upstreamCalls.get());
+
+        upstreamCalls.set(0);
+        failureStatus = 422;
+        WebClientResponseException e = assertThrows(WebClientResponseException.class,
+                () -> imageGenerator.generate("facade").block(Duration.ofSeconds(5)));
+        assertEquals(422, e.getStatusCode().value());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Test a response without an image or with an image over the limit fails")
+    void testInvalidResponses() {
+        responseBody = "{\"parameters\": {\"images\": [\"AAAA\"]}, \"images\": []}";
+        assertThrows(DecodingException.class, () -> imageGenerator.generate("facade").block(Duration.ofSeconds(5)));
+
+        responseBody = "{\"images\":[\"not base64!\"]}";
+        assertThrows(DecodingException.class, () -> imageGenerator.generate("facade").block(Duration.ofSeconds(5)));
+
+        responseBody = "{\"images\":[\"" + Base64.getEncoder().encodeToString(image(70_000, 1)) + "\"]}";
+        assertThrows(DataBufferLimitException.class, () -> imageGenerator.generate("facade").block(Duration.ofSeconds(5)));
+    }
+
+    private static byte[] image(int size, long seed) {
+        byte[] image = new byte[size];
+        new Random(seed).nextBytes(image);
+        return image;
+    }
+}
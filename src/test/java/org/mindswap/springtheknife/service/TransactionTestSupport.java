@@ -0,0 +1,33 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drives transaction synchronizations by hand, for unit tests of services that defer work to commit or
+ * undo it on rollback without a transaction manager behind them.
+ */
+final class TransactionTestSupport {
+
+    private TransactionTestSupport() {
+    }
+
+    /**
+     * Runs the work with transaction synchronization active, then completes it the way the transaction manager would.
+     */
+    static void inTransaction(boolean commit, Executable work) throws Throwable {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.execute();
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                if (commit) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.mindswap.springtheknife.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.service.cache.NearCacheInvalidation;
+import org.mindswap.springtheknife.service.cache.TwoTierCache;
+import org.mindswap.springtheknife.service.cache.TwoTierCacheManager;
+import org.mindswap.springtheknife.service.cache.TwoTierCacheMeterBinder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes share a map-backed cache manager that stands in for Redis and an in-memory bus that stands in
+ * for pub/sub.
+ */
+@SpringBootTest
+class TwoTierCacheTest {
+
+    private static final String CACHE = "RestaurantById";
+
+    private final List<TwoTierCacheManager> nodes = new CopyOnWriteArrayList<>();
+    private final Consumer<NearCacheInvalidation> bus = invalidation -> nodes.forEach(node -> node.onInvalidation(invalidation));
+    private Runnable duringSharedRead = () -> {
+    };
+
+    private ConcurrentMapCacheManager shared;
+    private TwoTierCache nodeA;
+    private TwoTierCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        shared = new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    protected Object lookup(Object key) {
+                        Object value = super.lookup(key);
+                        duringSharedRead.run();
+                        return value;
+                    }
+                };
+            }
+        };
+        nodeA = node(bus);
+        nodeB = node(bus);
+    }
+
+    @Test
+    @DisplayName("Test a repeated read is served from the local tier")
+    void testRepeatedReadStaysLocal() {
+        nodeA.put(1L, "pizza");
+
+        assertEquals("pizza", nodeB.get(1L).get());
+        shared.getCache(CACHE).evict(1L);
+        assertEquals("pizza", nodeB.get(1L).get());
+
+        assertEquals(1, nodeB.getSharedHits());
+        assertEquals(1, nodeB.getLocalHits());
+    }
+
+    @Test
+    @DisplayName("Test an eviction on one node drops the local copy on the others")
+    void testEvictReachesOtherNodes() {
+        nodeA.put(1L, "pizza");
+        nodeA.put(2L, "sushi");
+        nodeB.get(1L);
+        nodeB.get(2L);
+
+        nodeA.evict(1L);
+        assertNull(nodeB.get(1L));
+        assertEquals("sushi", nodeB.get(2L).get());
+
+        nodeA.clear();
+        assertNull(nodeB.get(2L));
+    }
+
+    @Test
+    @DisplayName("Test a value evicted while it was read from the shared tier is not kept locally")
+    void testEvictionDuringSharedReadIsNotCached() {
+        nodeA.put(1L, "pizza");
+        duringSharedRead = () -> {
+            duringSharedRead = () -> {
+            };
+            nodeA.evict(1L);
+        };
+
+        assertEquals("pizza", nodeB.get(1L).get());
+
+        assertNull(nodeB.get(1L));
+    }
+
+    @Test
+    @DisplayName("Test a failing bus does not fail the eviction")
+    void testEvictWithFailingBus() {
+        TwoTierCache isolated = node(invalidation -> {
+            throw new IllegalStateException("redis down");
+        });
+        isolated.put(1L, "pizza");
+
+        isolated.evict(1L);
+
+        assertNull(isolated.get(1L));
+    }
+
+    @Test
+    @DisplayName("Test hits, misses and puts are published per cache and per tier")
+    void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoTierCacheMeterBinder(nodeB, List.of()).bindTo(registry);
+
+        nodeB.get(1L);
+        nodeA.put(1L, "pizza");
+        nodeB.get(1L);
+        nodeB.get(1L);
+        nodeB.put(2L, "sushi");
+
+        assertEquals(2, registry.get("cache.gets").tag("cache", CACHE).tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.puts").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.hits").tag("tier", "local").functionCounter().count());
+        assertEquals(1, registry.get("cache.tier.hits").tag("tier", "shared").functionCounter().count());
+        assertEquals(2, registry.get("cache.tier.size").gauge().value());
+    }
+
+    private TwoTierCache node(Consumer<NearCacheInvalidation> transport) {
+        TwoTierCacheManager manager = new TwoTierCacheManager(shared, 100, Duration.ofMinutes(1), transport, List.of(CACHE));
+        nodes.add(manager);
+        return (TwoTierCache) manager.getCache(CACHE);
+    }
+}
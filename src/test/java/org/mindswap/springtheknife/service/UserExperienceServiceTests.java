@@ -20,9 +20,12 @@ import org.mindswap.springtheknife.exceptions.userexperience.UserExperienceNotFo
 import org.mindswap.springtheknife.model.*;
 import org.mindswap.springtheknife.repository.UserExperienceRepository;
 import org.mindswap.springtheknife.service.booking.BookingServiceImpl;
+import org.mindswap.springtheknife.service.rating.RatingAggregationService;
 import org.mindswap.springtheknife.service.restaurant.RestaurantServiceImpl;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
 import org.mindswap.springtheknife.service.userexperience.UserExperienceServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -56,6 +59,12 @@ public class UserExperienceServiceTests {
     private RestaurantServiceImpl restaurantServiceImpl;
     @Mock
     private BookingServiceImpl bookingServiceImpl;
+    @Mock
+    private RatingAggregationService ratingAggregationService;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
 
     @MockBean
     private User user;
@@ -157,7 +166,7 @@ public class UserExperienceServiceTests {
         userExperience.setUser(user);
         userExperience.setRestaurant(restaurant);
         userExperience.setRating(5.0);
-        when(userExperienceRepository.findById(id)).thenReturn(Optional.of(userExperience));
+        when(userExperienceRepository.findDetailById(id)).thenReturn(Optional.of(userExperience));
 
     }
 
@@ -166,7 +175,7 @@ public class UserExperienceServiceTests {
     void testGetUserExperienceById_NotFound() {
 
         Long id = 1L;
-        when(userExperienceRepository.findById(id)).thenReturn(Optional.empty());
+        when(userExperienceRepository.findDetailById(id)).thenReturn(Optional.empty());
 
         assertThrows(UserExperienceNotFoundException.class, () -> userExperienceService.getUserExperienceById(id));
     }
@@ -283,6 +292,7 @@ public class UserExperienceServiceTests {
         userExperienceService.deleteUserExperience(userExperienceId);
 
         verify(userExperienceRepository, times(1)).deleteById(userExperienceId);
+        verify(ratingAggregationService, times(1)).onReviewRemoved(userExperience);
     }
 
     @Test
@@ -311,6 +321,8 @@ public class UserExperienceServiceTests {
 
         UserExperiencePatchDto result = userExperienceService.updateUserExperience(userExperienceId, userExperiencePatchDto);
 
+        verify(ratingAggregationService, times(1)).onReviewRatingChanged(userExperience, 3.0);
+
     }
 
 }
\ No newline at end of file
@@ -12,11 +12,17 @@ import org.mindswap.springtheknife.dto.user.UserPatchDto;
 import org.mindswap.springtheknife.exceptions.user.UserAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserEmailAlreadyExistsException;
 import org.mindswap.springtheknife.exceptions.user.UserNotFoundException;
-import org.mindswap.springtheknife.model.Restaurant;
+import org.mindswap.springtheknife.model.Booking;
 import org.mindswap.springtheknife.model.User;
+import org.mindswap.springtheknife.model.UserExperience;
 import org.mindswap.springtheknife.repository.RestaurantRepository;
+import org.mindswap.springtheknife.repository.RestaurantSummaryRepository;
 import org.mindswap.springtheknife.repository.UserRepository;
+import org.mindswap.springtheknife.service.booking.BookingAvailabilityService;
+import org.mindswap.springtheknife.service.rating.RatingAggregationService;
+import org.mindswap.springtheknife.service.restaurantsummary.RestaurantSummaryService;
 import org.mindswap.springtheknife.service.user.UserServiceImpl;
+import org.mindswap.springtheknife.service.cache.CacheInvalidationService;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -44,6 +50,16 @@ public class UserServiceTests {
 
     @Mock
     private RestaurantRepository restaurantRepository;
+    @Mock
+    private CacheInvalidationService cacheInvalidationService;
+    @Mock
+    private RestaurantSummaryService restaurantSummaryService;
+    @Mock
+    private RestaurantSummaryRepository restaurantSummaryRepository;
+    @Mock
+    private RatingAggregationService ratingAggregationService;
+    @Mock
+    private BookingAvailabilityService bookingAvailabilityService;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -108,6 +124,39 @@ public class UserServiceTests {
         assertDoesNotThrow(() -> userService.deleteUser(userId));
     }
 
+    @Test
+    @DisplayName("Test deleting a user takes each of its reviews out of the restaurant ratings")
+    void testDeleteUserRemovesReviews() throws UserNotFoundException {
+        long userId = 1L;
+        UserExperience first = UserExperience.builder().id(1L).rating(4.0).build();
+        UserExperience second = UserExperience.builder().id(2L).rating(8.0).build();
+        User existingUser = new User();
+        existingUser.setUserExperiences(new ArrayList<>(List.of(first, second)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+
+        userService.deleteUser(userId);
+
+        verify(userRepository, times(1)).deleteById(userId);
+        verify(ratingAggregationService, times(1)).onReviewRemoved(first);
+        verify(ratingAggregationService, times(1)).onReviewRemoved(second);
+    }
+
+    @Test
+    @DisplayName("Test deleting a user frees the seat of each of its bookings")
+    void testDeleteUserReleasesBookings() throws UserNotFoundException {
+        long userId = 1L;
+        Booking first = new Booking();
+        Booking second = new Booking();
+        User existingUser = new User();
+        existingUser.setBookings(new ArrayList<>(List.of(first, second)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
+
+        userService.deleteUser(userId);
+
+        verify(bookingAvailabilityService, times(1)).onBookingRemoved(first);
+        verify(bookingAvailabilityService, times(1)).onBookingRemoved(second);
+    }
+
     @Test
     @DisplayName("Test update user")
     void testUpdateUser() throws UserNotFoundException, UserAlreadyExistsException {
@@ -164,9 +213,7 @@ public class UserServiceTests {
         when(userRepository.findByEmail(userCreateDto.email())).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
 
-        Restaurant restaurant1 = new Restaurant();
-        restaurant1.setId(1L);
-        when(restaurantRepository.findById(anyLong())).thenReturn(Optional.of(restaurant1));
+        when(restaurantRepository.findAllById(userCreateDto.favoriteRestaurants())).thenReturn(List.of());
 
         UserGetDto result = userService.createUser(userCreateDto);
 
@@ -0,0 +1,104 @@
+package org.mindswap.springtheknife.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.Enum.BookingStatus;
+import org.mindswap.springtheknife.Enum.CachedEntity;
+import org.mindswap.springtheknife.config.RedisCacheConfig;
+import org.mindswap.springtheknife.dto.booking.BookingGetDto;
+import org.mindswap.springtheknife.dto.city.CityGetDto;
+import org.mindswap.springtheknife.dto.restaurant.RestaurantGetDto;
+import org.mindswap.springtheknife.dto.restaurantTypeDto.RestaurantTypeDto;
+import org.mindswap.springtheknife.dto.user.UserGetDto;
+import org.mindswap.springtheknife.model.Address;
+import org.mindswap.springtheknife.service.cache.VersionedCacheSerializer;
+import org.mindswap.springtheknife.utils.CacheNames;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class VersionedCacheSerializerTest {
+
+    @Test
+    @DisplayName("Test every cached DTO and page reads back equal to what was written")
+    void testRoundTrip() {
+        RestaurantGetDto restaurant = restaurant(1, null);
+        UserGetDto user = new UserGetDto(3L, "ana", Set.of(restaurant));
+        BookingGetDto booking = new BookingGetDto(7L, user, restaurant, LocalDateTime.of(2026, 5, 1, 20, 30), BookingStatus.CONFIRMED);
+        CityGetDto city = new CityGetDto(2L, "Porto", List.of(restaurant, restaurant(2, null)));
+
+        assertEquals(booking, roundTrip(VersionedCacheSerializer.of(BookingGetDto.class), booking));
+        assertEquals(city, roundTrip(VersionedCacheSerializer.of(CityGetDto.class), city));
+        assertEquals(List.of(user), roundTrip(VersionedCacheSerializer.listOf(UserGetDto.class), List.of(user)));
+        RestaurantGetDto read = (RestaurantGetDto) roundTrip(VersionedCacheSerializer.of(RestaurantGetDto.class), restaurant(1));
+        assertEquals("Rua de Santa Catarina", read.address().getStreet());
+        assertEquals("1", read.address().getNumber());
+    }
+
+    @Test
+    @DisplayName("Test values of another format, shape or version read as a miss")
+    void testForeignValuesReadAsMiss() {
+        VersionedCacheSerializer restaurantSerializer = VersionedCacheSerializer.of(RestaurantGetDto.class);
+        byte[] typeBytes = VersionedCacheSerializer.of(RestaurantTypeDto.class).serialize(new RestaurantTypeDto(1L, "Italian"));
+        byte[] restaurantBytes = restaurantSerializer.serialize(restaurant(1));
+        restaurantBytes[0]++;
+
+        assertNull(restaurantSerializer.deserialize(RedisSerializer.java().serialize(restaurant(1))));
+        assertNull(restaurantSerializer.deserialize(typeBytes));
+        assertNull(restaurantSerializer.deserialize(restaurantBytes));
+        assertNull(restaurantSerializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("Test every entity cache is configured with its versioned serializer")
+    void testRedisCacheConfig() {
+        RedisCacheManager.RedisCacheManagerBuilder builder = RedisCacheManager.builder(mock(RedisConnectionFactory.class));
+        new RedisCacheConfig().versionedCacheSerializers().customize(builder);
+
+        for (CachedEntity entity : CachedEntity.values()) {
+            assertTrue(builder.getConfiguredCaches().containsAll(Set.of(entity.getByIdCache(), entity.getPagesCache())));
+        }
+        RedisCacheManager redisCacheManager = builder.build();
+        redisCacheManager.afterPropertiesSet();
+        RedisCache cache = (RedisCache) redisCacheManager.getCache(CacheNames.RESTAURANT_PAGES);
+        ByteBuffer written = cache.getCacheConfiguration().getValueSerializationPair().write(List.of(restaurant(1)));
+        assertArrayEquals(VersionedCacheSerializer.listOf(RestaurantGetDto.class).serialize(List.of(restaurant(1))), ByteUtils.getBytes(written));
+    }
+
+    @Test
+    @DisplayName("Test a restaurant page is less than half its size with JDK serialization")
+    void testSmallerThanJdkSerialization() {
+        List<RestaurantGetDto> page = IntStream.range(0, 50).mapToObj(this::restaurant).toList();
+
+        int jdkBytes = RedisSerializer.java().serialize(page).length;
+        int versionedBytes = VersionedCacheSerializer.listOf(RestaurantGetDto.class).serialize(page).length;
+
+        assertTrue(versionedBytes * 2 < jdkBytes);
+    }
+
+    private Object roundTrip(VersionedCacheSerializer serializer, Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    private RestaurantGetDto restaurant(int i) {
+        return restaurant(i, new Address("Rua de Santa Catarina", String.valueOf(i), "4000-447"));
+    }
+
+    private RestaurantGetDto restaurant(int i, Address address) {
+        return new RestaurantGetDto("Porto", "Pizza " + i, "pizza" + i + "@ge.com", address, "+35122000000" + i % 10, 4.5,
+                Set.of(new RestaurantTypeDto(1L, "Italian"), new RestaurantTypeDto(2L, "Pizzeria")));
+    }
+}
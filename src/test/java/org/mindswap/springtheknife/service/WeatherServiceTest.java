@@ -0,0 +1,135 @@
+package org.mindswap.springtheknife.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mindswap.springtheknife.exceptions.upstream.UpstreamUnavailableException;
+import org.mindswap.springtheknife.exceptions.weather.InvalidLocationException;
+import org.mindswap.springtheknife.service.weather.WeatherServiceImpl;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the weather service against a stub upstream on a local port, with the cache clock under test control.
+ */
+@SpringBootTest
+class WeatherServiceTest {
+
+    private final List<String> requestedLocations = new CopyOnWriteArrayList<>();
+    private final AtomicLong now = new AtomicLong();
+    private volatile int upstreamStatus = 200;
+    private volatile long upstreamDelayMillis;
+    private volatile String temperature = "18";
+
+    private HttpServer upstream;
+    private WeatherServiceImpl weatherService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.setExecutor(Executors.newCachedThreadPool());
+        upstream.createContext("/currentWeather/currentWeatherResource", exchange -> {
+            String query = exchange.getRequestURI().getRawQuery();
+            requestedLocations.add(URLDecoder.decode(query.substring("location=".length()), StandardCharsets.UTF_8));
+            sleep(upstreamDelayMillis);
+            byte[] body = ("{\"temperature\":" + temperature + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(upstreamStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        upstream.start();
+        weatherService = new WeatherServiceImpl(WebClient.builder(), "http://localhost:" + upstream.getAddress().getPort(),
+                Duration.ofSeconds(2), Duration.ofMinutes(5), Duration.ofMinutes(10), Duration.ofHours(1), 100, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstream.stop(0);
+    }
+
+    @Test
+    @DisplayName("Test spellings of the same location share one cache entry and one upstream call")
+    void testLocationIsNormalized() {
+        upstreamDelayMillis = 200;
+
+        List<String> results = Flux.just("Vila Nova de Gaia", "  vila nova  de GAIA ", "VILA NOVA DE GAIA", "Vila\tNova de Gaia")
+                .flatMap(weatherService::getCurrentWeather)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(4, results.size());
+        assertEquals(List.of("vila nova de gaia"), requestedLocations);
+    }
+
+    @Test
+    @DisplayName("Test the location is sent as an encoded query parameter")
+    void testLocationIsEncoded() {
+        weatherService.getCurrentWeather("Porto&units=imperial").block();
+
+        assertEquals(List.of("porto&units=imperial"), requestedLocations);
+    }
+
+    @Test
+    @DisplayName("Test an entry close to expiry is refreshed in the background")
+    void testRefreshAhead() throws InterruptedException {
+        weatherService.getCurrentWeather("Porto").block();
+        temperature = "21";
+        now.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertEquals("{\"temperature\":18}", weatherService.getCurrentWeather("Porto").block());
+
+        String refreshed = null;
+        for (int i = 0; i < 100 && !"{\"temperature\":21}".equals(refreshed); i++) {
+            Thread.sleep(20);
+            refreshed = weatherService.getCurrentWeather("porto").block();
+        }
+        assertEquals("{\"temperature\":21}", refreshed);
+        assertEquals(2, requestedLocations.size());
+    }
+
+    @Test
+    @DisplayName("Test the last known weather is served while the upstream fails")
+    void testLastKnownValueOnError() {
+        weatherService.getCurrentWeather("Porto").block();
+        now.addAndGet(Duration.ofMinutes(30).toNanos());
+        upstreamStatus = 500;
+
+        assertEquals("{\"temperature\":18}", weatherService.getCurrentWeather("Porto").block());
+    }
+
+    @Test
+    @DisplayName("Test a blank location is rejected and an unknown one reports the upstream as unavailable")
+    void testErrors() {
+        upstreamStatus = 502;
+
+        assertInstanceOf(InvalidLocationException.class, weatherService.getCurrentWeather("   ").materialize().block().getThrowable());
+        assertInstanceOf(UpstreamUnavailableException.class, weatherService.getCurrentWeather("Porto").materialize().block().getThrowable());
+        assertEquals(1, requestedLocations.size());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}